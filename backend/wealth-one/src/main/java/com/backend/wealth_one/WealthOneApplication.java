@@ -2,7 +2,10 @@ package com.backend.wealth_one;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.PropertySource;
 
+// Lowest precedence, so application.properties or the environment can override any of these
+@PropertySource("classpath:application-defaults.properties")
 @SpringBootApplication
 public class WealthOneApplication {
 
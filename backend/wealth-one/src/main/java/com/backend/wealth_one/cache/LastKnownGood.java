@@ -0,0 +1,102 @@
+package com.backend.wealth_one.cache;
+
+import com.backend.wealth_one.clients.ProviderUnavailableException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * The last successful provider response per key, kept so a request can still be
+ * answered while the provider is unavailable. Fallback values are always
+ * passed through a marker so callers can see they are stale.
+ */
+public class LastKnownGood<K, V> {
+
+    public record Entry<V>(V value, Instant fetchedAt) {}
+
+    private final String name;
+    private final Cache<K, Entry<V>> entries;
+    private final AtomicLong servedStale = new AtomicLong();
+    private final AtomicLong missed = new AtomicLong();
+
+    public LastKnownGood(String name, long maxSize, Duration maxAge) {
+        this.name = name;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(maxAge)
+                .build();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public V remember(K key, V value) {
+        if (value != null) {
+            entries.put(key, new Entry<>(value, Instant.now()));
+        }
+        return value;
+    }
+
+    /**
+     * The stored value for {@code key}, passed through {@code markStale}, when
+     * {@code error} means the provider could not answer. Empty otherwise.
+     */
+    public Optional<V> fallback(K key, Throwable error, BiFunction<V, Instant, V> markStale) {
+        if (!ProviderUnavailableException.isCause(error)) {
+            return Optional.empty();
+        }
+        Entry<V> entry = entries.getIfPresent(key);
+        if (entry == null) {
+            missed.incrementAndGet();
+            return Optional.empty();
+        }
+        servedStale.incrementAndGet();
+        return Optional.of(markStale.apply(entry.value(), entry.fetchedAt()));
+    }
+
+    /**
+     * Calls the provider and remembers the result; if the provider is
+     * unavailable, answers with the stale value instead, or rethrows when
+     * there is none.
+     */
+    public V call(K key, Supplier<V> upstream, BiFunction<V, Instant, V> markStale) {
+        try {
+            return remember(key, upstream.get());
+        } catch (RuntimeException e) {
+            return fallback(key, e, markStale).orElseThrow(() -> e);
+        }
+    }
+
+    /**
+     * Copy of a JSON object response with {@code stale: true} and the time it
+     * was fetched, for responses that are maps.
+     */
+    public static <T> T markStale(T value, Instant fetchedAt) {
+        if (!(value instanceof Map<?, ?> map)) {
+            return value;
+        }
+        Map<Object, Object> marked = new LinkedHashMap<>(map);
+        marked.put("stale", true);
+        marked.put("fetchedAt", fetchedAt.toString());
+        @SuppressWarnings("unchecked")
+        T result = (T) marked;
+        return result;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.estimatedSize());
+        stats.put("servedStale", servedStale.get());
+        stats.put("missed", missed.get());
+        return stats;
+    }
+}
@@ -0,0 +1,48 @@
+package com.backend.wealth_one.cache;
+
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates the named last-known-good stores and reports how often they stood in
+ * for a provider. Settings are read from {@code fallback.<name>.<setting>}
+ * with {@code fallback.default.<setting>} as the fallback.
+ */
+@Component
+public class LastKnownGoodRegistry {
+
+    private static final String PREFIX = "fallback.";
+
+    private final Environment env;
+    private final Map<String, LastKnownGood<?, ?>> stores = new ConcurrentHashMap<>();
+
+    public LastKnownGoodRegistry(Environment env) {
+        this.env = env;
+    }
+
+    public <K, V> LastKnownGood<K, V> create(String name) {
+        LastKnownGood<K, V> store = new LastKnownGood<>(name,
+                read(name, "max-size", 10000),
+                Duration.ofMillis(read(name, "max-age-ms", 86400000)));
+        if (stores.putIfAbsent(name, store) != null) {
+            throw new IllegalStateException("Last-known-good store already exists: " + name);
+        }
+        return store;
+    }
+
+    public Map<String, Map<String, Object>> stats() {
+        Map<String, Map<String, Object>> stats = new TreeMap<>();
+        stores.forEach((name, store) -> stats.put(name, store.stats()));
+        return stats;
+    }
+
+    private long read(String name, String setting, long fallback) {
+        Long defaultValue = env.getProperty(PREFIX + "default." + setting, Long.class, fallback);
+        return env.getProperty(PREFIX + name + "." + setting, Long.class, defaultValue);
+    }
+}
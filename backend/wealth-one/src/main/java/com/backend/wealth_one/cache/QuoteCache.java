@@ -0,0 +1,139 @@
+package com.backend.wealth_one.cache;
+
+import com.backend.wealth_one.clients.ProviderUnavailableException;
+import com.backend.wealth_one.clients.RequestPriority;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Quote cache in front of an upstream price source.
+ *
+ * <ul>
+ *   <li>Entries are fresh for {@code ttl}. After that they are served stale for up
+ *       to {@code staleWindow} while one background reload refreshes them.</li>
+ *   <li>Concurrent misses on the same key share a single upstream load.</li>
+ *   <li>Misses from one {@link #getAllAsync} call are loaded in one batch, so a
+ *       multi-symbol request costs at most one upstream call.</li>
+ *   <li>The blocking accessors wait at most {@code maxWait}, then fail with a
+ *       {@link ProviderUnavailableException} so callers can answer from
+ *       {@link LastKnownGood}. The load itself carries on and fills the cache.</li>
+ * </ul>
+ */
+public class QuoteCache<V> {
+
+    /**
+     * Loads quotes for a batch of keys. Keys missing from the result are
+     * treated as unknown and are not cached.
+     */
+    @FunctionalInterface
+    public interface Loader<V> {
+        CompletableFuture<Map<QuoteKey, V>> load(Set<QuoteKey> keys);
+    }
+
+    private final String name;
+    private final Duration maxWait;
+    private final AsyncLoadingCache<QuoteKey, V> cache;
+
+    public QuoteCache(String name, QuoteCacheSettings settings, Duration maxWait, Loader<V> loader, Executor executor) {
+        this.name = name;
+        this.maxWait = maxWait;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.maxSize())
+                .refreshAfterWrite(Duration.ofMillis(settings.ttlMs()))
+                .expireAfterWrite(Duration.ofMillis(settings.ttlMs() + settings.staleMs()))
+                .executor(executor)
+                .recordStats()
+                .buildAsync(new AsyncCacheLoader<>() {
+                    @Override
+                    public CompletableFuture<V> asyncLoad(QuoteKey key, Executor ignored) {
+                        return loader.load(Set.of(key)).thenApply(values -> values.get(key));
+                    }
+
+                    // Refresh-ahead is not waited on by anyone, so it yields to user requests
+                    @Override
+                    public CompletableFuture<V> asyncReload(QuoteKey key, V oldValue, Executor ignored) {
+                        return RequestPriority.callAs(RequestPriority.BACKGROUND, () -> asyncLoad(key, ignored));
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public CompletableFuture<Map<QuoteKey, V>> asyncLoadAll(Set<? extends QuoteKey> keys, Executor ignored) {
+                        return loader.load((Set<QuoteKey>) keys);
+                    }
+                });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CompletableFuture<V> getAsync(QuoteKey key) {
+        return cache.get(key);
+    }
+
+    public CompletableFuture<Map<QuoteKey, V>> getAllAsync(Collection<QuoteKey> keys) {
+        return cache.getAll(keys);
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public V get(QuoteKey key) {
+        return join(getAsync(key), maxWait);
+    }
+
+    public Map<QuoteKey, V> getAll(Collection<QuoteKey> keys) {
+        return join(getAllAsync(keys), maxWait);
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.synchronous().stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.synchronous().estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("loadSuccess", stats.loadSuccessCount());
+        result.put("loadFailure", stats.loadFailureCount());
+        result.put("averageLoadMs", stats.averageLoadPenalty() / 1_000_000.0);
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+
+    /**
+     * Waits up to {@code maxWait} for a cache result, rethrowing the loader's own
+     * exception rather than its wrapper. Running out of time is reported as a
+     * {@link ProviderUnavailableException}, so it qualifies for a stale fallback.
+     * The future is left running; other waiters still get its result.
+     */
+    public static <T> T join(CompletableFuture<T> future, Duration maxWait) {
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ProviderUnavailableException("No quote within " + maxWait.toMillis() + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProviderUnavailableException("Interrupted while waiting for a quote");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+}
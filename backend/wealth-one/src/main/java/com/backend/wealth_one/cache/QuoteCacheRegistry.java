@@ -0,0 +1,46 @@
+package com.backend.wealth_one.cache;
+
+import com.backend.wealth_one.configs.ExecutorConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Creates the named quote caches and reports their hit/miss statistics.
+ */
+@Component
+public class QuoteCacheRegistry {
+
+    private final Environment env;
+    private final Executor executor;
+    private final Map<String, QuoteCache<?>> caches = new ConcurrentHashMap<>();
+
+    public QuoteCacheRegistry(Environment env, @Qualifier(ExecutorConfig.QUOTE_LOADER_EXECUTOR) Executor executor) {
+        this.env = env;
+        this.executor = executor;
+    }
+
+    /**
+     * @param maxWait how long the blocking accessors wait for a load, normally
+     *                the provider's read timeout
+     */
+    public <V> QuoteCache<V> create(String name, Duration maxWait, QuoteCache.Loader<V> loader) {
+        QuoteCache<V> cache = new QuoteCache<>(name, QuoteCacheSettings.from(env, name), maxWait, loader, executor);
+        if (caches.putIfAbsent(name, cache) != null) {
+            throw new IllegalStateException("Quote cache already exists: " + name);
+        }
+        return cache;
+    }
+
+    public Map<String, Map<String, Object>> stats() {
+        Map<String, Map<String, Object>> stats = new TreeMap<>();
+        caches.forEach((name, cache) -> stats.put(name, cache.stats()));
+        return stats;
+    }
+}
@@ -0,0 +1,25 @@
+package com.backend.wealth_one.cache;
+
+import org.springframework.core.env.Environment;
+
+/**
+ * Settings for a named quote cache, read from {@code quote.cache.<name>.<setting>}
+ * with {@code quote.cache.default.<setting>} as the fallback.
+ */
+public record QuoteCacheSettings(long ttlMs, long staleMs, long maxSize) {
+
+    private static final String PREFIX = "quote.cache.";
+
+    public static QuoteCacheSettings from(Environment env, String name) {
+        return new QuoteCacheSettings(
+                read(env, name, "ttl-ms", 15000),
+                read(env, name, "stale-ms", 60000),
+                read(env, name, "max-size", 10000)
+        );
+    }
+
+    private static long read(Environment env, String name, String setting, long fallback) {
+        Long defaultValue = env.getProperty(PREFIX + "default." + setting, Long.class, fallback);
+        return env.getProperty(PREFIX + name + "." + setting, Long.class, defaultValue);
+    }
+}
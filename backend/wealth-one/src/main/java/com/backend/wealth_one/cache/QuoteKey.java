@@ -0,0 +1,13 @@
+package com.backend.wealth_one.cache;
+
+import java.util.Locale;
+
+/**
+ * Cache key for a single quote: one symbol priced in one currency.
+ */
+public record QuoteKey(String symbol, String convert) {
+
+    public static QuoteKey of(String symbol, String convert) {
+        return new QuoteKey(symbol.trim().toUpperCase(Locale.ROOT), convert.trim().toUpperCase(Locale.ROOT));
+    }
+}
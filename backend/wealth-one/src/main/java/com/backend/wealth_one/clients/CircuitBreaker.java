@@ -0,0 +1,213 @@
+package com.backend.wealth_one.clients;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker. The outcomes of the last {@code windowSize} calls
+ * are kept; once at least {@code minimumCalls} are recorded and the share of
+ * failures reaches {@code failureRatePercent}, the circuit opens and calls are
+ * refused for {@code openMs}. After that a few trial calls are let through:
+ * if they all succeed the circuit closes, and any failure opens it again.
+ *
+ * <p>Calls slower than {@code slowCallMs} count as failures, so a provider that
+ * answers eventually but far too slowly still trips the breaker.
+ *
+ * <p>Each permit remembers the state it was granted in. An outcome that arrives
+ * after the circuit has moved on, such as a slow call admitted before it opened,
+ * is dropped so it cannot close a circuit or spend a trial it was never part of.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** A permitted call, stamped with the state and state change it was admitted in. */
+    public record Permit(State state, long epoch) {
+    }
+
+    private final String name;
+    private final ProviderGuardSettings settings;
+    private final LongSupplier clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] window;
+    private int recorded;
+    private int next;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialsInFlight;
+    private int trialsSucceeded;
+    // Bumped on every state change
+    private long epoch;
+
+    private final AtomicLong notPermitted = new AtomicLong();
+    private final AtomicLong timesOpened = new AtomicLong();
+
+    public CircuitBreaker(String name, ProviderGuardSettings settings) {
+        this(name, settings, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, ProviderGuardSettings settings, LongSupplier clock) {
+        this.name = name;
+        this.settings = settings;
+        this.clock = clock;
+        this.window = new boolean[Math.max(1, settings.windowSize())];
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public State state() {
+        lock.lock();
+        try {
+            return currentState(clock.getAsLong());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Asks to make a call, returning {@code null} if it is refused. Every permit
+     * must be handed back to exactly one of {@link #onSuccess}, {@link #onFailure}
+     * or {@link #onIgnored}.
+     */
+    public Permit tryAcquire() {
+        lock.lock();
+        try {
+            State current = currentState(clock.getAsLong());
+            if (current == State.CLOSED) {
+                return new Permit(current, epoch);
+            }
+            if (current == State.HALF_OPEN && trialsInFlight + trialsSucceeded < settings.halfOpenCalls()) {
+                trialsInFlight++;
+                return new Permit(current, epoch);
+            }
+        } finally {
+            lock.unlock();
+        }
+        notPermitted.incrementAndGet();
+        return null;
+    }
+
+    public void onSuccess(Permit permit, long durationNanos) {
+        if (durationNanos > settings.slowCallMs() * 1_000_000L) {
+            onFailure(permit);
+            return;
+        }
+        lock.lock();
+        try {
+            if (permit.epoch() != epoch) {
+                return;
+            }
+            if (permit.state() == State.HALF_OPEN) {
+                trialsInFlight = Math.max(0, trialsInFlight - 1);
+                if (++trialsSucceeded >= settings.halfOpenCalls()) {
+                    close();
+                }
+            } else {
+                record(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onFailure(Permit permit) {
+        lock.lock();
+        try {
+            if (permit.epoch() != epoch) {
+                return;
+            }
+            if (permit.state() == State.HALF_OPEN) {
+                open();
+            } else {
+                record(true);
+                if (recorded >= settings.minimumCalls()
+                        && failures * 100 >= settings.failureRatePercent() * recorded) {
+                    open();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The call ended without saying anything about the provider, e.g. it was
+     * cancelled before a response arrived.
+     */
+    public void onIgnored(Permit permit) {
+        lock.lock();
+        try {
+            if (permit.epoch() == epoch && permit.state() == State.HALF_OPEN) {
+                trialsInFlight = Math.max(0, trialsInFlight - 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            stats.put("state", currentState(clock.getAsLong()).name());
+            stats.put("bufferedCalls", recorded);
+            stats.put("failureRatePercent", recorded == 0 ? 0.0 : failures * 100.0 / recorded);
+        } finally {
+            lock.unlock();
+        }
+        stats.put("notPermitted", notPermitted.get());
+        stats.put("timesOpened", timesOpened.get());
+        return stats;
+    }
+
+    // Caller holds the lock; moves OPEN to HALF_OPEN once the open period is over
+    private State currentState(long now) {
+        if (state == State.OPEN && now - openedAt >= settings.openMs() * 1_000_000L) {
+            state = State.HALF_OPEN;
+            epoch++;
+            trialsInFlight = 0;
+            trialsSucceeded = 0;
+        }
+        return state;
+    }
+
+    // Caller holds the lock
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    // Caller holds the lock
+    private void open() {
+        state = State.OPEN;
+        epoch++;
+        openedAt = clock.getAsLong();
+        timesOpened.incrementAndGet();
+    }
+
+    // Caller holds the lock
+    private void close() {
+        state = State.CLOSED;
+        epoch++;
+        recorded = 0;
+        next = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,26 @@
+package com.backend.wealth_one.clients;
+
+/**
+ * Upstream providers the backend talks to. Each provider gets its own
+ * connection pool and settings so one slow upstream cannot exhaust
+ * connections meant for another.
+ */
+public enum Provider {
+    COINDCX("coindcx"),
+    UPSTOX("upstox"),
+    COINMARKETCAP("coinmarketcap"),
+    STOCK("stock");
+
+    private final String key;
+
+    Provider(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Key used in configuration properties, e.g. {@code http.client.upstox.max-connections}.
+     */
+    public String key() {
+        return key;
+    }
+}
@@ -0,0 +1,34 @@
+package com.backend.wealth_one.clients;
+
+import org.springframework.core.env.Environment;
+
+/**
+ * Outbound client settings for a single provider.
+ *
+ * <p>Every value is read from {@code http.client.<provider>.<name>} first, then
+ * from {@code http.client.default.<name>}, then falls back to the built-in default.
+ */
+public record ProviderClientSettings(
+        int connectTimeoutMs,
+        int readTimeoutMs,
+        int poolAcquireTimeoutMs,
+        int maxConnections,
+        int keepAliveMs) {
+
+    private static final String PREFIX = "http.client.";
+
+    public static ProviderClientSettings from(Environment env, Provider provider) {
+        return new ProviderClientSettings(
+                read(env, provider, "connect-timeout-ms", 3000),
+                read(env, provider, "read-timeout-ms", 10000),
+                read(env, provider, "pool-acquire-timeout-ms", 2000),
+                read(env, provider, "max-connections", 50),
+                read(env, provider, "keep-alive-ms", 30000)
+        );
+    }
+
+    private static int read(Environment env, Provider provider, String name, int fallback) {
+        Integer defaultValue = env.getProperty(PREFIX + "default." + name, Integer.class, fallback);
+        return env.getProperty(PREFIX + provider.key() + "." + name, Integer.class, defaultValue);
+    }
+}
@@ -0,0 +1,40 @@
+package com.backend.wealth_one.clients;
+
+import org.springframework.core.env.Environment;
+
+/**
+ * Circuit breaker and bulkhead settings for a single provider.
+ *
+ * <p>Every value is read from {@code resilience.<provider>.<name>} first, then
+ * from {@code resilience.default.<name>}, then falls back to the built-in default.
+ */
+public record ProviderGuardSettings(
+        int maxConcurrent,
+        int maxWaitMs,
+        int failureRatePercent,
+        int slowCallMs,
+        int windowSize,
+        int minimumCalls,
+        int openMs,
+        int halfOpenCalls) {
+
+    private static final String PREFIX = "resilience.";
+
+    public static ProviderGuardSettings from(Environment env, Provider provider) {
+        return new ProviderGuardSettings(
+                read(env, provider, "max-concurrent", 20),
+                read(env, provider, "max-wait-ms", 250),
+                read(env, provider, "failure-rate-percent", 50),
+                read(env, provider, "slow-call-ms", 5000),
+                read(env, provider, "window-size", 20),
+                read(env, provider, "minimum-calls", 10),
+                read(env, provider, "open-ms", 30000),
+                read(env, provider, "half-open-calls", 3)
+        );
+    }
+
+    private static int read(Environment env, Provider provider, String name, int fallback) {
+        Integer defaultValue = env.getProperty(PREFIX + "default." + name, Integer.class, fallback);
+        return env.getProperty(PREFIX + provider.key() + "." + name, Integer.class, defaultValue);
+    }
+}
@@ -0,0 +1,270 @@
+package com.backend.wealth_one.clients;
+
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Circuit breaker and bulkhead per provider, shared by the blocking and reactive
+ * clients.
+ *
+ * <p>The bulkhead caps how many calls to one provider can be in flight, so a
+ * slow provider ties up at most that many request threads. The circuit breaker
+ * stops calling a provider that keeps failing or timing out. Either one rejects
+ * with {@link ProviderUnavailableException} without touching the network.
+ *
+ * <p>The guard sits after the rate limiter, so the bulkhead permit and the
+ * slow-call timer cover only the call itself, never our own throttling wait.
+ * {@link #openCircuitCheck} goes in front of the limiter, so calls to an open
+ * circuit are refused at once instead of queueing for a permit first.
+ *
+ * <p>A call holds its bulkhead permit until the response body has been read and
+ * closed, and its duration runs to that point too, so slow or streamed bodies
+ * count against both limits.
+ */
+public class ProviderGuards {
+
+    private final Map<Provider, Guard> guards = new EnumMap<>(Provider.class);
+
+    public ProviderGuards(Environment env) {
+        for (Provider provider : Provider.values()) {
+            guards.put(provider, new Guard(provider.key(), ProviderGuardSettings.from(env, provider)));
+        }
+    }
+
+    public CircuitBreaker circuitBreaker(Provider provider) {
+        return guards.get(provider).breaker;
+    }
+
+    /**
+     * Refuses calls while the circuit is open. It reserves nothing; the trial
+     * calls of a half-open circuit are handed out by {@link #interceptor}.
+     */
+    public ClientHttpRequestInterceptor openCircuitCheck(Provider provider) {
+        Guard guard = guards.get(provider);
+        return (request, body, execution) -> {
+            guard.checkNotOpen();
+            return execution.execute(request, body);
+        };
+    }
+
+    public ClientHttpRequestInterceptor interceptor(Provider provider) {
+        Guard guard = guards.get(provider);
+        return (request, body, execution) -> {
+            Call call = guard.enter(true);
+            ClientHttpResponse response = null;
+            try {
+                response = execution.execute(request, body);
+                return new GuardedResponse(response, call, response.getStatusCode().is5xxServerError());
+            } catch (IOException | RuntimeException e) {
+                if (response != null) {
+                    response.close();
+                }
+                call.completed(true);
+                throw e;
+            }
+        };
+    }
+
+    public ExchangeFilterFunction openCircuitFilter(Provider provider) {
+        Guard guard = guards.get(provider);
+        return (request, next) -> Mono.defer(() -> {
+            guard.checkNotOpen();
+            return next.exchange(request);
+        });
+    }
+
+    public ExchangeFilterFunction filter(Provider provider) {
+        Guard guard = guards.get(provider);
+        return (request, next) -> Mono.defer(() -> {
+            // The reactive side never parks a thread, so a full bulkhead rejects at once
+            Call call = guard.enter(false);
+            return next.exchange(request)
+                    .map(response -> {
+                        boolean failed = response.statusCode().is5xxServerError();
+                        // Every WebClient response body is consumed or released, so this always runs
+                        return response.mutate()
+                                .body(buffers -> buffers
+                                        .doOnComplete(() -> call.completed(failed))
+                                        .doOnError(e -> call.completed(true))
+                                        .doOnCancel(call::ignored))
+                                .build();
+                    })
+                    .doOnError(e -> call.completed(true))
+                    .doOnCancel(call::ignored);
+        });
+    }
+
+    public Map<String, Map<String, Object>> stats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        guards.forEach((provider, guard) -> stats.put(provider.key(), guard.stats()));
+        return stats;
+    }
+
+    private static final class Guard {
+        private final String name;
+        private final ProviderGuardSettings settings;
+        private final CircuitBreaker breaker;
+        private final Semaphore bulkhead;
+        private final AtomicLong bulkheadRejected = new AtomicLong();
+
+        private Guard(String name, ProviderGuardSettings settings) {
+            this.name = name;
+            this.settings = settings;
+            this.breaker = new CircuitBreaker(name, settings);
+            this.bulkhead = new Semaphore(settings.maxConcurrent());
+        }
+
+        private void checkNotOpen() {
+            if (breaker.state() == CircuitBreaker.State.OPEN) {
+                throw new ProviderUnavailableException(name + " circuit is open");
+            }
+        }
+
+        private Call enter(boolean mayWait) {
+            CircuitBreaker.Permit permit = breaker.tryAcquire();
+            if (permit == null) {
+                throw new ProviderUnavailableException(name + " circuit is open");
+            }
+            if (!acquireBulkhead(mayWait)) {
+                breaker.onIgnored(permit);
+                bulkheadRejected.incrementAndGet();
+                throw new ProviderUnavailableException(name + " has too many calls in flight");
+            }
+            return new Call(this, permit, System.nanoTime());
+        }
+
+        private boolean acquireBulkhead(boolean mayWait) {
+            if (!mayWait) {
+                return bulkhead.tryAcquire();
+            }
+            try {
+                return bulkhead.tryAcquire(settings.maxWaitMs(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private Map<String, Object> stats() {
+            Map<String, Object> stats = new LinkedHashMap<>(breaker.stats());
+            stats.put("inFlight", settings.maxConcurrent() - bulkhead.availablePermits());
+            stats.put("maxConcurrent", settings.maxConcurrent());
+            stats.put("bulkheadRejected", bulkheadRejected.get());
+            return stats;
+        }
+    }
+
+    // Reports the call when the body is closed; a failed body read counts as a failure
+    private static final class GuardedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final Call call;
+        private volatile boolean failed;
+        private InputStream body;
+
+        private GuardedResponse(ClientHttpResponse delegate, Call call, boolean failed) {
+            this.delegate = delegate;
+            this.call = call;
+            this.failed = failed;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new FilterInputStream(delegate.getBody()) {
+                    @Override
+                    public int read() throws IOException {
+                        try {
+                            return super.read();
+                        } catch (IOException e) {
+                            failed = true;
+                            throw e;
+                        }
+                    }
+
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        try {
+                            return super.read(b, off, len);
+                        } catch (IOException e) {
+                            failed = true;
+                            throw e;
+                        }
+                    }
+                };
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                call.completed(failed);
+            }
+        }
+    }
+
+    // One permitted call; whichever outcome is reported first wins
+    private static final class Call {
+        private final Guard guard;
+        private final CircuitBreaker.Permit permit;
+        private final long startedAt;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Call(Guard guard, CircuitBreaker.Permit permit, long startedAt) {
+            this.guard = guard;
+            this.permit = permit;
+            this.startedAt = startedAt;
+        }
+
+        private void completed(boolean failed) {
+            if (done.compareAndSet(false, true)) {
+                guard.bulkhead.release();
+                if (failed) {
+                    guard.breaker.onFailure(permit);
+                } else {
+                    guard.breaker.onSuccess(permit, System.nanoTime() - startedAt);
+                }
+            }
+        }
+
+        private void ignored() {
+            if (done.compareAndSet(false, true)) {
+                guard.bulkhead.release();
+                guard.breaker.onIgnored(permit);
+            }
+        }
+    }
+}
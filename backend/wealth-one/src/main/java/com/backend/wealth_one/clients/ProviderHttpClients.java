@@ -0,0 +1,156 @@
+package com.backend.wealth_one.clients;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Owns the outbound HTTP clients for every provider.
+ *
+ * <p>Each provider gets its own keep-alive connection pool, timeouts and
+ * {@link RestTemplate}, so connections are reused across requests instead of
+ * paying a new TLS handshake per call, and a hung upstream is bounded by the
+ * configured timeouts. Calls wait for the provider's rate limiter, then pass its
+ * {@link ProviderGuards}, and are timed by {@link ProviderMetrics}.
+ */
+public class ProviderHttpClients implements AutoCloseable {
+
+    private final Map<Provider, PooledClient> clients = new EnumMap<>(Provider.class);
+
+    public ProviderHttpClients(Environment env, ProviderGuards guards, ProviderRateLimiters rateLimiters,
+                               ProviderMetrics metrics) {
+        for (Provider provider : Provider.values()) {
+            clients.put(provider, createClient(ProviderClientSettings.from(env, provider),
+                    List.of(guards.openCircuitCheck(provider), rateLimiters.interceptor(provider),
+                            guards.interceptor(provider), metrics.interceptor(provider))));
+        }
+    }
+
+    public RestTemplate restTemplate(Provider provider) {
+        return clients.get(provider).restTemplate();
+    }
+
+    /**
+     * Sends a request through the same guards, rate limiter and metrics as
+     * {@link #restTemplate} and returns the response with its body unread, so it
+     * can be streamed on without holding it in memory. The caller must close the
+     * response. Error statuses throw the usual {@code RestClientException}
+     * subclasses, as {@link RestTemplate} does.
+     */
+    public ClientHttpResponse open(Provider provider, HttpMethod method, String url, HttpHeaders headers,
+                                   byte[] body) {
+        RestTemplate restTemplate = restTemplate(provider);
+        URI uri = URI.create(url);
+        ClientHttpResponse response = null;
+        try {
+            // The intercepting factory, so the call goes through the provider's interceptors
+            ClientHttpRequest request = restTemplate.getRequestFactory().createRequest(uri, method);
+            request.getHeaders().addAll(headers);
+            if (body != null) {
+                request.getBody().write(body);
+            }
+            response = request.execute();
+            if (restTemplate.getErrorHandler().hasError(response)) {
+                restTemplate.getErrorHandler().handleError(uri, method, response);
+            }
+            return response;
+        } catch (IOException e) {
+            close(response);
+            throw new ResourceAccessException("I/O error on " + method + " request for \"" + url + "\": "
+                    + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            close(response);
+            throw e;
+        }
+    }
+
+    private static void close(ClientHttpResponse response) {
+        if (response != null) {
+            response.close();
+        }
+    }
+
+    public ProviderClientSettings settings(Provider provider) {
+        return clients.get(provider).settings();
+    }
+
+    /**
+     * Snapshot of connection pool usage per provider.
+     */
+    public Map<String, Map<String, Object>> poolStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        clients.forEach((provider, client) -> {
+            PoolStats pool = client.connectionManager().getTotalStats();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("leased", pool.getLeased());
+            entry.put("available", pool.getAvailable());
+            entry.put("pending", pool.getPending());
+            entry.put("max", pool.getMax());
+            stats.put(provider.key(), entry);
+        });
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        clients.values().forEach(client -> client.httpClient().close(CloseMode.GRACEFUL));
+    }
+
+    private PooledClient createClient(ProviderClientSettings settings, List<ClientHttpRequestInterceptor> interceptors) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(settings.maxConnections())
+                // Every provider is a single host, so the per-route limit is the pool size
+                .setMaxConnPerRoute(settings.maxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(settings.connectTimeoutMs()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(settings.readTimeoutMs()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+
+        TimeValue keepAlive = TimeValue.ofMilliseconds(settings.keepAliveMs());
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(settings.poolAcquireTimeoutMs()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(settings.readTimeoutMs()))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> keepAlive)
+                .evictIdleConnections(keepAlive)
+                .evictExpiredConnections()
+                .build();
+
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        restTemplate.getInterceptors().addAll(interceptors);
+        return new PooledClient(settings, connectionManager, httpClient, restTemplate);
+    }
+
+    private record PooledClient(ProviderClientSettings settings,
+                                PoolingHttpClientConnectionManager connectionManager,
+                                CloseableHttpClient httpClient,
+                                RestTemplate restTemplate) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.backend.wealth_one.clients;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Publishes the saturation of the provider clients: rate limiter queues and
+ * rejections, bulkhead usage, circuit state and connection pool usage. The values
+ * are read from the same stats the {@code /api/v1/metrics} endpoints serve.
+ */
+public class ProviderMeterBinder implements MeterBinder {
+
+    private final ProviderGuards guards;
+    private final ProviderRateLimiters rateLimiters;
+    private final ProviderHttpClients httpClients;
+
+    public ProviderMeterBinder(ProviderGuards guards, ProviderRateLimiters rateLimiters,
+                               ProviderHttpClients httpClients) {
+        this.guards = guards;
+        this.rateLimiters = rateLimiters;
+        this.httpClients = httpClients;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String limiter : rateLimiters.stats().keySet()) {
+            Supplier<Map<String, Object>> stats = () -> rateLimiters.stats().get(limiter);
+            gauge(registry, "provider.rate_limiter.queue", "Calls waiting for a permit", "limiter", limiter, stats, "queueDepth");
+            counter(registry, "provider.rate_limiter.rejected", "Calls rejected because the queue was full",
+                    "limiter", limiter, stats, "rejected");
+            counter(registry, "provider.rate_limiter.timed_out", "Calls that gave up waiting for a permit",
+                    "limiter", limiter, stats, "timedOut");
+        }
+
+        for (Provider provider : Provider.values()) {
+            String key = provider.key();
+            Supplier<Map<String, Object>> guard = () -> guards.stats().get(key);
+            gauge(registry, "provider.bulkhead.in_flight", "Calls in flight", "provider", key, guard, "inFlight");
+            gauge(registry, "provider.bulkhead.max", "Bulkhead size", "provider", key, guard, "maxConcurrent");
+            counter(registry, "provider.bulkhead.rejected", "Calls rejected by a full bulkhead",
+                    "provider", key, guard, "bulkheadRejected");
+            counter(registry, "provider.circuit_breaker.not_permitted", "Calls rejected by an open circuit",
+                    "provider", key, guard, "notPermitted");
+            Gauge.builder("provider.circuit_breaker.state", guards, g -> g.circuitBreaker(provider).state().ordinal())
+                    .description("0 closed, 1 open, 2 half open")
+                    .tag("provider", key)
+                    .register(registry);
+
+            Supplier<Map<String, Object>> pool = () -> httpClients.poolStats().get(key);
+            gauge(registry, "provider.http_pool.leased", "Pooled connections in use", "provider", key, pool, "leased");
+            gauge(registry, "provider.http_pool.pending", "Requests waiting for a connection", "provider", key, pool, "pending");
+            gauge(registry, "provider.http_pool.max", "Connection pool size", "provider", key, pool, "max");
+        }
+    }
+
+    private static void gauge(MeterRegistry registry, String name, String description, String tag, String value,
+                              Supplier<Map<String, Object>> stats, String stat) {
+        Gauge.builder(name, stats, s -> read(s, stat))
+                .description(description)
+                .tag(tag, value)
+                .register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String name, String description, String tag, String value,
+                                Supplier<Map<String, Object>> stats, String stat) {
+        FunctionCounter.builder(name, stats, s -> read(s, stat))
+                .description(description)
+                .tag(tag, value)
+                .register(registry);
+    }
+
+    private static double read(Supplier<Map<String, Object>> stats, String stat) {
+        Map<String, Object> values = stats.get();
+        Object value = values != null ? values.get(stat) : null;
+        return value instanceof Number number ? number.doubleValue() : Double.NaN;
+    }
+}
@@ -0,0 +1,95 @@
+package com.backend.wealth_one.clients;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Times every outbound provider call as {@code provider.requests}, tagged with the
+ * provider, method, endpoint path and response status.
+ *
+ * <p>The interceptor and filter sit closest to the wire, after the guards and the
+ * rate limiter, so the timings are upstream latency only. Calls that were turned
+ * away locally are counted by {@link ProviderMeterBinder} instead.
+ */
+public class ProviderMetrics {
+
+    static final String REQUESTS = "provider.requests";
+
+    // Numeric and long opaque path segments would make one time series per id
+    private static final Pattern ID_SEGMENT = Pattern.compile("/(\\d+|[0-9a-fA-F-]{16,})(?=/|$)");
+
+    private final MeterRegistry registry;
+
+    public ProviderMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public ClientHttpRequestInterceptor interceptor(Provider provider) {
+        return (request, body, execution) -> {
+            long start = System.nanoTime();
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                record(provider, request.getMethod(), request.getURI(),
+                        String.valueOf(response.getStatusCode().value()), start);
+                return response;
+            } catch (IOException | RuntimeException e) {
+                record(provider, request.getMethod(), request.getURI(), "IO_ERROR", start);
+                throw e;
+            }
+        };
+    }
+
+    public ExchangeFilterFunction filter(Provider provider) {
+        return (request, next) -> Mono.defer(() -> {
+            long start = System.nanoTime();
+            return next.exchange(request)
+                    .doOnNext(response -> record(provider, request.method(), request.url(),
+                            String.valueOf(response.statusCode().value()), start))
+                    .doOnError(e -> record(provider, request.method(), request.url(), "IO_ERROR", start))
+                    .doOnCancel(() -> record(provider, request.method(), request.url(), "CANCELLED", start));
+        });
+    }
+
+    private void record(Provider provider, HttpMethod method, URI uri, String status, long start) {
+        Timer.builder(REQUESTS)
+                .description("Outbound provider calls")
+                .tag("provider", provider.key())
+                .tag("method", method.name())
+                .tag("endpoint", endpoint(uri))
+                .tag("status", status)
+                .tag("outcome", outcome(status))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    static String endpoint(URI uri) {
+        String path = uri.getRawPath();
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        return ID_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+
+    private static String outcome(String status) {
+        if (status.length() != 3) {
+            return "UNKNOWN";
+        }
+        return switch (status.charAt(0)) {
+            case '2', '3' -> "SUCCESS";
+            case '4' -> "CLIENT_ERROR";
+            case '5' -> "SERVER_ERROR";
+            default -> "UNKNOWN";
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package com.backend.wealth_one.clients;
+
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * One {@link RateLimiter} per provider endpoint class (see
+ * {@link RateLimitSettings}), shared by the blocking and reactive clients.
+ * Every outbound call takes a permit first. A 429 from the provider pauses that
+ * limiter for the Retry-After period instead of letting callers retry into it.
+ */
+public class ProviderRateLimiters implements AutoCloseable {
+
+    // Used when a 429 carries no usable Retry-After
+    private static final Duration DEFAULT_BACKOFF = Duration.ofSeconds(1);
+
+    private final ScheduledExecutorService scheduler;
+    private final Map<Provider, Map<String, RateLimiter>> limiters = new EnumMap<>(Provider.class);
+
+    public ProviderRateLimiters(Environment env) {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limiter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Provider provider : Provider.values()) {
+            Map<String, RateLimiter> classes = new LinkedHashMap<>();
+            RateLimitSettings.from(env, provider).forEach((name, settings) ->
+                    classes.put(name, new RateLimiter(provider.key() + "." + name, settings, scheduler)));
+            limiters.put(provider, classes);
+        }
+    }
+
+    /**
+     * Limiter for the endpoint class whose path prefix matches {@code uri}.
+     */
+    public RateLimiter limiterFor(Provider provider, URI uri) {
+        Map<String, RateLimiter> classes = limiters.get(provider);
+        String path = uri.getRawPath() != null ? uri.getRawPath() : "";
+        for (Map.Entry<String, RateLimiter> entry : classes.entrySet()) {
+            String prefix = entry.getValue().pathPrefix();
+            if (prefix != null && path.contains(prefix)) {
+                return entry.getValue();
+            }
+        }
+        return classes.get(RateLimitSettings.DEFAULT_CLASS);
+    }
+
+    public ClientHttpRequestInterceptor interceptor(Provider provider) {
+        return (request, body, execution) -> {
+            RateLimiter limiter = limiterFor(provider, request.getURI());
+            limiter.acquireBlocking(RequestPriority.current());
+            var response = execution.execute(request, body);
+            if (response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                limiter.pause(retryAfter(response.getHeaders()));
+            }
+            return response;
+        };
+    }
+
+    public ExchangeFilterFunction filter(Provider provider) {
+        return (request, next) -> Mono.defer(() -> {
+            RateLimiter limiter = limiterFor(provider, request.url());
+            // Read at subscription, which for our callers is still the calling thread
+            return Mono.fromFuture(limiter.acquire(RequestPriority.current()))
+                    .then(next.exchange(request))
+                    .doOnNext(response -> {
+                        if (response.statusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                            limiter.pause(retryAfter(response.headers().asHttpHeaders()));
+                        }
+                    });
+        });
+    }
+
+    public Map<String, Map<String, Object>> stats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        limiters.values().forEach(classes -> classes.values().forEach(limiter ->
+                stats.put(limiter.name(), limiter.stats())));
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private static Duration retryAfter(HttpHeaders headers) {
+        String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter != null) {
+            try {
+                return Duration.ofSeconds(Long.parseLong(retryAfter.trim()));
+            } catch (NumberFormatException e) {
+                // HTTP-date form; fall through to the default
+            }
+        }
+        return DEFAULT_BACKOFF;
+    }
+}
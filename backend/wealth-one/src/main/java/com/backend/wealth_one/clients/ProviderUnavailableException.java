@@ -0,0 +1,39 @@
+package com.backend.wealth_one.clients;
+
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * Thrown instead of sending a provider request when the provider's circuit is
+ * open or its bulkhead is full. Like {@link RateLimitExceededException} it is a
+ * {@link RestClientException}, so existing error handling still applies.
+ */
+public class ProviderUnavailableException extends RestClientException {
+
+    public ProviderUnavailableException(String message) {
+        super(message);
+    }
+
+    /**
+     * Whether {@code error}, or anything in its cause chain, means the provider
+     * could not answer: fail-fast rejection, I/O failure or timeout, or a 5xx.
+     * Callers use this to decide when a last known good response may stand in.
+     */
+    public static boolean isCause(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof ProviderUnavailableException
+                    || e instanceof ResourceAccessException
+                    || e instanceof WebClientRequestException
+                    || e instanceof HttpServerErrorException) {
+                return true;
+            }
+            if (e instanceof WebClientResponseException response && response.getStatusCode().is5xxServerError()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
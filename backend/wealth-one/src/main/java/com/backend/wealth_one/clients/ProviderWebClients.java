@@ -0,0 +1,68 @@
+package com.backend.wealth_one.clients;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Non-blocking counterpart of {@link ProviderHttpClients}: one {@link WebClient}
+ * per provider, each backed by its own Reactor Netty connection pool and the
+ * same {@link ProviderClientSettings} as the blocking clients.
+ */
+public class ProviderWebClients implements AutoCloseable {
+
+    private final Map<Provider, ConnectionProvider> pools = new EnumMap<>(Provider.class);
+    private final Map<Provider, WebClient> webClients = new EnumMap<>(Provider.class);
+
+    public ProviderWebClients(Environment env, WebClient.Builder builder,
+                              ProviderGuards guards, ProviderRateLimiters rateLimiters,
+                              ProviderMetrics metrics) {
+        // Provider payloads such as the CMC map are well above the 256 KB codec default
+        int maxInMemoryBytes = env.getProperty("http.client.reactive.max-in-memory-bytes", Integer.class, 32 * 1024 * 1024);
+
+        for (Provider provider : Provider.values()) {
+            ProviderClientSettings settings = ProviderClientSettings.from(env, provider);
+
+            ConnectionProvider pool = ConnectionProvider.builder(provider.key())
+                    .maxConnections(settings.maxConnections())
+                    .pendingAcquireTimeout(Duration.ofMillis(settings.poolAcquireTimeoutMs()))
+                    // Waiters are bounded by the acquire timeout rather than a queue size
+                    .pendingAcquireMaxCount(-1)
+                    .maxIdleTime(Duration.ofMillis(settings.keepAliveMs()))
+                    .evictInBackground(Duration.ofSeconds(30))
+                    .build();
+
+            HttpClient httpClient = HttpClient.create(pool)
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, settings.connectTimeoutMs())
+                    .responseTimeout(Duration.ofMillis(settings.readTimeoutMs()));
+
+            WebClient webClient = builder.clone()
+                    .clientConnector(new ReactorClientHttpConnector(httpClient))
+                    .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemoryBytes))
+                    .filter(guards.openCircuitFilter(provider))
+                    .filter(rateLimiters.filter(provider))
+                    .filter(guards.filter(provider))
+                    .filter(metrics.filter(provider))
+                    .build();
+
+            pools.put(provider, pool);
+            webClients.put(provider, webClient);
+        }
+    }
+
+    public WebClient webClient(Provider provider) {
+        return webClients.get(provider);
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(ConnectionProvider::dispose);
+    }
+}
@@ -0,0 +1,15 @@
+package com.backend.wealth_one.clients;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown instead of sending a provider request when its rate limiter cannot
+ * grant a permit in time. It extends {@link RestClientException}, so callers that
+ * already handle failed provider calls need no extra handling.
+ */
+public class RateLimitExceededException extends RestClientException {
+
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,87 @@
+package com.backend.wealth_one.clients;
+
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token-bucket settings for one endpoint class of a provider.
+ *
+ * <p>Each provider has a {@code default} class plus any named classes, each
+ * matched by a request path prefix. Values are read from
+ * {@code rate-limit.<provider>.<class>.<name>}, falling back to the built-in
+ * defaults below. Extra classes are listed in {@code rate-limit.<provider>.classes}
+ * and need a {@code path-prefix}.
+ */
+public record RateLimitSettings(
+        String pathPrefix,
+        double permitsPerSecond,
+        int burst,
+        int maxQueue,
+        int maxWaitMs) {
+
+    public static final String DEFAULT_CLASS = "default";
+
+    private static final String PREFIX = "rate-limit.";
+
+    /**
+     * Endpoint classes for a provider in match order, {@code default} last.
+     */
+    public static Map<String, RateLimitSettings> from(Environment env, Provider provider) {
+        Map<String, RateLimitSettings> builtIn = builtIn(provider);
+
+        List<String> names = new ArrayList<>(builtIn.keySet());
+        String extra = env.getProperty(PREFIX + provider.key() + ".classes", "");
+        for (String name : extra.split(",")) {
+            if (!name.isBlank() && !names.contains(name.trim())) {
+                names.add(0, name.trim());
+            }
+        }
+
+        Map<String, RateLimitSettings> classes = new LinkedHashMap<>();
+        for (String name : names) {
+            RateLimitSettings fallback = builtIn.getOrDefault(name, builtIn.get(DEFAULT_CLASS));
+            String base = PREFIX + provider.key() + "." + name + ".";
+            String pathPrefix = env.getProperty(base + "path-prefix", builtIn.containsKey(name) ? fallback.pathPrefix() : null);
+            if (pathPrefix == null && !DEFAULT_CLASS.equals(name)) {
+                throw new IllegalStateException(base + "path-prefix is required");
+            }
+            classes.put(name, new RateLimitSettings(
+                    pathPrefix,
+                    env.getProperty(base + "permits-per-second", Double.class, fallback.permitsPerSecond()),
+                    env.getProperty(base + "burst", Integer.class, fallback.burst()),
+                    env.getProperty(base + "max-queue", Integer.class, fallback.maxQueue()),
+                    env.getProperty(base + "max-wait-ms", Integer.class, fallback.maxWaitMs())));
+        }
+
+        // default matches everything, so it is checked last
+        RateLimitSettings defaults = classes.remove(DEFAULT_CLASS);
+        classes.put(DEFAULT_CLASS, defaults);
+        return classes;
+    }
+
+    // Conservative published limits; tune per plan with the properties above
+    private static Map<String, RateLimitSettings> builtIn(Provider provider) {
+        Map<String, RateLimitSettings> classes = new LinkedHashMap<>();
+        switch (provider) {
+            case COINMARKETCAP -> {
+                // Basic plan: 30 calls a minute
+                classes.put("map", new RateLimitSettings("/v1/cryptocurrency/map", 0.1, 1, 10, 10000));
+                classes.put(DEFAULT_CLASS, new RateLimitSettings(null, 0.5, 5, 200, 5000));
+            }
+            case COINDCX -> {
+                classes.put("trade-history", new RateLimitSettings("/exchange/v1/orders/trade_history", 1, 2, 50, 10000));
+                classes.put(DEFAULT_CLASS, new RateLimitSettings(null, 10, 10, 200, 5000));
+            }
+            case UPSTOX -> {
+                classes.put("trade-history", new RateLimitSettings("/charges/historical-trades", 5, 5, 100, 10000));
+                classes.put(DEFAULT_CLASS, new RateLimitSettings(null, 25, 25, 500, 5000));
+            }
+            case STOCK -> classes.put(DEFAULT_CLASS, new RateLimitSettings(null, 10, 20, 500, 5000));
+        }
+        return classes;
+    }
+}
@@ -0,0 +1,236 @@
+package com.backend.wealth_one.clients;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket with a bounded wait queue. Callers that find no token wait in
+ * priority order: interactive before background, first come first served within
+ * a priority. A caller is rejected when the queue is full or when it has waited
+ * longer than the configured maximum.
+ *
+ * <p>Acquisition is asynchronous so both the blocking and the reactive clients
+ * can use it; blocking callers simply join the returned future.
+ */
+public class RateLimiter {
+
+    private final String name;
+    private final RateLimitSettings settings;
+    private final ScheduledExecutorService scheduler;
+    private final double tokensPerNano;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> queue = new PriorityQueue<>();
+    private double tokens;
+    private long lastRefill;
+    // Set after a 429 so nothing is sent before the provider's Retry-After
+    private long blockedUntil;
+    private long sequence;
+    private boolean drainScheduled;
+
+    private final AtomicLong granted = new AtomicLong();
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public RateLimiter(String name, RateLimitSettings settings, ScheduledExecutorService scheduler) {
+        this.name = name;
+        this.settings = settings;
+        this.scheduler = scheduler;
+        this.tokensPerNano = settings.permitsPerSecond() / 1_000_000_000d;
+        this.tokens = settings.burst();
+        this.lastRefill = System.nanoTime();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String pathPrefix() {
+        return settings.pathPrefix();
+    }
+
+    /**
+     * Completes once a permit is granted, or exceptionally with
+     * {@link RateLimitExceededException} when the queue is full or the wait
+     * exceeds {@code max-wait-ms}.
+     */
+    public CompletableFuture<Void> acquire(RequestPriority priority) {
+        Waiter waiter;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            refill(now);
+            if (queue.isEmpty() && now >= blockedUntil && tokens >= 1) {
+                tokens -= 1;
+                granted.incrementAndGet();
+                return CompletableFuture.completedFuture(null);
+            }
+            if (queue.size() >= settings.maxQueue()) {
+                rejected.incrementAndGet();
+                return CompletableFuture.failedFuture(
+                        new RateLimitExceededException(name + " rate limit queue is full"));
+            }
+            waiter = new Waiter(priority, sequence++, now);
+            queue.add(waiter);
+            queued.incrementAndGet();
+            scheduleDrain(now);
+        } finally {
+            lock.unlock();
+        }
+
+        scheduler.schedule(() -> expire(waiter), settings.maxWaitMs(), TimeUnit.MILLISECONDS);
+        return waiter.future;
+    }
+
+    /**
+     * Blocking variant of {@link #acquire(RequestPriority)}.
+     */
+    public void acquireBlocking(RequestPriority priority) {
+        try {
+            acquire(priority).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Holds every caller back for {@code delay}, e.g. after a 429 with Retry-After.
+     */
+    public void pause(Duration delay) {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            blockedUntil = Math.max(blockedUntil, now + delay.toNanos());
+            tokens = Math.min(tokens, 0);
+            lastRefill = blockedUntil;
+            scheduleDrain(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            stats.put("queueDepth", queue.size());
+            stats.put("availablePermits", Math.floor(Math.max(tokens, 0)));
+        } finally {
+            lock.unlock();
+        }
+        long waits = queued.get();
+        stats.put("permitsPerSecond", settings.permitsPerSecond());
+        stats.put("burst", settings.burst());
+        stats.put("granted", granted.get());
+        stats.put("queued", waits);
+        stats.put("rejected", rejected.get());
+        stats.put("timedOut", timedOut.get());
+        stats.put("averageWaitMs", waits == 0 ? 0.0 : totalWaitNanos.get() / (double) waits / 1_000_000d);
+        stats.put("maxWaitMs", maxWaitNanos.get() / 1_000_000d);
+        return stats;
+    }
+
+    private void drain() {
+        List<Waiter> ready = new ArrayList<>();
+        lock.lock();
+        try {
+            drainScheduled = false;
+            long now = System.nanoTime();
+            refill(now);
+            while (!queue.isEmpty() && now >= blockedUntil && tokens >= 1) {
+                Waiter waiter = queue.poll();
+                if (waiter.future.isDone()) {
+                    continue;
+                }
+                tokens -= 1;
+                ready.add(waiter);
+            }
+            scheduleDrain(now);
+        } finally {
+            lock.unlock();
+        }
+
+        long now = System.nanoTime();
+        for (Waiter waiter : ready) {
+            if (waiter.future.complete(null)) {
+                granted.incrementAndGet();
+                long waited = now - waiter.enqueuedAt;
+                totalWaitNanos.addAndGet(waited);
+                maxWaitNanos.accumulateAndGet(waited, Math::max);
+            }
+        }
+    }
+
+    private void expire(Waiter waiter) {
+        lock.lock();
+        try {
+            if (!queue.remove(waiter)) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Only this path and drain() complete a waiter, and the queue removal above
+        // means drain() never will, so count before waking the caller
+        timedOut.incrementAndGet();
+        totalWaitNanos.addAndGet(System.nanoTime() - waiter.enqueuedAt);
+        waiter.future.completeExceptionally(new RateLimitExceededException(
+                name + " rate limit wait exceeded " + settings.maxWaitMs() + "ms"));
+    }
+
+    // Caller holds the lock
+    private void scheduleDrain(long now) {
+        if (drainScheduled || queue.isEmpty()) {
+            return;
+        }
+        long untilToken = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+        long delay = Math.max(untilToken, blockedUntil - now);
+        drainScheduled = true;
+        scheduler.schedule(this::drain, Math.max(0, delay), TimeUnit.NANOSECONDS);
+    }
+
+    // Caller holds the lock
+    private void refill(long now) {
+        if (now <= lastRefill) {
+            return;
+        }
+        tokens = Math.min(settings.burst(), tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+
+    private static final class Waiter implements Comparable<Waiter> {
+        private final RequestPriority priority;
+        private final long sequence;
+        private final long enqueuedAt;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private Waiter(RequestPriority priority, long sequence, long enqueuedAt) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.backend.wealth_one.clients;
+
+import java.util.function.Supplier;
+
+/**
+ * Priority of outbound provider calls made by the current thread. User requests
+ * are {@link #INTERACTIVE}. Refreshes, scheduled syncs and pollers mark
+ * themselves {@link #BACKGROUND}, so rate-limited providers serve users first.
+ *
+ * <p>The provider task executor copies the caller's priority onto its tasks
+ * (see {@link #propagate(Runnable)}).
+ */
+public enum RequestPriority {
+    INTERACTIVE,
+    BACKGROUND;
+
+    private static final ThreadLocal<RequestPriority> CURRENT = new ThreadLocal<>();
+
+    public static RequestPriority current() {
+        RequestPriority priority = CURRENT.get();
+        return priority != null ? priority : INTERACTIVE;
+    }
+
+    public static <T> T callAs(RequestPriority priority, Supplier<T> work) {
+        RequestPriority previous = CURRENT.get();
+        CURRENT.set(priority);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static void runAs(RequestPriority priority, Runnable work) {
+        callAs(priority, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Wraps a task so it runs with the priority of the thread that submitted it.
+     * Usable as a Spring {@code TaskDecorator}.
+     */
+    public static Runnable propagate(Runnable task) {
+        RequestPriority submitter = current();
+        return () -> runAs(submitter, task);
+    }
+
+    private static void restore(RequestPriority previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+}
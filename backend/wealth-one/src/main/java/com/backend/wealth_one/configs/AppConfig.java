@@ -1,14 +1,59 @@
 package com.backend.wealth_one.configs;
 
+import com.backend.wealth_one.clients.ProviderGuards;
+import com.backend.wealth_one.clients.ProviderHttpClients;
+import com.backend.wealth_one.clients.ProviderMeterBinder;
+import com.backend.wealth_one.clients.ProviderMetrics;
+import com.backend.wealth_one.clients.ProviderRateLimiters;
+import com.backend.wealth_one.clients.ProviderWebClients;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.web.reactive.function.client.WebClient;
 
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
+    @Bean(destroyMethod = "close")
+    public ProviderRateLimiters providerRateLimiters(Environment env) {
+        return new ProviderRateLimiters(env);
+    }
+
+    @Bean
+    public ProviderGuards providerGuards(Environment env) {
+        return new ProviderGuards(env);
+    }
+
+    @Bean
+    public ProviderMetrics providerMetrics(MeterRegistry meterRegistry) {
+        return new ProviderMetrics(meterRegistry);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ProviderHttpClients providerHttpClients(Environment env, ProviderGuards providerGuards,
+                                                   ProviderRateLimiters providerRateLimiters,
+                                                   ProviderMetrics providerMetrics) {
+        return new ProviderHttpClients(env, providerGuards, providerRateLimiters, providerMetrics);
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public ProviderMeterBinder providerMeterBinder(ProviderGuards providerGuards,
+                                                   ProviderRateLimiters providerRateLimiters,
+                                                   ProviderHttpClients providerHttpClients) {
+        return new ProviderMeterBinder(providerGuards, providerRateLimiters, providerHttpClients);
+    }
+
+    // Only needed when provider-backed endpoints run on the non-blocking path
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "provider.client.mode", havingValue = "reactive")
+    public ProviderWebClients providerWebClients(Environment env, WebClient.Builder webClientBuilder,
+                                                 ProviderGuards providerGuards,
+                                                 ProviderRateLimiters providerRateLimiters,
+                                                 ProviderMetrics providerMetrics) {
+        return new ProviderWebClients(env, webClientBuilder, providerGuards, providerRateLimiters, providerMetrics);
     }
 }
@@ -0,0 +1,133 @@
+package com.backend.wealth_one.configs;
+
+import com.backend.wealth_one.clients.RequestPriority;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Executors for provider calls: {@link #PROVIDER_EXECUTOR} fans out calls to
+ * several providers from one request, and {@link #QUOTE_LOADER_EXECUTOR} runs
+ * the blocking upstream calls behind the quote caches.
+ *
+ * <p>The loaders have their own pool because fan-out tasks may wait on the quote
+ * caches; if the loads they wait for queued behind them on the same pool, a full
+ * pool would never drain.
+ *
+ * <p>Both follow {@code spring.threads.virtual.enabled}: with virtual threads every
+ * fan-out task gets its own virtual thread, otherwise tasks run on a bounded
+ * platform thread pool. Tasks inherit the submitter's {@link RequestPriority}.
+ *
+ * <p>{@link #APPLICATION_TASK_EXECUTOR} runs Spring MVC async work: NDJSON and
+ * pass-through {@code StreamingResponseBody} writes and reactive return values.
+ * Spring Boot only creates that bean when no other {@code Executor} exists, so it
+ * is declared here; without it MVC falls back to a thread per task.
+ *
+ * <p>{@code @Scheduled} jobs get a small pool of their own in platform mode, so a
+ * long snapshot refresh or trade sync does not hold back the other jobs. With
+ * virtual threads Spring Boot's scheduler already runs each job on its own thread.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    public static final String PROVIDER_EXECUTOR = "providerTaskExecutor";
+    public static final String QUOTE_LOADER_EXECUTOR = "quoteLoaderExecutor";
+    public static final String TASK_SCHEDULER = "taskScheduler";
+    // The name Spring Boot's MVC auto-configuration looks up for async request handling
+    public static final String APPLICATION_TASK_EXECUTOR = "applicationTaskExecutor";
+
+    @Bean(PROVIDER_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public AsyncTaskExecutor virtualProviderTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("provider-");
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(RequestPriority::propagate);
+        executor.setTaskTerminationTimeout(5000);
+        return executor;
+    }
+
+    @Bean(PROVIDER_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public AsyncTaskExecutor platformProviderTaskExecutor(
+            @Value("${executor.provider.pool-size:32}") int poolSize,
+            @Value("${executor.provider.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("provider-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setTaskDecorator(RequestPriority::propagate);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(5);
+        return executor;
+    }
+
+    @Bean(QUOTE_LOADER_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public AsyncTaskExecutor virtualQuoteLoaderExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("quote-loader-");
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(RequestPriority::propagate);
+        executor.setTaskTerminationTimeout(5000);
+        return executor;
+    }
+
+    @Bean(QUOTE_LOADER_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public AsyncTaskExecutor platformQuoteLoaderExecutor(
+            @Value("${executor.quote-loader.pool-size:16}") int poolSize,
+            @Value("${executor.quote-loader.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("quote-loader-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setTaskDecorator(RequestPriority::propagate);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(5);
+        return executor;
+    }
+
+    @Bean(APPLICATION_TASK_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public AsyncTaskExecutor virtualApplicationTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("mvc-async-");
+        executor.setVirtualThreads(true);
+        executor.setTaskTerminationTimeout(5000);
+        return executor;
+    }
+
+    // Each open stream holds a thread, so the pool caps concurrent streams
+    @Bean(APPLICATION_TASK_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public AsyncTaskExecutor platformApplicationTaskExecutor(
+            @Value("${executor.mvc-async.pool-size:100}") int poolSize,
+            @Value("${executor.mvc-async.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(5);
+        return executor;
+    }
+
+    @Bean(TASK_SCHEDULER)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskScheduler platformTaskScheduler(
+            @Value("${spring.task.scheduling.pool.size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("scheduling-");
+        scheduler.setPoolSize(poolSize);
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(5);
+        return scheduler;
+    }
+}
@@ -1,6 +1,8 @@
 package com.backend.wealth_one.configs;
 
+import com.backend.wealth_one.utils.BoundedPasswordEncoder;
 import com.backend.wealth_one.utils.JwtRequestFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -8,8 +10,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -64,9 +64,15 @@ public class SecurityConfig {
 //    }
 
 
+    // BCrypt runs on its own bounded pool; threads=0 means half the cores
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(@Value("${auth.bcrypt.strength:10}") int strength,
+                                                  @Value("${auth.bcrypt.threads:0}") int threads,
+                                                  @Value("${auth.bcrypt.queue-capacity:8}") int queueCapacity,
+                                                  @Value("${auth.bcrypt.max-wait-ms:2000}") long maxWaitMs,
+                                                  @Value("${auth.bcrypt.retry-after-seconds:1}") long retryAfterSeconds) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(strength, poolSize, queueCapacity, maxWaitMs, retryAfterSeconds);
     }
 
     @Bean
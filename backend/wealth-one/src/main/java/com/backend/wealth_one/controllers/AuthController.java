@@ -3,13 +3,18 @@ package com.backend.wealth_one.controllers;
 import com.backend.wealth_one.models.User;
 import com.backend.wealth_one.services.AuthService;
 import com.backend.wealth_one.utils.JwtUtil;
+import com.backend.wealth_one.utils.PasswordHashingBusyException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -22,6 +27,8 @@ import java.util.Map;
 @RequestMapping("/auth/v1")
 public class AuthController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     private AuthService authService;
 
@@ -37,7 +44,7 @@ public class AuthController {
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@RequestBody User user) {
         if (authService.getUserByUsername(user.getUsername()).isPresent()) {
-            System.out.println("logs" + user);
+            logger.debug("Registration rejected, username {} already exists", user.getUsername());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Username already exists");
         }
         return ResponseEntity.ok(authService.registerUser(user));
@@ -67,9 +74,24 @@ public class AuthController {
             return ResponseEntity.ok(responseBody);
         } catch (BadCredentialsException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid username or password");
+        } catch (InternalAuthenticationServiceException e) {
+            // Spring Security wraps failures from the user lookup, which also hashes once
+            if (e.getCause() instanceof PasswordHashingBusyException busy) {
+                throw busy;
+            }
+            throw e;
         }
     }
 
+    // Login and registration share the BCrypt pool; when it is full they are turned away at once
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<Map<String, String>> handleBusy(PasswordHashingBusyException e) {
+        logger.debug("Password hashing busy: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("error", "Too many logins right now, please retry shortly"));
+    }
+
     @PostMapping("/logout")
     public ResponseEntity<?> logout(HttpServletResponse response) {
         // Create a cookie with the same name but null value and zero max age to invalidate it
@@ -1,75 +1,55 @@
 package com.backend.wealth_one.controllers;
 
-import com.backend.wealth_one.services.CoinDcxAuthService;
+import com.backend.wealth_one.clients.ProviderUnavailableException;
+import com.backend.wealth_one.services.CoinDcxApiService;
+import com.backend.wealth_one.services.CoinDcxTradeService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.HashMap;
 import java.util.Map;
 
 @RestController
+@ConditionalOnProperty(name = "provider.client.mode", havingValue = "blocking", matchIfMissing = true)
 @RequestMapping("/api/coindcx")
 public class CoinDcxController {
 
     private static final Logger logger = LoggerFactory.getLogger(CoinDcxController.class);
 
-    @Value("${coindcx.api.baseUrl}")
-    private String baseUrl;
+    private static final int MAX_PAGE_SIZE = 1000;
 
     @Autowired
-    private CoinDcxAuthService authService;
+    private CoinDcxApiService coinDcxApiService;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    private CoinDcxTradeService coinDcxTradeService;
+
+    // Stream the upstream body unchanged; when off, it is buffered and gets the stale fallback
+    @Value("${provider.pass-through.streaming:false}")
+    private boolean streaming;
 
-    public ResponseEntity<String> callApi(String endpoint, HttpMethod method, Map<String, Object> body) throws ApiException {
+    // Only read endpoints go through here, so a stale answer is acceptable while CoinDCX is down
+    public ResponseEntity<?> callApi(String endpoint, HttpMethod method, Map<String, Object> body) throws ApiException {
+        // CoinDCX accounts are personal, so anonymous calls get a 401
+        String userId = CurrentUser.required();
         try {
-            // Create base payload with timestamp
-            Map<String, Object> payload = new HashMap<>();
-            long timestamp = System.currentTimeMillis();
-            payload.put("timestamp", timestamp);
-
-            // Add additional request body parameters
-            if (body != null) {
-                payload.putAll(body);
+            if (streaming) {
+                return PassThroughResponses.of(coinDcxApiService.open(userId, endpoint, method, body));
             }
-
-            // Debugging: log full payload
-            System.out.println("Payload: " + new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(payload));
-
-            // Generate auth headers with correct payload
-            HttpHeaders headers = authService.generateAuthHeaders(payload);
-
-            // Wrap payload and headers into HTTP request
-            HttpEntity<Map<String, Object>> httpEntity = new HttpEntity<>(payload, headers);
-
-            // Make the actual API call
-            return restTemplate.exchange(
-                    baseUrl + endpoint,
-                    method,
-                    httpEntity,
-                    String.class
-            );
-        } catch (HttpClientErrorException e) {
-            throw new ApiException("Client error when calling API: " + e.getResponseBodyAsString(), e, e.getStatusCode().value());
-        } catch (HttpServerErrorException e) {
-            throw new ApiException("Server error when calling API: " + e.getResponseBodyAsString(), e, e.getStatusCode().value());
+            return coinDcxApiService.exchangeOrLastKnown(userId, endpoint, method, body);
         } catch (Exception e) {
-            throw new ApiException("Error calling API: " + e.getMessage(), e, 500);
+            throw toApiException(e);
         }
     }
 
-
-
     private ResponseEntity<Map<String, Object>> createErrorResponse(ApiException e) {
         Map<String, Object> errorResponse = new HashMap<>();
         errorResponse.put("status", "error");
@@ -112,15 +92,36 @@ public class CoinDcxController {
         }
     }
 
+    // Served from the local trade store, synced incrementally from CoinDCX when stale
     @PostMapping("/trade-history")
-    public ResponseEntity<?> getTradeHistory() {
+    public ResponseEntity<?> getTradeHistory(
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(defaultValue = "false") boolean refresh) {
+        String userId = CurrentUser.required();
         try {
-            return callApi("/exchange/v1/orders/trade_history?sort=desc", HttpMethod.POST, null);
-
-        } catch (ApiException e) {
+            return ResponseEntity.ok(coinDcxTradeService.getTrades(userId, symbol, from, to,
+                    Math.max(0, page), Math.min(Math.max(1, size), MAX_PAGE_SIZE), refresh));
+        } catch (Exception e) {
             logger.error("Error getting trade history", e);
-            return createErrorResponse(e);
+            return createErrorResponse(toApiException(e));
+        }
+    }
+
+    private static ApiException toApiException(Exception e) {
+        if (e instanceof HttpClientErrorException clientError) {
+            return new ApiException("Client error when calling API: " + clientError.getResponseBodyAsString(), e, clientError.getStatusCode().value());
+        }
+        if (e instanceof HttpServerErrorException serverError) {
+            return new ApiException("Server error when calling API: " + serverError.getResponseBodyAsString(), e, serverError.getStatusCode().value());
+        }
+        if (e instanceof ProviderUnavailableException) {
+            return new ApiException("CoinDCX is unavailable: " + e.getMessage(), e, 503);
         }
+        return new ApiException("Error calling API: " + e.getMessage(), e, 500);
     }
 
 }
\ No newline at end of file
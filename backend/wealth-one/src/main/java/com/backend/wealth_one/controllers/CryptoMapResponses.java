@@ -0,0 +1,50 @@
+package com.backend.wealth_one.controllers;
+
+import com.backend.wealth_one.services.CryptoMapSnapshotService.Snapshot;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Builds the {@code /api/crypto/map} response shared by the blocking and
+ * reactive crypto controllers.
+ */
+final class CryptoMapResponses {
+
+    private CryptoMapResponses() {
+    }
+
+    static ResponseEntity<byte[]> of(Snapshot snapshot, WebRequest request) {
+        // Sets the ETag and a 304 status when the client already has this snapshot
+        if (request.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzipBody());
+        }
+        return response.body(snapshot.body());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                String q = parts.length > 1 ? parts[1].replace(" ", "") : "";
+                return !q.startsWith("q=") || !q.matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,36 @@
+package com.backend.wealth_one.controllers;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * The application user a request acts for. Provider data is stored per user,
+ * so there is no shared bucket for unauthenticated calls.
+ *
+ * <p>Read it on the request thread: the security context does not follow work
+ * onto executor or reactor threads.
+ */
+final class CurrentUser {
+
+    private CurrentUser() {
+    }
+
+    /**
+     * The signed-in user; anonymous calls are rejected with a 401.
+     */
+    static String required() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!isSignedIn(authentication)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User is not logged in");
+        }
+        return authentication.getName();
+    }
+
+    private static boolean isSignedIn(Authentication authentication) {
+        return authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+}
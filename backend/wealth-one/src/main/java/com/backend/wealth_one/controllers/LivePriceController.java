@@ -0,0 +1,82 @@
+package com.backend.wealth_one.controllers;
+
+import com.backend.wealth_one.services.LivePriceService;
+import com.backend.wealth_one.services.LivePriceService.PriceUpdate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/v1/stream")
+public class LivePriceController {
+
+    @Value("${live.prices.max-symbols:50}")
+    private int maxSymbols;
+
+    @Value("${live.prices.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    private final LivePriceService livePriceService;
+
+    public LivePriceController(LivePriceService livePriceService) {
+        this.livePriceService = livePriceService;
+    }
+
+    /**
+     * Server-sent events with a {@code price} event whenever a watched price
+     * changes, e.g. {@code /api/v1/stream/prices?crypto=BTC,ETH&stocks=INFY}.
+     * A comment line is sent periodically so idle proxies keep the connection open.
+     */
+    @GetMapping("/prices")
+    public ResponseEntity<Flux<ServerSentEvent<PriceUpdate>>> streamPrices(
+            @RequestParam(required = false) List<String> crypto,
+            @RequestParam(required = false) List<String> stocks,
+            @RequestParam(defaultValue = "INR") String convert) {
+        Set<String> cryptoSymbols = symbols(crypto);
+        Set<String> stockSymbols = symbols(stocks);
+        int total = cryptoSymbols.size() + stockSymbols.size();
+        if (total == 0 || total > maxSymbols) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Subscribe to between 1 and " + maxSymbols + " symbols");
+        }
+
+        List<Flux<PriceUpdate>> feeds = new ArrayList<>();
+        cryptoSymbols.forEach(symbol -> feeds.add(livePriceService.crypto(symbol, convert)));
+        stockSymbols.forEach(symbol -> feeds.add(livePriceService.stock(symbol)));
+
+        Flux<ServerSentEvent<PriceUpdate>> prices = Flux.merge(feeds)
+                .map(update -> ServerSentEvent.builder(update).event("price").build());
+        Flux<ServerSentEvent<PriceUpdate>> heartbeats = Flux.interval(Duration.ofMillis(heartbeatMs))
+                .map(tick -> ServerSentEvent.<PriceUpdate>builder().comment("keep-alive").build());
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(Flux.merge(prices, heartbeats));
+    }
+
+    private static Set<String> symbols(List<String> values) {
+        Set<String> symbols = new LinkedHashSet<>();
+        if (values != null) {
+            for (String value : values) {
+                if (value != null && !value.isBlank()) {
+                    symbols.add(value.trim().toUpperCase());
+                }
+            }
+        }
+        return symbols;
+    }
+}
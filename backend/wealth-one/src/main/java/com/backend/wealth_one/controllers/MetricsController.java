@@ -0,0 +1,68 @@
+package com.backend.wealth_one.controllers;
+
+import com.backend.wealth_one.cache.LastKnownGoodRegistry;
+import com.backend.wealth_one.cache.QuoteCacheRegistry;
+import com.backend.wealth_one.clients.ProviderGuards;
+import com.backend.wealth_one.clients.ProviderHttpClients;
+import com.backend.wealth_one.clients.ProviderRateLimiters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/metrics")
+public class MetricsController {
+
+    private final ProviderHttpClients providerHttpClients;
+    private final QuoteCacheRegistry quoteCacheRegistry;
+    private final ProviderRateLimiters providerRateLimiters;
+    private final ProviderGuards providerGuards;
+    private final LastKnownGoodRegistry lastKnownGoodRegistry;
+
+    @Autowired
+    public MetricsController(ProviderHttpClients providerHttpClients,
+                             QuoteCacheRegistry quoteCacheRegistry,
+                             ProviderRateLimiters providerRateLimiters,
+                             ProviderGuards providerGuards,
+                             LastKnownGoodRegistry lastKnownGoodRegistry) {
+        this.providerHttpClients = providerHttpClients;
+        this.quoteCacheRegistry = quoteCacheRegistry;
+        this.providerRateLimiters = providerRateLimiters;
+        this.providerGuards = providerGuards;
+        this.lastKnownGoodRegistry = lastKnownGoodRegistry;
+    }
+
+    // Connection pool usage of the outbound provider clients
+    @GetMapping("/http-pools")
+    public ResponseEntity<Map<String, Map<String, Object>>> getHttpPoolStats() {
+        return ResponseEntity.ok(providerHttpClients.poolStats());
+    }
+
+    // Hit/miss counts of the stock and crypto quote caches
+    @GetMapping("/quote-cache")
+    public ResponseEntity<Map<String, Map<String, Object>>> getQuoteCacheStats() {
+        return ResponseEntity.ok(quoteCacheRegistry.stats());
+    }
+
+    // Queue depth, wait times and rejections of the per-provider rate limiters
+    @GetMapping("/rate-limits")
+    public ResponseEntity<Map<String, Map<String, Object>>> getRateLimitStats() {
+        return ResponseEntity.ok(providerRateLimiters.stats());
+    }
+
+    // Circuit state and bulkhead usage per provider
+    @GetMapping("/circuit-breakers")
+    public ResponseEntity<Map<String, Map<String, Object>>> getCircuitBreakerStats() {
+        return ResponseEntity.ok(providerGuards.stats());
+    }
+
+    // How often stale last-known-good responses stood in for a provider
+    @GetMapping("/last-known-good")
+    public ResponseEntity<Map<String, Map<String, Object>>> getLastKnownGoodStats() {
+        return ResponseEntity.ok(lastKnownGoodRegistry.stats());
+    }
+}
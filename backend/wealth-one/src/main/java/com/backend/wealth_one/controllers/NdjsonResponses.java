@@ -0,0 +1,34 @@
+package com.backend.wealth_one.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Map;
+
+/**
+ * Responses for the NDJSON endpoints. MVC only streams a body when the declared
+ * return type is {@code ResponseEntity<StreamingResponseBody>}; behind a
+ * {@code ResponseEntity<?>} it is handed to Jackson and written as {@code {}}.
+ * So the error answers are streaming bodies too.
+ */
+final class NdjsonResponses {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private NdjsonResponses() {
+    }
+
+    static ResponseEntity<StreamingResponseBody> ok(StreamingResponseBody body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // The usual {"error": ...} body, as JSON
+    static ResponseEntity<StreamingResponseBody> error(HttpStatusCode status, String message) {
+        Map<String, String> error = Map.of("error", String.valueOf(message));
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON)
+                .body(out -> MAPPER.writeValue(out, error));
+    }
+}
@@ -0,0 +1,121 @@
+package com.backend.wealth_one.controllers;
+
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Streams an upstream provider body to the client unchanged, for endpoints that
+ * return it as is. The bytes are copied through a small buffer as the client
+ * reads them, so the body is never parsed or held in memory.
+ *
+ * <p>MVC picks the writer from the body's class, not from the declared
+ * {@code ResponseEntity<?>}, so only bodies it recognises that way are used here:
+ * a {@link Resource}, or a {@link ResponseBodyEmitter} returned on its own.
+ */
+final class PassThroughResponses {
+
+    private PassThroughResponses() {
+    }
+
+    /**
+     * For a response from {@link com.backend.wealth_one.clients.ProviderHttpClients#open}.
+     * The upstream response is closed once the body has been copied.
+     */
+    static ResponseEntity<Resource> of(ClientHttpResponse upstream) throws IOException {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(upstream.getStatusCode());
+        copyContentType(upstream.getHeaders(), response);
+        InputStream body;
+        try {
+            body = new FilterInputStream(upstream.getBody()) {
+                @Override
+                public void close() throws IOException {
+                    try (upstream) {
+                        super.close();
+                    }
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            upstream.close();
+            throw e;
+        }
+        return response.body(new InputStreamResource(body));
+    }
+
+    /**
+     * For a WebClient {@code toEntityFlux(DataBuffer.class)} response. The next
+     * buffer is requested only after the previous one has been written, and no
+     * thread waits on the upstream in between.
+     */
+    static ResponseBodyEmitter of(ResponseEntity<Flux<DataBuffer>> upstream) {
+        PassThroughEmitter emitter = new PassThroughEmitter(upstream.getStatusCode(), upstream.getHeaders().getContentType());
+        Flux<DataBuffer> buffers = upstream.getBody() != null ? upstream.getBody() : Flux.empty();
+        // Servlet writes block, so each one runs off the event loop
+        Disposable copy = buffers
+                .concatMap(buffer -> Mono.fromRunnable(() -> send(emitter, buffer))
+                        .subscribeOn(Schedulers.boundedElastic()), 0)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                .subscribe(null, emitter::completeWithError, emitter::complete);
+        // Stops reading upstream once the client has gone or the request timed out
+        emitter.onCompletion(copy::dispose);
+        emitter.onTimeout(copy::dispose);
+        emitter.onError(e -> copy.dispose());
+        return emitter;
+    }
+
+    private static void send(ResponseBodyEmitter emitter, DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            emitter.send(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    // Content-Length and Content-Encoding are left out, the client may have decoded the body
+    private static void copyContentType(HttpHeaders upstream, ResponseEntity.BodyBuilder response) {
+        if (upstream.getContentType() != null) {
+            response.contentType(upstream.getContentType());
+        }
+    }
+
+    // Carries the upstream status and Content-Type, which a bare emitter has no way to set
+    private static final class PassThroughEmitter extends ResponseBodyEmitter {
+        private final HttpStatusCode status;
+        private final MediaType contentType;
+
+        private PassThroughEmitter(HttpStatusCode status, MediaType contentType) {
+            this.status = status;
+            this.contentType = contentType;
+        }
+
+        @Override
+        protected void extendResponse(ServerHttpResponse outputMessage) {
+            super.extendResponse(outputMessage);
+            outputMessage.setStatusCode(status);
+            if (contentType != null) {
+                outputMessage.getHeaders().setContentType(contentType);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.backend.wealth_one.controllers;
+
+import com.backend.wealth_one.models.PortfolioSummary;
+import com.backend.wealth_one.services.PortfolioSnapshotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/portfolio")
+public class PortfolioController {
+
+    private final PortfolioSnapshotService portfolioSnapshotService;
+
+    @Autowired
+    public PortfolioController(PortfolioSnapshotService portfolioSnapshotService) {
+        this.portfolioSnapshotService = portfolioSnapshotService;
+    }
+
+    // Crypto, equity and cash from every provider in one response, served from the user's snapshot
+    @GetMapping("/summary")
+    public ResponseEntity<PortfolioSummary> getSummary(@RequestParam(defaultValue = "false") boolean refresh) {
+        // The summary reads the user's own CoinDCX and Upstox accounts, so anonymous calls get a 401
+        String userId = CurrentUser.required();
+        return ResponseEntity.ok(refresh
+                ? portfolioSnapshotService.refreshSummary(userId)
+                : portfolioSnapshotService.getSummary(userId));
+    }
+}
@@ -0,0 +1,50 @@
+package com.backend.wealth_one.controllers;
+
+import com.backend.wealth_one.services.PriceHistoryService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/history")
+public class PriceHistoryController {
+
+    private static final List<String> RESOLUTIONS = List.of(
+            PriceHistoryService.RAW, PriceHistoryService.MINUTE, PriceHistoryService.HOUR, PriceHistoryService.DAY);
+
+    private final PriceHistoryService priceHistoryService;
+
+    public PriceHistoryController(PriceHistoryService priceHistoryService) {
+        this.priceHistoryService = priceHistoryService;
+    }
+
+    // Without a resolution the coarsest one that suits the range is used
+    @GetMapping("/{symbol}")
+    public ResponseEntity<?> getHistory(
+            @PathVariable String symbol,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String resolution,
+            @RequestParam(defaultValue = "INR") String currency) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(1, ChronoUnit.DAYS);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "from must not be after to"));
+        }
+
+        String chosen = resolution != null ? resolution : PriceHistoryService.resolutionFor(start, end);
+        if (!RESOLUTIONS.contains(chosen)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "resolution must be one of " + RESOLUTIONS));
+        }
+        return ResponseEntity.ok(priceHistoryService.getHistory(symbol, currency, start, end, chosen));
+    }
+}
@@ -0,0 +1,132 @@
+package com.backend.wealth_one.controllers;
+
+import com.backend.wealth_one.clients.Provider;
+import com.backend.wealth_one.clients.ProviderUnavailableException;
+import com.backend.wealth_one.clients.ProviderWebClients;
+import com.backend.wealth_one.services.CoinDcxAuthService;
+import com.backend.wealth_one.services.CoinDcxTradeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Non-blocking variant of {@link CoinDcxController}, active when
+ * {@code provider.client.mode=reactive}.
+ */
+@RestController
+@ConditionalOnProperty(name = "provider.client.mode", havingValue = "reactive")
+@RequestMapping("/api/coindcx")
+public class ReactiveCoinDcxController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveCoinDcxController.class);
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    @Value("${coindcx.api.baseUrl}")
+    private String baseUrl;
+
+    // Stream the upstream body unchanged instead of buffering it as a String
+    @Value("${provider.pass-through.streaming:false}")
+    private boolean streaming;
+
+    private final CoinDcxAuthService authService;
+    private final CoinDcxTradeService coinDcxTradeService;
+    private final WebClient webClient;
+
+    public ReactiveCoinDcxController(CoinDcxAuthService authService, CoinDcxTradeService coinDcxTradeService,
+                                     ProviderWebClients providerWebClients) {
+        this.authService = authService;
+        this.coinDcxTradeService = coinDcxTradeService;
+        this.webClient = providerWebClients.webClient(Provider.COINDCX);
+    }
+
+    // Mono<Object>: a streamed body is a bare ResponseBodyEmitter, not a ResponseEntity
+    public Mono<Object> callApi(String userId, String endpoint, HttpMethod method, Map<String, Object> body) {
+        return Mono.fromCallable(() -> authService.sign(userId, body))
+                // A signer cache miss reads the user's key pair from Mongo
+                .subscribeOn(Schedulers.boundedElastic())
+                // The signed bytes go out unchanged; a byte[] body is not re-serialized
+                .flatMap(request -> {
+                    WebClient.ResponseSpec response = webClient.method(method)
+                            .uri(baseUrl + endpoint)
+                            .headers(h -> h.addAll(request.headers()))
+                            .bodyValue(request.body())
+                            .retrieve();
+                    return streaming
+                            ? response.toEntityFlux(DataBuffer.class).<Object>map(PassThroughResponses::of)
+                            : response.toEntity(String.class).<Object>map(entity -> entity);
+                })
+                .onErrorResume(e -> {
+                    logger.error("Error calling CoinDCX {}", endpoint, e);
+                    return Mono.just(createErrorResponse(e));
+                });
+    }
+
+    private ResponseEntity<Map<String, Object>> createErrorResponse(Throwable e) {
+        int statusCode = 500;
+        String message = "Error calling API: " + e.getMessage();
+        if (e instanceof WebClientResponseException responseException) {
+            statusCode = responseException.getStatusCode().value();
+            String kind = responseException.getStatusCode().is4xxClientError() ? "Client" : "Server";
+            message = kind + " error when calling API: " + responseException.getResponseBodyAsString();
+        } else if (e instanceof ProviderUnavailableException) {
+            statusCode = 503;
+            message = "CoinDCX is unavailable: " + e.getMessage();
+        }
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("status", "error");
+        errorResponse.put("message", message);
+        errorResponse.put("code", statusCode);
+
+        return ResponseEntity.status(statusCode).body(errorResponse);
+    }
+
+    @PostMapping("/user-info")
+    public Mono<Object> getUserInfo() {
+        return callApi(CurrentUser.required(), "/exchange/v1/users/info", HttpMethod.POST, null);
+    }
+
+    @PostMapping("/user-balance")
+    public Mono<Object> getUserBalances() {
+        return callApi(CurrentUser.required(), "/exchange/v1/users/balances", HttpMethod.POST, null);
+    }
+
+    // Served from the local trade store, synced incrementally from CoinDCX when stale
+    @PostMapping("/trade-history")
+    public Mono<ResponseEntity<?>> getTradeHistory(
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(defaultValue = "false") boolean refresh) {
+        // Resolved here, the security context does not follow the work onto another thread
+        String userId = CurrentUser.required();
+        // The sync and the Mongo query are blocking, keep them off the event loop
+        return Mono.fromCallable(() -> coinDcxTradeService.getTrades(userId, symbol, from, to,
+                        Math.max(0, page), Math.min(Math.max(1, size), MAX_PAGE_SIZE), refresh))
+                .subscribeOn(Schedulers.boundedElastic())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    logger.error("Error getting trade history", e);
+                    return Mono.just(createErrorResponse(e));
+                });
+    }
+}
@@ -0,0 +1,48 @@
+package com.backend.wealth_one.controllers;
+
+import com.backend.wealth_one.services.CoinMarketCapService;
+import com.backend.wealth_one.services.CryptoMapSnapshotService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Non-blocking variant of {@link GeckoCoinController}, active when
+ * {@code provider.client.mode=reactive}.
+ */
+@RestController
+@ConditionalOnProperty(name = "provider.client.mode", havingValue = "reactive")
+@RequestMapping("/api/crypto")
+public class ReactiveCryptoController {
+
+    private final CoinMarketCapService coinMarketCapService;
+    private final CryptoMapSnapshotService cryptoMapSnapshotService;
+
+    public ReactiveCryptoController(CoinMarketCapService coinMarketCapService,
+                                    CryptoMapSnapshotService cryptoMapSnapshotService) {
+        this.coinMarketCapService = coinMarketCapService;
+        this.cryptoMapSnapshotService = cryptoMapSnapshotService;
+    }
+
+    @GetMapping("/prices")
+    public Mono<Map<String, Object>> getCryptoPrices(
+            @RequestParam(defaultValue = "BTC,ETH") String symbol,
+            @RequestParam(defaultValue = "INR") String convert) {
+
+        // Served from the shared quote cache; misses load through the reactive client
+        return Mono.fromFuture(coinMarketCapService.getLatestQuotesAsync(symbol, convert));
+    }
+
+    @GetMapping("/map")
+    public ResponseEntity<byte[]> getCryptoMap(WebRequest request) {
+        // Served from the in-memory snapshot; only a cold start waits on CoinMarketCap
+        return CryptoMapResponses.of(cryptoMapSnapshotService.getSnapshot(), request);
+    }
+}
@@ -0,0 +1,48 @@
+package com.backend.wealth_one.controllers;
+
+import com.backend.wealth_one.services.StockService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking variant of {@link StockPriceApiController}, active when
+ * {@code provider.client.mode=reactive}.
+ */
+@RestController
+@ConditionalOnProperty(name = "provider.client.mode", havingValue = "reactive")
+@RequestMapping("/api/v1")
+public class ReactiveStockPriceApiController {
+
+    @Value("${stock.api.max-batch-size:100}")
+    private int maxBatchSize;
+
+    private final StockService stockService;
+
+    @Autowired
+    public ReactiveStockPriceApiController(StockService stockService) {
+        this.stockService = stockService;
+    }
+
+    @GetMapping("/stock")
+    public Mono<ResponseEntity<?>> getStockPrice(@RequestParam("name") String stockName) {
+        return Mono.fromFuture(stockService.getStockPriceAsync(stockName)).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/stocks")
+    public Mono<ResponseEntity<?>> getStockPrices(@RequestParam("names") List<String> stockNames) {
+        if (stockNames.size() > maxBatchSize) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "At most " + maxBatchSize + " names per request")));
+        }
+        return Mono.fromFuture(stockService.getStockPricesAsync(stockNames)).map(ResponseEntity::ok);
+    }
+}
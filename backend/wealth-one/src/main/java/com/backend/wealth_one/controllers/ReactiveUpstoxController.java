@@ -0,0 +1,164 @@
+package com.backend.wealth_one.controllers;
+
+import com.backend.wealth_one.clients.Provider;
+import com.backend.wealth_one.clients.ProviderWebClients;
+import com.backend.wealth_one.services.UpstoxAuthService;
+import com.backend.wealth_one.services.UpstoxTradeHistoryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Non-blocking variant of {@link UpstoxController}, active when
+ * {@code provider.client.mode=reactive}.
+ */
+@RestController
+@ConditionalOnProperty(name = "provider.client.mode", havingValue = "reactive")
+@RequestMapping("/api/upstox")
+public class ReactiveUpstoxController {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> MAP_TYPE = new ParameterizedTypeReference<>() {};
+
+    private final UpstoxAuthService upstoxAuthService;
+    private final UpstoxTradeHistoryService upstoxTradeHistoryService;
+    private final ObjectMapper objectMapper;
+    private final WebClient webClient;
+
+    // Stream the upstream body unchanged instead of parsing it
+    @Value("${provider.pass-through.streaming:false}")
+    private boolean streaming;
+
+    public ReactiveUpstoxController(UpstoxAuthService upstoxAuthService,
+                                    UpstoxTradeHistoryService upstoxTradeHistoryService,
+                                    ObjectMapper objectMapper,
+                                    ProviderWebClients providerWebClients) {
+        this.upstoxAuthService = upstoxAuthService;
+        this.upstoxTradeHistoryService = upstoxTradeHistoryService;
+        this.objectMapper = objectMapper;
+        this.webClient = providerWebClients.webClient(Provider.UPSTOX);
+    }
+
+    private Mono<Map<String, Object>> makeRequest(String userId, String endpoint) {
+        return request(userId, endpoint, spec -> spec.bodyToMono(MAP_TYPE));
+    }
+
+    // Tokens are refreshed ahead of expiry; the lookup may read Mongo, so keep it off the event loop
+    private <T> Mono<T> request(String userId, String endpoint, Function<WebClient.ResponseSpec, Mono<T>> body) {
+        return Mono.fromCallable(() -> upstoxAuthService.getAccessToken(userId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(accessToken -> body.apply(webClient.get()
+                        .uri(upstoxAuthService.getBaseUrl() + endpoint)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .headers(h -> h.setBearerAuth(accessToken))
+                        .retrieve()))
+                .doOnError(WebClientResponseException.Unauthorized.class, e -> upstoxAuthService.onUnauthorized(userId));
+    }
+
+    // Upstox sessions are personal, so anonymous calls get a 401. A streamed body is
+    // a bare ResponseBodyEmitter, hence Mono<Object>
+    private Mono<Object> respond(String endpoint) {
+        String userId = CurrentUser.required();
+        Mono<Object> response = streaming
+                ? request(userId, endpoint, spec -> spec.toEntityFlux(DataBuffer.class))
+                        .<Object>map(PassThroughResponses::of)
+                : makeRequest(userId, endpoint).<Object>map(ResponseEntity::ok);
+        return response.onErrorResume(e -> Mono.just(ResponseEntity.status(500)
+                .body(Map.of("error", "API request failed: " + e.getMessage()))));
+    }
+
+    @GetMapping("/profile")
+    public Mono<Object> getProfile() {
+        return respond("/user/profile");
+    }
+
+    @GetMapping("/funds")
+    public Mono<Object> getFunds() {
+        return respond("/user/get-funds-and-margin");
+    }
+
+    // Streams every matching trade as NDJSON, one trade per line
+    @GetMapping("/trades-history")
+    public Mono<ResponseEntity<StreamingResponseBody>> getOrdersHistory(
+            @RequestParam(defaultValue = "EQ") String segment,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        String userId = CurrentUser.required();
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end.minusYears(1);
+        if (start.isAfter(end)) {
+            return Mono.just(NdjsonResponses.error(HttpStatus.BAD_REQUEST, "startDate must not be after endDate"));
+        }
+
+        int pageSize = upstoxTradeHistoryService.getPageSize();
+        // The first page is fetched up front so auth failures still get a proper status
+        return makeRequest(userId, UpstoxTradeHistoryService.endpoint(segment, start, end, 1, pageSize))
+                .map(firstPage -> {
+                    Flux<Object> trades = Flux.concat(Mono.just(firstPage), remainingPages(userId, segment, start, end, firstPage))
+                            .concatMapIterable(UpstoxTradeHistoryService::trades);
+                    return NdjsonResponses.ok(out -> writeTrades(trades, out));
+                })
+                .onErrorResume(e -> Mono.just(NdjsonResponses.error(HttpStatus.INTERNAL_SERVER_ERROR,
+                        "API request failed: " + e.getMessage())));
+    }
+
+    // Pages 2..N in page order, up to page-concurrency of them in flight
+    private Flux<Map<String, Object>> remainingPages(String userId, String segment, LocalDate start, LocalDate end,
+                                                     Map<String, Object> firstPage) {
+        int pageSize = upstoxTradeHistoryService.getPageSize();
+        int totalPages = UpstoxTradeHistoryService.totalPages(firstPage);
+        if (totalPages < 0) {
+            // No page count to plan with; keep going until a short page comes back
+            AtomicInteger pageNumber = new AtomicInteger(1);
+            return Mono.just(firstPage)
+                    .expand(page -> UpstoxTradeHistoryService.trades(page).size() < pageSize ? Mono.empty()
+                            : makeRequest(userId, UpstoxTradeHistoryService.endpoint(segment, start, end, pageNumber.incrementAndGet(), pageSize)))
+                    .skip(1);
+        }
+        return Flux.range(2, Math.max(0, totalPages - 1))
+                .flatMapSequential(page -> makeRequest(userId, UpstoxTradeHistoryService.endpoint(segment, start, end, page, pageSize)),
+                        upstoxTradeHistoryService.getPageConcurrency());
+    }
+
+    // Runs on the MVC async executor; the flux is drained with bounded prefetch
+    private void writeTrades(Flux<Object> trades, OutputStream out) throws IOException {
+        try {
+            for (Object trade : trades.toIterable(upstoxTradeHistoryService.getPageSize())) {
+                out.write(objectMapper.writeValueAsBytes(trade));
+                out.write('\n');
+            }
+        } catch (RuntimeException e) {
+            // The status has already been sent, so the failure goes in the stream
+            out.write(objectMapper.writeValueAsBytes(Map.of("error", String.valueOf(e.getMessage()))));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    @GetMapping("/holdings")
+    public Mono<Object> getHoldings() {
+        return respond("/portfolio/long-term-holdings");
+    }
+}
@@ -1,15 +1,24 @@
 package com.backend.wealth_one.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 import com.backend.wealth_one.services.StockService;
 
 @RestController
+@ConditionalOnProperty(name = "provider.client.mode", havingValue = "blocking", matchIfMissing = true)
 @RequestMapping("/api/v1")
 public class StockPriceApiController {
 
+    @Value("${stock.api.max-batch-size:100}")
+    private int maxBatchSize;
+
     private final StockService stockService;
 
     @Autowired
@@ -22,4 +31,13 @@ public class StockPriceApiController {
         Object stockResponse = stockService.getStockPrice(stockName);
         return ResponseEntity.ok(stockResponse);
     }
+
+    // names accepts a comma-separated list and/or repeated parameters
+    @GetMapping("/stocks")
+    public ResponseEntity<?> getStockPrices(@RequestParam("names") List<String> stockNames) {
+        if (stockNames.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most " + maxBatchSize + " names per request"));
+        }
+        return ResponseEntity.ok(stockService.getStockPrices(stockNames));
+    }
 }
@@ -1,79 +1,92 @@
 package com.backend.wealth_one.controllers;
 
 import com.backend.wealth_one.services.UpstoxAuthService;
+import com.backend.wealth_one.services.UpstoxTradeHistoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.servlet.view.RedirectView;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import jakarta.servlet.http.HttpSession;
+import java.time.LocalDate;
 import java.util.Map;
 
 @RestController
+@ConditionalOnProperty(name = "provider.client.mode", havingValue = "blocking", matchIfMissing = true)
 @RequestMapping("/api/upstox")
 public class UpstoxController {
 
     private final UpstoxAuthService upstoxAuthService;
+    private final UpstoxTradeHistoryService upstoxTradeHistoryService;
+
+    // Stream the upstream body unchanged; when off, it is parsed and gets the stale fallback
+    @Value("${provider.pass-through.streaming:false}")
+    private boolean streaming;
+
     @Autowired
-    public UpstoxController(UpstoxAuthService upstoxAuthService) {
+    public UpstoxController(UpstoxAuthService upstoxAuthService, UpstoxTradeHistoryService upstoxTradeHistoryService) {
         this.upstoxAuthService = upstoxAuthService;
+        this.upstoxTradeHistoryService = upstoxTradeHistoryService;
     }
 
     // Example route to get user profile
     @GetMapping("/profile")
-    public ResponseEntity<Map<String, Object>> getProfile() {
-        try {
-            Map<String, Object> profile = upstoxAuthService.makeRequest(HttpMethod.GET, "/user/profile", null);
-            return ResponseEntity.ok(profile);
-        } catch (Exception e) {
-            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
-        }
+    public ResponseEntity<?> getProfile() {
+        return passThrough("/user/profile");
     }
 
     @GetMapping("/funds")
-    public ResponseEntity<Map<String, Object>> getFunds() {
-        try {
-            Map<String, Object> funds = upstoxAuthService.makeRequest(HttpMethod.GET, "/user/get-funds-and-margin", null);
-            return ResponseEntity.ok(funds);
-        } catch (Exception e) {
-            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
-        }
+    public ResponseEntity<?> getFunds() {
+        return passThrough("/user/get-funds-and-margin");
     }
 
+    // Streams every matching trade as NDJSON, one trade per line
     @GetMapping("/trades-history")
-    public ResponseEntity<?> getOrdersHistory() {
-        try {
-            String segment = "EQ";
-            String startDate = "2024-01-01";
-            String endDate = "2025-01-01";
-            int pageNumber = 1;
-            int pageSize = 100;
-
-            String endpoint = String.format(
-                    "/charges/historical-trades?segment=%s&start_date=%s&end_date=%s&page_number=%d&page_size=%d",
-                    segment, startDate, endDate, pageNumber, pageSize
-            );
-
-            Map<String, Object> orderHistory = upstoxAuthService.makeRequest(HttpMethod.GET, endpoint, null);
+    public ResponseEntity<StreamingResponseBody> getOrdersHistory(
+            @RequestParam(defaultValue = "EQ") String segment,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        // Resolved here, the security context does not follow the pages onto other threads
+        String userId = CurrentUser.required();
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end.minusYears(1);
+        if (start.isAfter(end)) {
+            return NdjsonResponses.error(HttpStatus.BAD_REQUEST, "startDate must not be after endDate");
+        }
 
-            return ResponseEntity.ok(orderHistory);
+        Map<String, Object> firstPage;
+        try {
+            // The first page is fetched up front so auth failures still get a proper status
+            firstPage = upstoxTradeHistoryService.fetchPage(userId, segment, start, end, 1);
         } catch (Exception e) {
-            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
+            return NdjsonResponses.error(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
         }
+
+        return NdjsonResponses.ok(out -> upstoxTradeHistoryService.streamTrades(userId, segment, start, end, firstPage, out));
     }
 
     @GetMapping("/holdings")
-    public ResponseEntity<Map<String, Object>> getHoldings() {
+    public ResponseEntity<?> getHoldings() {
+        return passThrough("/portfolio/long-term-holdings");
+    }
+
+    // Upstox sessions are personal, so anonymous calls get a 401
+    private ResponseEntity<?> passThrough(String endpoint) {
+        String userId = CurrentUser.required();
         try {
-            Map<String, Object> funds = upstoxAuthService.makeRequest(HttpMethod.GET, "/portfolio/long-term-holdings", null);
-            return ResponseEntity.ok(funds);
+            if (streaming) {
+                return PassThroughResponses.of(upstoxAuthService.open(userId, endpoint));
+            }
+            return ResponseEntity.ok(upstoxAuthService.makeRequest(userId, HttpMethod.GET, endpoint, null));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
         }
     }
-
 }
@@ -2,6 +2,10 @@ package com.backend.wealth_one.controllers;
 
 import com.backend.wealth_one.models.User;
 import com.backend.wealth_one.repositories.UserRepository;
+import com.backend.wealth_one.services.AuthService;
+import com.backend.wealth_one.services.CoinDcxAuthService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -20,9 +24,17 @@ import java.util.Optional;
 @RequestMapping("/api/v1")
 public class UserCredentialsController {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserCredentialsController.class);
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private CoinDcxAuthService coinDcxAuthService;
+
     @PutMapping("/user-credentials")
     public ResponseEntity<?> updateApplicationCredentials(@RequestBody Map<String, String> credentials) {
         // Get the current authenticated user
@@ -30,7 +42,7 @@ public class UserCredentialsController {
 
         if (authentication != null && authentication.isAuthenticated()) {
             String username = authentication.getName();
-            System.out.println("Authenticated username: " + username);
+            logger.debug("Updating credentials for {}", username);
 
             Optional<User> userOptional = userRepository.findByUsername(username);
 
@@ -53,6 +65,8 @@ public class UserCredentialsController {
 
                 // Save the updated user
                 User updatedUser = userRepository.save(user);
+                authService.evictPrincipal(updatedUser.getUsername());
+                coinDcxAuthService.evictCredentials(updatedUser.getUsername());
 
                 // Create a response without sensitive information
                 Map<String, Object> response = new HashMap<>();
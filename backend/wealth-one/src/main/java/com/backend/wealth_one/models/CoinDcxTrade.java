@@ -0,0 +1,54 @@
+package com.backend.wealth_one.models;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * A CoinDCX fill synced from {@code /exchange/v1/orders/trade_history}. The id is
+ * {@code userId:tradeId}, so re-syncing the same trade never creates a duplicate.
+ */
+@Data
+@Document(collection = "coindcx_trades")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_timestamp", def = "{ 'userId': 1, 'timestamp': -1 }"),
+        @CompoundIndex(name = "user_symbol_timestamp", def = "{ 'userId': 1, 'symbol': 1, 'timestamp': -1 }")
+})
+public class CoinDcxTrade {
+    @Id
+    private String id;
+
+    @Field("userId")
+    private String userId;
+
+    @Field("tradeId")
+    private String tradeId;
+
+    @Field("orderId")
+    private String orderId;
+
+    @Field("symbol")
+    private String symbol;
+
+    @Field("side")
+    private String side;
+
+    @Field("price")
+    private Double price;
+
+    @Field("quantity")
+    private Double quantity;
+
+    @Field("feeAmount")
+    private Double feeAmount;
+
+    @Field("ecode")
+    private String ecode;
+
+    // Epoch milliseconds, as reported by CoinDCX
+    @Field("timestamp")
+    private Long timestamp;
+}
@@ -0,0 +1,33 @@
+package com.backend.wealth_one.models;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+/**
+ * Sync state of one user's CoinDCX trade history. The background sync only
+ * covers users who read their history recently. The id is the application username.
+ */
+@Data
+@Document(collection = "coindcx_trade_syncs")
+@CompoundIndex(name = "read_attempted", def = "{ 'lastReadAt': 1, 'attemptedAt': 1 }")
+public class CoinDcxTradeSync {
+    @Id
+    private String id;
+
+    // Last sync that completed
+    @Field("syncedAt")
+    private Instant syncedAt;
+
+    // Last sync started, successful or not; orders the background queue
+    @Field("attemptedAt")
+    private Instant attemptedAt;
+
+    // Roughly when the user last asked for their history, see CoinDcxTradeService
+    @Field("lastReadAt")
+    private Instant lastReadAt;
+}
@@ -0,0 +1,33 @@
+package com.backend.wealth_one.models;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+/**
+ * Last fetched CoinMarketCap {@code /v1/cryptocurrency/map} response, stored
+ * gzipped exactly as it is served.
+ */
+@Data
+@Document(collection = "crypto_map_snapshots")
+public class CryptoMapSnapshot {
+    public static final String LATEST = "latest";
+
+    @Id
+    private String id;
+
+    @Field("gzipBody")
+    private byte[] gzipBody;
+
+    @Field("etag")
+    private String etag;
+
+    @Field("rawSize")
+    private long rawSize;
+
+    @Field("fetchedAt")
+    private Instant fetchedAt;
+}
@@ -0,0 +1,46 @@
+package com.backend.wealth_one.models;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A user's precomputed portfolio summary, served by the dashboard instead of
+ * calling every provider. The id is the application username.
+ */
+@Data
+@Document(collection = "portfolio_snapshots")
+public class PortfolioSnapshot {
+    @Id
+    private String id;
+
+    // The refresh job and the revaluation job may write the same snapshot
+    @Version
+    private Long version;
+
+    @Field("summary")
+    private PortfolioSummary summary;
+
+    // "crypto:BTC", "stock:INFY"; finds the snapshots a price change affects
+    @Indexed
+    @Field("symbols")
+    private List<String> symbols;
+
+    // When holdings and balances were last fetched
+    @Indexed
+    @Field("refreshedAt")
+    private Instant refreshedAt;
+
+    @Field("lastReadAt")
+    private Instant lastReadAt;
+
+    // Why the last refresh was not applied, null when it was
+    @Field("refreshError")
+    private String refreshError;
+}
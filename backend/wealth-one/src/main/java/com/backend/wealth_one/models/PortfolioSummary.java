@@ -0,0 +1,94 @@
+package com.backend.wealth_one.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Combined view of a user's crypto, equity and cash positions valued in INR.
+ * When a provider misses its deadline the summary is still returned, with
+ * {@code complete=false} and the failing source listed in {@code sources}.
+ */
+@Data
+public class PortfolioSummary {
+
+    private String currency = "INR";
+
+    private BigDecimal totalValue = BigDecimal.ZERO;
+
+    private BigDecimal cryptoValue = BigDecimal.ZERO;
+
+    private BigDecimal equityValue = BigDecimal.ZERO;
+
+    private BigDecimal cashValue = BigDecimal.ZERO;
+
+    private boolean complete;
+
+    private List<Position> crypto = new ArrayList<>();
+
+    private List<Position> equity = new ArrayList<>();
+
+    private Map<String, BigDecimal> cash = new LinkedHashMap<>();
+
+    private Map<String, SourceStatus> sources = new LinkedHashMap<>();
+
+    private Instant generatedAt;
+
+    // Set when a snapshot was re-priced after generatedAt
+    private Instant revaluedAt;
+
+    /**
+     * Recomputes the crypto, equity and total values, and {@code complete}, from
+     * the positions, cash and sources.
+     */
+    public void updateTotals() {
+        cryptoValue = sum(crypto);
+        equityValue = sum(equity);
+        totalValue = cryptoValue.add(equityValue).add(cashValue);
+        complete = sources.values().stream().allMatch(s -> s != null && SourceStatus.OK.equals(s.getStatus()))
+                && crypto.stream().allMatch(p -> p.getPrice() != null)
+                && equity.stream().allMatch(p -> p.getPrice() != null);
+    }
+
+    private static BigDecimal sum(List<Position> positions) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Position position : positions) {
+            if (position.getValue() != null) {
+                total = total.add(position.getValue());
+            }
+        }
+        return total;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Position {
+        private String symbol;
+        private BigDecimal quantity;
+        // Null when no price could be found before the deadline
+        private BigDecimal price;
+        private BigDecimal value;
+        private String priceSource;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SourceStatus {
+        public static final String OK = "ok";
+        public static final String TIMEOUT = "timeout";
+        public static final String ERROR = "error";
+
+        private String status;
+        private long latencyMs;
+        private String message;
+    }
+}
@@ -0,0 +1,48 @@
+package com.backend.wealth_one.models;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+/**
+ * OHLC rollup of {@link PricePoint}s for one symbol over a 1m, 1h or 1d bucket.
+ * The id is {@code symbol:currency:resolution:bucketStartMillis}.
+ */
+@Data
+@Document(collection = "price_rollups")
+@CompoundIndex(name = "series_bucket", def = "{ 'symbol': 1, 'currency': 1, 'resolution': 1, 'bucketStart': 1 }")
+public class PriceBucket {
+    @Id
+    private String id;
+
+    @Field("symbol")
+    private String symbol;
+
+    @Field("currency")
+    private String currency;
+
+    @Field("resolution")
+    private String resolution;
+
+    @Field("bucketStart")
+    private Instant bucketStart;
+
+    @Field("open")
+    private double open;
+
+    @Field("high")
+    private double high;
+
+    @Field("low")
+    private double low;
+
+    @Field("close")
+    private double close;
+
+    @Field("count")
+    private long count;
+}
@@ -0,0 +1,45 @@
+package com.backend.wealth_one.models;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.TimeSeries;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+
+import java.time.Instant;
+
+/**
+ * One quote as it was fetched from a provider. Stored in a time-series collection;
+ * raw points expire after a week, charts read {@link PriceBucket} rollups instead.
+ */
+@Data
+@Document(collection = "price_points")
+@TimeSeries(timeField = "timestamp", metaField = "meta", granularity = Granularity.SECONDS, expireAfter = "7d")
+public class PricePoint {
+    @Id
+    private String id;
+
+    @Field("timestamp")
+    private Instant timestamp;
+
+    @Field("meta")
+    private Meta meta;
+
+    @Field("price")
+    private double price;
+
+    @Data
+    public static class Meta {
+        // Upper-cased symbol, e.g. BTC or INFY
+        @Field("symbol")
+        private String symbol;
+
+        @Field("currency")
+        private String currency;
+
+        // "crypto" or "stock"
+        @Field("source")
+        private String source;
+    }
+}
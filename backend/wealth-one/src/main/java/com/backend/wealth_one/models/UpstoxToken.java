@@ -0,0 +1,34 @@
+package com.backend.wealth_one.models;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+/**
+ * A user's Upstox session. The id is the application username, so each user
+ * has their own tokens.
+ */
+@Data
+@Document(collection = "upstox_tokens")
+public class UpstoxToken {
+    @Id
+    private String id;
+
+    @Field("accessToken")
+    private String accessToken;
+
+    @Field("refreshToken")
+    private String refreshToken;
+
+    // Queried by the refresh job to find tokens about to expire
+    @Indexed
+    @Field("expiresAt")
+    private Instant expiresAt;
+
+    @Field("updatedAt")
+    private Instant updatedAt;
+}
@@ -0,0 +1,73 @@
+package com.backend.wealth_one.models.providers;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * CoinMarketCap {@code /v1/cryptocurrency/quotes/latest} response, keyed by symbol.
+ * Only the fields we serve are mapped; tags, platform, supply figures and the
+ * other quote fields are skipped while parsing.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CmcQuotes {
+
+    private Map<String, Quote> data;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Quote {
+        private Long id;
+        private String name;
+        private String symbol;
+        private String slug;
+        @JsonProperty("cmc_rank")
+        private Integer cmcRank;
+        @JsonProperty("last_updated")
+        private String lastUpdated;
+        // Keyed by convert currency, e.g. "INR"
+        private Map<String, Price> quote;
+        // Set only when served from the last known good copy
+        private Boolean stale;
+        private String fetchedAt;
+
+        /** quote.{@code convert}.price, or null when absent. */
+        public Double price(String convert) {
+            Price converted = quote != null ? quote.get(convert) : null;
+            return converted != null ? converted.getPrice() : null;
+        }
+
+        public Quote markStale(Instant fetchedAt) {
+            return new Quote(id, name, symbol, slug, cmcRank, lastUpdated, quote, true, fetchedAt.toString());
+        }
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Price {
+        private Double price;
+        @JsonProperty("volume_24h")
+        private Double volume24h;
+        @JsonProperty("percent_change_1h")
+        private Double percentChange1h;
+        @JsonProperty("percent_change_24h")
+        private Double percentChange24h;
+        @JsonProperty("percent_change_7d")
+        private Double percentChange7d;
+        @JsonProperty("market_cap")
+        private Double marketCap;
+        @JsonProperty("last_updated")
+        private String lastUpdated;
+    }
+}
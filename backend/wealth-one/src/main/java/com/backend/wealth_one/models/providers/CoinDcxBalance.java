@@ -0,0 +1,20 @@
+package com.backend.wealth_one.models.providers;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * One entry of the CoinDCX {@code /exchange/v1/users/balances} response.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CoinDcxBalance {
+
+    private String currency;
+    private BigDecimal balance;
+    @JsonProperty("locked_balance")
+    private BigDecimal lockedBalance;
+}
@@ -0,0 +1,16 @@
+package com.backend.wealth_one.models.providers;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+/**
+ * Stock API {@code /stock} response. Only {@code currentPrice} is read; the
+ * company profile, financials and news in the same body are skipped while parsing.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class StockQuote {
+
+    // Either a number or per exchange, e.g. {"NSE": .., "BSE": ..}
+    private Object currentPrice;
+}
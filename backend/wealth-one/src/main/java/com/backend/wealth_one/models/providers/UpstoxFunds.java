@@ -0,0 +1,26 @@
+package com.backend.wealth_one.models.providers;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Upstox {@code /user/get-funds-and-margin} response. {@code data} is keyed by
+ * segment, e.g. "equity" and "commodity".
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UpstoxFunds {
+
+    private Map<String, Segment> data;
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Segment {
+        @JsonProperty("available_margin")
+        private BigDecimal availableMargin;
+    }
+}
@@ -0,0 +1,28 @@
+package com.backend.wealth_one.models.providers;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Upstox {@code /portfolio/long-term-holdings} response, reduced to what the
+ * portfolio summary values.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UpstoxHoldings {
+
+    private List<Holding> data;
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Holding {
+        private String tradingsymbol;
+        private BigDecimal quantity;
+        @JsonProperty("last_price")
+        private BigDecimal lastPrice;
+    }
+}
@@ -0,0 +1,12 @@
+package com.backend.wealth_one.repositories;
+
+import com.backend.wealth_one.models.CoinDcxTrade;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CoinDcxTradeRepository extends MongoRepository<CoinDcxTrade, String> {
+    Optional<CoinDcxTrade> findFirstByUserIdOrderByTimestampDesc(String userId);
+}
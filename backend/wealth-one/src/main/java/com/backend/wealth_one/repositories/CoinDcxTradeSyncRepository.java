@@ -0,0 +1,15 @@
+package com.backend.wealth_one.repositories;
+
+import com.backend.wealth_one.models.CoinDcxTradeSync;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface CoinDcxTradeSyncRepository extends MongoRepository<CoinDcxTradeSync, String> {
+    List<CoinDcxTradeSync> findByLastReadAtAfterAndAttemptedAtBefore(Instant readAfter, Instant attemptedBefore,
+                                                                     Pageable pageable);
+}
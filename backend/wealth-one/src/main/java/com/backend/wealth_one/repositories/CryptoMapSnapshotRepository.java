@@ -0,0 +1,9 @@
+package com.backend.wealth_one.repositories;
+
+import com.backend.wealth_one.models.CryptoMapSnapshot;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CryptoMapSnapshotRepository extends MongoRepository<CryptoMapSnapshot, String> {
+}
@@ -0,0 +1,18 @@
+package com.backend.wealth_one.repositories;
+
+import com.backend.wealth_one.models.PortfolioSnapshot;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PortfolioSnapshotRepository extends MongoRepository<PortfolioSnapshot, String> {
+    List<PortfolioSnapshot> findBySymbolsInAndLastReadAtAfter(Collection<String> symbols, Instant readAfter);
+
+    List<PortfolioSnapshot> findByRefreshedAtBeforeAndLastReadAtAfter(Instant refreshedBefore, Instant readAfter,
+                                                                      Pageable pageable);
+}
@@ -0,0 +1,13 @@
+package com.backend.wealth_one.repositories;
+
+import com.backend.wealth_one.models.UpstoxToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface UpstoxTokenRepository extends MongoRepository<UpstoxToken, String> {
+    List<UpstoxToken> findByRefreshTokenNotNullAndExpiresAtBefore(Instant expiresAt);
+}
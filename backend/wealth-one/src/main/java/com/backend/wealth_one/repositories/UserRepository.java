@@ -2,6 +2,7 @@ package com.backend.wealth_one.repositories;
 
 import com.backend.wealth_one.models.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,6 +11,14 @@ import java.util.Optional;
 public interface UserRepository extends MongoRepository<User, String> {
     Optional<User> findByEmail(String email);
     Optional<User> findByUsername(String username);
+
+    // Only what authentication needs; API keys and secrets are left out
+    @Query(value = "{ 'username': ?0 }", fields = "{ 'username': 1, 'password': 1 }")
+    Optional<User> findCredentialsByUsername(String username);
+
+    // Only the CoinDCX key pair, for request signing
+    @Query(value = "{ 'username': ?0 }", fields = "{ 'coindcxApiKey': 1, 'coindcxApiSecret': 1 }")
+    Optional<User> findCoinDcxKeysByUsername(String username);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
 }
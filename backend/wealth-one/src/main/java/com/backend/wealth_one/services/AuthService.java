@@ -2,45 +2,55 @@ package com.backend.wealth_one.services;
 
 import com.backend.wealth_one.models.User;
 import com.backend.wealth_one.repositories.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Optional;
 
 @Service
-public class AuthService implements UserDetailsService {
+public class AuthService implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
+
+    // Cached instead of UserDetails, because Spring Security erases the password
+    // on the UserDetails instance it hands out after a login
+    private record Principal(String username, String password) {}
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final Cache<String, Principal> principals;
 
     @Autowired
-    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       @Value("${auth.principal-cache.ttl-ms:300000}") long principalTtlMs,
+                       @Value("${auth.principal-cache.max-size:10000}") long principalMaxSize) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.principals = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(principalTtlMs))
+                .maximumSize(principalMaxSize)
+                .build();
     }
 
     public User registerUser(User user) {
-        // Add this debug logging temporarily
-        System.out.println("=== DEBUG: Received user ===");
-        System.out.println("CoindcxApiKey: " + user.getCoindcxApiKey());
-        System.out.println("CoindcxApiSecret: " + user.getCoindcxApiSecret());
-        System.out.println("UpstoxApiKey: " + user.getUpstoxApiKey());
-        System.out.println("UpstoxApiSecret: " + user.getUpstoxApiSecret());
-
         user.setPassword(passwordEncoder.encode(user.getPassword()));
 
         User savedUser = userRepository.save(user);
+        evictPrincipal(savedUser.getUsername());
 
-        System.out.println("=== DEBUG: Saved user ===");
-        System.out.println("CoindcxApiKey: " + savedUser.getCoindcxApiKey());
-        System.out.println("CoindcxApiSecret: " + savedUser.getCoindcxApiSecret());
-        System.out.println("UpstoxApiKey: " + savedUser.getUpstoxApiKey());
-        System.out.println("UpstoxApiSecret: " + savedUser.getUpstoxApiSecret());
+        logger.debug("Registered user {}", savedUser.getUsername());
 
         return savedUser;
     }
@@ -49,15 +59,51 @@ public class AuthService implements UserDetailsService {
         return userRepository.findByUsername(username);
     }
 
+    /**
+     * Drops the cached principal so the next request reads the user from MongoDB.
+     * Call this after any change to a stored user.
+     */
+    public void evictPrincipal(String username) {
+        if (username != null) {
+            principals.invalidate(username);
+        }
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        Principal principal = principals.get(username, this::findPrincipal);
+        if (principal == null) {
+            throw new UsernameNotFoundException("User not found with username: " + username);
+        }
 
         return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
+                principal.username(),
+                principal.password(),
                 new ArrayList<>()
         );
     }
+
+    /**
+     * Stores a password rehashed at login because {@code auth.bcrypt.strength}
+     * changed. Called by Spring Security after a successful login.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.findByUsername(user.getUsername()).ifPresent(stored -> {
+            stored.setPassword(newPassword);
+            userRepository.save(stored);
+            logger.debug("Rehashed password for {}", stored.getUsername());
+        });
+        evictPrincipal(user.getUsername());
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
+
+    // Unknown usernames return null, which Caffeine does not cache
+    private Principal findPrincipal(String username) {
+        return userRepository.findCredentialsByUsername(username)
+                .map(user -> new Principal(user.getUsername(), user.getPassword()))
+                .orElse(null);
+    }
 }
\ No newline at end of file
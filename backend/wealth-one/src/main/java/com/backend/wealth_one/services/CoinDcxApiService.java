@@ -0,0 +1,96 @@
+package com.backend.wealth_one.services;
+
+import com.backend.wealth_one.cache.LastKnownGood;
+import com.backend.wealth_one.cache.LastKnownGoodRegistry;
+import com.backend.wealth_one.clients.Provider;
+import com.backend.wealth_one.clients.ProviderHttpClients;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Signed calls to the CoinDCX exchange API, shared by the CoinDCX endpoints
+ * and anything else that needs exchange data.
+ */
+@Service
+public class CoinDcxApiService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoinDcxApiService.class);
+
+    @Value("${coindcx.api.baseUrl}")
+    private String baseUrl;
+
+    private final CoinDcxAuthService authService;
+    private final ProviderHttpClients providerHttpClients;
+    private final RestTemplate restTemplate;
+    private final LastKnownGood<String, ResponseEntity<String>> lastKnownGood;
+
+    public CoinDcxApiService(CoinDcxAuthService authService, ProviderHttpClients providerHttpClients,
+                             LastKnownGoodRegistry lastKnownGoodRegistry) {
+        this.authService = authService;
+        this.providerHttpClients = providerHttpClients;
+        this.restTemplate = providerHttpClients.restTemplate(Provider.COINDCX);
+        this.lastKnownGood = lastKnownGoodRegistry.create("coindcx");
+    }
+
+    /**
+     * {@link #exchange} for read-only endpoints. While CoinDCX is unavailable the
+     * last successful response for the same request is returned instead, with a
+     * {@code Warning: 110} and an {@code Age} header. Never use it for calls
+     * with side effects.
+     */
+    public ResponseEntity<String> exchangeOrLastKnown(String userId, String endpoint, HttpMethod method,
+                                                      Map<String, Object> body) {
+        String key = userId + " " + method + " " + endpoint + " " + (body != null ? new TreeMap<>(body) : "");
+        return lastKnownGood.call(key, () -> exchange(userId, endpoint, method, body), CoinDcxApiService::markStale);
+    }
+
+    private static ResponseEntity<String> markStale(ResponseEntity<String> response, Instant fetchedAt) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(HttpHeaders.WARNING, "110 - \"Response is Stale\"")
+                .header(HttpHeaders.AGE, String.valueOf(Duration.between(fetchedAt, Instant.now()).toSeconds()))
+                .body(response.getBody());
+    }
+
+    /**
+     * Sends a request signed with {@code userId}'s key pair. HTTP errors surface
+     * as the usual {@link org.springframework.web.client.RestClientException} subclasses.
+     */
+    public ResponseEntity<String> exchange(String userId, String endpoint, HttpMethod method, Map<String, Object> body) {
+        CoinDcxAuthService.SignedRequest request = authService.sign(userId, body);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Payload: {}", new String(request.body(), StandardCharsets.UTF_8));
+        }
+
+        // The signed bytes go out unchanged; a byte[] body is not re-serialized
+        return restTemplate.exchange(
+                baseUrl + endpoint,
+                method,
+                new HttpEntity<>(request.body(), request.headers()),
+                String.class
+        );
+    }
+
+    /**
+     * {@link #exchange} with the response body left unread, for endpoints that
+     * pass it on unchanged. The caller closes the response.
+     */
+    public ClientHttpResponse open(String userId, String endpoint, HttpMethod method, Map<String, Object> body) {
+        CoinDcxAuthService.SignedRequest request = authService.sign(userId, body);
+        return providerHttpClients.open(Provider.COINDCX, method, baseUrl + endpoint, request.headers(), request.body());
+    }
+}
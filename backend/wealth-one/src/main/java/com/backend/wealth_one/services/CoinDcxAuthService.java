@@ -1,58 +1,106 @@
 package com.backend.wealth_one.services;
 
-import org.json.JSONObject;
+import com.backend.wealth_one.repositories.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
 
+/**
+ * Signs CoinDCX requests with the calling user's own API key pair. Signers are
+ * cached per user, so the key pair is read from MongoDB once per cache period
+ * and the initialised {@code Mac} instances are reused across requests.
+ *
+ * <p>The payload is serialized once. The signature is computed over those bytes
+ * and the same bytes are sent as the body, so the two can never disagree.
+ */
 @Service
 public class CoinDcxAuthService {
 
-    @Value("${coindcx.api.key}")
-    private String apiKey;
+    /**
+     * A signed CoinDCX request. Send {@code body} exactly as it is; it is what
+     * the signature covers.
+     */
+    public record SignedRequest(byte[] body, HttpHeaders headers) {
+    }
 
-    @Value("${coindcx.api.secret}")
-    private String secretKey;
+    // Idle Mac instances kept per signer; roughly the peak concurrency for one user
+    @Value("${coindcx.signer.pool-size:16}")
+    private int signerPoolSize;
 
-    public HttpHeaders generateAuthHeaders(Map<String, Object> requestBody) {
-        try {
-            // Calculate signature
-            String payload = new JSONObject(requestBody).toString();
-            String signature = generateHmacSHA256Signature(payload, secretKey);
-
-            // Set headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("X-AUTH-APIKEY", apiKey);
-            headers.set("X-AUTH-SIGNATURE", signature);
-            headers.set("Content-Type", "application/json");
-
-            return headers;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to generate authentication headers: " + e.getMessage(), e);
-        }
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    // Users without a key pair are cached as empty so they do not hit Mongo on every call
+    private final Cache<String, Optional<CoinDcxSigner>> signers;
+
+    public CoinDcxAuthService(UserRepository userRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${coindcx.credentials.cache-ttl-ms:300000}") long cacheTtlMs,
+                              @Value("${coindcx.credentials.cache-size:10000}") long cacheSize) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.signers = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .build();
     }
 
-    private String generateHmacSHA256Signature(String data, String secret) throws Exception {
+    /**
+     * Builds the request payload (a fresh {@code timestamp} plus {@code body}),
+     * serializes it and signs it with {@code userId}'s key pair.
+     */
+    public SignedRequest sign(String userId, Map<String, Object> body) {
+        CoinDcxSigner signer = signerFor(userId);
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("timestamp", System.currentTimeMillis());
+        if (body != null) {
+            payload.putAll(body);
+        }
+
+        byte[] json;
         try {
-            Mac sha256_HMAC = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secret_key = new SecretKeySpec(secret.getBytes(), "HmacSHA256");
-            sha256_HMAC.init(secret_key);
-            byte[] hash = sha256_HMAC.doFinal(data.getBytes());
-            return bytesToHex(hash);
-        } catch (Exception e) {
-            throw new Exception("Error generating HMAC signature: " + e.getMessage(), e);
+            json = objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("CoinDCX payload could not be serialized", e);
         }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-AUTH-APIKEY", signer.apiKey());
+        headers.set("X-AUTH-SIGNATURE", signer.sign(json));
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        return new SignedRequest(json, headers);
     }
 
-    private String bytesToHex(byte[] bytes) {
-        StringBuilder result = new StringBuilder();
-        for (byte b : bytes) {
-            result.append(String.format("%02x", b));
-        }
-        return result.toString();
+    /**
+     * Drops the cached signer, e.g. after the user changed their key pair.
+     */
+    public void evictCredentials(String userId) {
+        signers.invalidate(userId);
+    }
+
+    private CoinDcxSigner signerFor(String userId) {
+        return signers.get(userId, this::loadSigner)
+                .orElseThrow(() -> new IllegalStateException("CoinDCX API credentials are not configured for " + userId));
+    }
+
+    private Optional<CoinDcxSigner> loadSigner(String userId) {
+        return userRepository.findCoinDcxKeysByUsername(userId)
+                .filter(user -> hasText(user.getCoindcxApiKey()) && hasText(user.getCoindcxApiSecret()))
+                .map(user -> new CoinDcxSigner(user.getCoindcxApiKey(), user.getCoindcxApiSecret(), signerPoolSize));
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package com.backend.wealth_one.services;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HMAC-SHA256 signer for one CoinDCX key pair.
+ *
+ * <p>A {@link Mac} is not thread-safe and is costly to look up and initialise,
+ * so initialised instances are pooled and borrowed for one signature each. A
+ * pool rather than a ThreadLocal, because provider calls run on virtual threads
+ * that are never reused.
+ */
+public class CoinDcxSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final String apiKey;
+    private final SecretKeySpec key;
+    private final int maxIdle;
+    private final Queue<Mac> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    public CoinDcxSigner(String apiKey, String apiSecret, int maxIdle) {
+        this.apiKey = apiKey;
+        this.key = new SecretKeySpec(apiSecret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.maxIdle = maxIdle;
+    }
+
+    public String apiKey() {
+        return apiKey;
+    }
+
+    /**
+     * Lower-case hex HMAC-SHA256 of {@code payload}.
+     */
+    public String sign(byte[] payload) {
+        Mac mac = borrow();
+        try {
+            // doFinal resets the Mac, so it can go straight back to the pool
+            return toHex(mac.doFinal(payload));
+        } finally {
+            release(mac);
+        }
+    }
+
+    public String sign(String payload) {
+        return sign(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String toHex(byte[] bytes) {
+        byte[] out = new byte[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xff;
+            out[i * 2] = HEX[b >>> 4];
+            out[i * 2 + 1] = HEX[b & 0x0f];
+        }
+        // ASCII output, so the string keeps the compact one-byte-per-char form
+        return new String(out, StandardCharsets.ISO_8859_1);
+    }
+
+    private Mac borrow() {
+        Mac mac = idle.poll();
+        if (mac != null) {
+            idleCount.decrementAndGet();
+            return mac;
+        }
+        try {
+            Mac created = Mac.getInstance(ALGORITHM);
+            created.init(key);
+            return created;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Error generating HMAC signature: " + e.getMessage(), e);
+        }
+    }
+
+    private void release(Mac mac) {
+        // Extra instances from a burst are dropped rather than kept forever
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offer(mac);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+}
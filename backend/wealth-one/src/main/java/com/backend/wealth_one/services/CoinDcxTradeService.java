@@ -0,0 +1,351 @@
+package com.backend.wealth_one.services;
+
+import com.backend.wealth_one.clients.ProviderUnavailableException;
+import com.backend.wealth_one.clients.RequestPriority;
+import com.backend.wealth_one.models.CoinDcxTrade;
+import com.backend.wealth_one.models.CoinDcxTradeSync;
+import com.backend.wealth_one.repositories.CoinDcxTradeRepository;
+import com.backend.wealth_one.repositories.CoinDcxTradeSyncRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps a local copy of each user's CoinDCX trade history. A sync only asks the
+ * exchange for trades after the newest stored one. History queries are answered
+ * from MongoDB.
+ *
+ * <p>Reads are recorded in {@code coindcx_trade_syncs}. The background sync
+ * covers only users who read their history within {@code idle-ms}, so it
+ * survives a restart and does not grow with every user who ever asked.
+ */
+@Service
+public class CoinDcxTradeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoinDcxTradeService.class);
+
+    private static final TypeReference<List<Map<String, Object>>> TRADES_TYPE = new TypeReference<>() {};
+
+    // Duplicate key; the trade is already stored
+    private static final int DUPLICATE_KEY = 11000;
+
+    // lastReadAt is written at most this often per user
+    private static final Duration READ_TRACKING = Duration.ofHours(1);
+
+    private final CoinDcxApiService coinDcxApiService;
+    private final CoinDcxTradeRepository tradeRepository;
+    private final CoinDcxTradeSyncRepository syncRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+
+    // CoinDCX returns at most 5000 trades per call
+    @Value("${coindcx.trades.sync-batch-size:5000}")
+    private int syncBatchSize;
+
+    @Value("${coindcx.trades.sync-interval-ms:60000}")
+    private long syncIntervalMs;
+
+    // Users who have not read their history for this long are left out of the background sync
+    private final long idleMs;
+
+    // Users synced per background run; the trade-history limiter allows about one call a second
+    @Value("${coindcx.trades.active-sync-batch-size:30}")
+    private int activeSyncBatchSize;
+
+    // Request-side view of the last sync; idle users fall out of it
+    private final Cache<String, Instant> lastSynced;
+    // Users whose lastReadAt was written recently, so reads do not turn into writes
+    private final Cache<String, Boolean> readRecorded;
+    private final ConcurrentMap<String, CompletableFuture<Integer>> syncsInFlight = new ConcurrentHashMap<>();
+
+    public CoinDcxTradeService(CoinDcxApiService coinDcxApiService,
+                               CoinDcxTradeRepository tradeRepository,
+                               CoinDcxTradeSyncRepository syncRepository,
+                               MongoTemplate mongoTemplate,
+                               ObjectMapper objectMapper,
+                               @Value("${coindcx.trades.idle-ms:86400000}") long idleMs) {
+        this.coinDcxApiService = coinDcxApiService;
+        this.tradeRepository = tradeRepository;
+        this.syncRepository = syncRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.idleMs = idleMs;
+        this.lastSynced = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMillis(idleMs))
+                .build();
+        this.readRecorded = Caffeine.newBuilder()
+                .expireAfterWrite(READ_TRACKING)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps(CoinDcxTrade.class);
+            MongoPersistentEntityIndexResolver resolver =
+                    new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+            resolver.resolveIndexFor(CoinDcxTrade.class).forEach(indexOps::ensureIndex);
+            IndexOperations syncIndexOps = mongoTemplate.indexOps(CoinDcxTradeSync.class);
+            resolver.resolveIndexFor(CoinDcxTradeSync.class).forEach(syncIndexOps::ensureIndex);
+        } catch (RuntimeException e) {
+            logger.warn("Could not create coindcx_trades indexes", e);
+        }
+    }
+
+    /**
+     * One page of stored trades, newest first, after syncing if the user's copy is
+     * older than the sync interval. {@code from} and {@code to} are epoch millis.
+     */
+    public Map<String, Object> getTrades(String userId, String symbol, Long from, Long to,
+                                         int page, int size, boolean refresh) {
+        markRead(userId);
+        Instant synced = lastSynced.getIfPresent(userId);
+        boolean stale = false;
+        if (refresh || synced == null || synced.plusMillis(syncIntervalMs).isBefore(Instant.now())) {
+            try {
+                sync(userId);
+            } catch (RuntimeException e) {
+                // The stored copy is the last known good history; only fail if there is none
+                if (synced == null || !ProviderUnavailableException.isCause(e)) {
+                    throw e;
+                }
+                logger.warn("CoinDCX unavailable, serving stored trades for {}: {}", userId, e.getMessage());
+                stale = true;
+            }
+        }
+
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (symbol != null && !symbol.isBlank()) {
+            criteria.and("symbol").is(symbol.trim().toUpperCase());
+        }
+        if (from != null || to != null) {
+            Criteria timestamp = criteria.and("timestamp");
+            if (from != null) {
+                timestamp.gte(from);
+            }
+            if (to != null) {
+                timestamp.lte(to);
+            }
+        }
+
+        // One extra row tells us whether another page exists without a count query
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "timestamp"))
+                .skip((long) page * size)
+                .limit(size + 1);
+        List<CoinDcxTrade> trades = mongoTemplate.find(query, CoinDcxTrade.class);
+        boolean hasMore = trades.size() > size;
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("trades", hasMore ? trades.subList(0, size) : trades);
+        response.put("page", page);
+        response.put("size", size);
+        response.put("hasMore", hasMore);
+        response.put("syncedAt", lastSynced.getIfPresent(userId));
+        response.put("stale", stale);
+        return response;
+    }
+
+    /**
+     * Pulls trades newer than the latest stored one and bulk-inserts them.
+     * Concurrent calls for the same user share one sync.
+     *
+     * @return number of trades added
+     */
+    public int sync(String userId) {
+        CompletableFuture<Integer> sync = new CompletableFuture<>();
+        CompletableFuture<Integer> running = syncsInFlight.putIfAbsent(userId, sync);
+        if (running != null) {
+            return running.join();
+        }
+
+        Instant attemptedAt = Instant.now();
+        try {
+            int added = pullNewTrades(userId);
+            Instant syncedAt = Instant.now();
+            lastSynced.put(userId, syncedAt);
+            recordSync(userId, Update.update("attemptedAt", attemptedAt).set("syncedAt", syncedAt));
+            sync.complete(added);
+            return added;
+        } catch (RuntimeException e) {
+            // Still counts as an attempt, so a failing user does not hold up the others
+            recordSync(userId, Update.update("attemptedAt", attemptedAt));
+            sync.completeExceptionally(e);
+            throw e;
+        } finally {
+            syncsInFlight.remove(userId, sync);
+        }
+    }
+
+    // Keeps the local copies of users who read them within idle-ms current between
+    // requests, least recently attempted first
+    @Scheduled(fixedDelayString = "${coindcx.trades.sync-interval-ms:60000}",
+               initialDelayString = "${coindcx.trades.sync-interval-ms:60000}")
+    public void syncActiveUsers() {
+        Instant now = Instant.now();
+        List<CoinDcxTradeSync> due;
+        try {
+            due = syncRepository.findByLastReadAtAfterAndAttemptedAtBefore(now.minusMillis(idleMs),
+                    now.minusMillis(syncIntervalMs), PageRequest.of(0, activeSyncBatchSize, Sort.by("attemptedAt")));
+        } catch (DataAccessException e) {
+            logger.warn("Could not list CoinDCX trade syncs: {}", e.getMessage());
+            return;
+        }
+        for (CoinDcxTradeSync state : due) {
+            try {
+                RequestPriority.runAs(RequestPriority.BACKGROUND, () -> sync(state.getId()));
+            } catch (RuntimeException e) {
+                logger.warn("CoinDCX trade sync failed for {}", state.getId(), e);
+            }
+        }
+    }
+
+    private void markRead(String userId) {
+        if (readRecorded.getIfPresent(userId) != null) {
+            return;
+        }
+        try {
+            recordSyncState(userId, Update.update("lastReadAt", Instant.now()));
+            readRecorded.put(userId, Boolean.TRUE);
+        } catch (DataAccessException e) {
+            logger.debug("Could not record trade history read for {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private void recordSync(String userId, Update update) {
+        try {
+            recordSyncState(userId, update);
+        } catch (DataAccessException e) {
+            logger.debug("Could not record CoinDCX trade sync for {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private void recordSyncState(String userId, Update update) {
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(userId)), update, CoinDcxTradeSync.class);
+    }
+
+    private int pullNewTrades(String userId) {
+        Optional<CoinDcxTrade> latest = tradeRepository.findFirstByUserIdOrderByTimestampDesc(userId);
+        Object fromId = latest.map(trade -> tradeIdParam(trade.getTradeId())).orElse(null);
+
+        int added = 0;
+        while (true) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("sort", "asc");
+            body.put("limit", syncBatchSize);
+            if (fromId != null) {
+                body.put("from_id", fromId);
+            }
+
+            List<Map<String, Object>> batch = parseTrades(
+                    coinDcxApiService.exchange(userId, "/exchange/v1/orders/trade_history", HttpMethod.POST, body).getBody());
+            if (batch.isEmpty()) {
+                return added;
+            }
+
+            added += insert(userId, batch);
+            if (batch.size() < syncBatchSize) {
+                return added;
+            }
+            fromId = batch.get(batch.size() - 1).get("id");
+        }
+    }
+
+    private int insert(String userId, List<Map<String, Object>> batch) {
+        List<CoinDcxTrade> trades = new ArrayList<>(batch.size());
+        for (Map<String, Object> raw : batch) {
+            trades.add(toTrade(userId, raw));
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CoinDcxTrade.class);
+        bulk.insert(trades);
+        try {
+            return bulk.execute().getInsertedCount();
+        } catch (BulkOperationException e) {
+            // Overlap with an earlier sync only produces duplicate keys; anything else is real
+            boolean onlyDuplicates = e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY);
+            if (!onlyDuplicates) {
+                throw e;
+            }
+            return e.getResult().getInsertedCount();
+        }
+    }
+
+    private List<Map<String, Object>> parseTrades(String json) {
+        if (json == null || json.isBlank()) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(json, TRADES_TYPE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unexpected CoinDCX trade history response", e);
+        }
+    }
+
+    private static CoinDcxTrade toTrade(String userId, Map<String, Object> raw) {
+        CoinDcxTrade trade = new CoinDcxTrade();
+        String tradeId = String.valueOf(raw.get("id"));
+        trade.setId(userId + ":" + tradeId);
+        trade.setUserId(userId);
+        trade.setTradeId(tradeId);
+        trade.setOrderId(raw.get("order_id") != null ? String.valueOf(raw.get("order_id")) : null);
+        trade.setSymbol(raw.get("symbol") != null ? String.valueOf(raw.get("symbol")).toUpperCase() : null);
+        trade.setSide((String) raw.get("side"));
+        trade.setPrice(toDouble(raw.get("price")));
+        trade.setQuantity(toDouble(raw.get("quantity")));
+        trade.setFeeAmount(toDouble(raw.get("fee_amount")));
+        trade.setEcode(raw.get("ecode") != null ? String.valueOf(raw.get("ecode")) : null);
+        trade.setTimestamp(raw.get("timestamp") instanceof Number ts ? (long) Math.floor(ts.doubleValue()) : null);
+        return trade;
+    }
+
+    private static Double toDouble(Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        return value != null ? Double.valueOf(value.toString()) : null;
+    }
+
+    // CoinDCX ids are numeric; send them back the way they came
+    private static Object tradeIdParam(String tradeId) {
+        try {
+            return Long.parseLong(tradeId);
+        } catch (NumberFormatException e) {
+            return tradeId;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.backend.wealth_one.services;
+
+import com.backend.wealth_one.cache.LastKnownGood;
+import com.backend.wealth_one.cache.LastKnownGoodRegistry;
+import com.backend.wealth_one.cache.QuoteCache;
+import com.backend.wealth_one.cache.QuoteCacheRegistry;
+import com.backend.wealth_one.cache.QuoteKey;
+import com.backend.wealth_one.clients.Provider;
+import com.backend.wealth_one.clients.ProviderHttpClients;
+import com.backend.wealth_one.clients.ProviderUnavailableException;
+import com.backend.wealth_one.clients.ProviderWebClients;
+import com.backend.wealth_one.configs.ExecutorConfig;
+import com.backend.wealth_one.models.providers.CmcQuotes;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+@Service
+public class CoinMarketCapService {
+
+    @Value("${coinmarketcap.api.key}")
+    private String cmcApiKey;
+
+    // Overridden to point at a local stand-in for load tests
+    @Value("${coinmarketcap.api.baseUrl:https://pro-api.coinmarketcap.com}")
+    private String cmcBaseUrl;
+
+    private final RestTemplate restTemplate;
+    // Only present when provider.client.mode=reactive
+    private final WebClient webClient;
+    private final Executor executor;
+    private final QuoteCache<CmcQuotes.Quote> quoteCache;
+    // Answers for symbols whose upstream call fails while the provider is down
+    private final LastKnownGood<QuoteKey, CmcQuotes.Quote> lastKnownGood;
+    private final PriceHistoryService priceHistoryService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CoinMarketCapService(ProviderHttpClients providerHttpClients,
+                                ObjectProvider<ProviderWebClients> providerWebClients,
+                                QuoteCacheRegistry quoteCacheRegistry,
+                                LastKnownGoodRegistry lastKnownGoodRegistry,
+                                PriceHistoryService priceHistoryService,
+                                ApplicationEventPublisher eventPublisher,
+                                @Qualifier(ExecutorConfig.QUOTE_LOADER_EXECUTOR) Executor executor) {
+        this.restTemplate = providerHttpClients.restTemplate(Provider.COINMARKETCAP);
+        ProviderWebClients webClients = providerWebClients.getIfAvailable();
+        this.webClient = webClients != null ? webClients.webClient(Provider.COINMARKETCAP) : null;
+        this.executor = executor;
+        this.priceHistoryService = priceHistoryService;
+        this.eventPublisher = eventPublisher;
+        this.quoteCache = quoteCacheRegistry.create("crypto",
+                Duration.ofMillis(providerHttpClients.settings(Provider.COINMARKETCAP).readTimeoutMs()), this::loadQuotes);
+        this.lastKnownGood = lastKnownGoodRegistry.create("crypto");
+    }
+
+    /**
+     * Waits at most the provider read timeout; past that, symbols are answered
+     * from their last known good quote, marked stale, and the rest are left out.
+     */
+    public Map<String, Object> getLatestQuotes(String symbol, String convert) {
+        try {
+            return QuoteCache.join(getLatestQuotesAsync(symbol, convert), quoteCache.getMaxWait());
+        } catch (ProviderUnavailableException ex) {
+            Map<QuoteKey, CmcQuotes.Quote> stale = new LinkedHashMap<>();
+            for (QuoteKey key : keys(symbol, convert)) {
+                lastKnownGood.fallback(key, ex, CmcQuotes.Quote::markStale).ifPresent(quote -> stale.put(key, quote));
+            }
+            if (stale.isEmpty()) {
+                throw ex;
+            }
+            return toResponse(keys(symbol, convert), stale);
+        }
+    }
+
+    /**
+     * Quotes for a comma-separated symbol list, answered from the quote cache
+     * where possible. The response keeps CMC's {@code {status, data}} shape,
+     * with {@code data} keyed by symbol.
+     */
+    public CompletableFuture<Map<String, Object>> getLatestQuotesAsync(String symbol, String convert) {
+        Set<QuoteKey> keys = keys(symbol, convert);
+        return quoteCache.getAllAsync(keys).thenApply(quotes -> toResponse(keys, quotes));
+    }
+
+    private static Set<QuoteKey> keys(String symbol, String convert) {
+        Set<QuoteKey> keys = new LinkedHashSet<>();
+        for (String s : symbol.split(",")) {
+            if (!s.isBlank()) {
+                keys.add(QuoteKey.of(s, convert));
+            }
+        }
+        return keys;
+    }
+
+    private static Map<String, Object> toResponse(Set<QuoteKey> keys, Map<QuoteKey, CmcQuotes.Quote> quotes) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        for (QuoteKey key : keys) {
+            CmcQuotes.Quote quote = quotes.get(key);
+            if (quote != null) {
+                data.put(key.symbol(), quote);
+            }
+        }
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("timestamp", Instant.now().toString());
+        status.put("error_code", 0);
+        status.put("error_message", null);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", status);
+        response.put("data", data);
+        return response;
+    }
+
+    /**
+     * Raw bytes of the full cryptocurrency map. The payload is several megabytes,
+     * so it is kept unparsed and cached by {@link CryptoMapSnapshotService}.
+     */
+    public byte[] fetchMap() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Accept", "application/json");
+        headers.set("X-CMC_PRO_API_KEY", cmcApiKey);
+
+        ResponseEntity<byte[]> response = restTemplate.exchange(
+                buildUri("/v1/cryptocurrency/map", null),
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                byte[].class
+        );
+
+        byte[] body = response.getBody();
+        return body != null ? body : new byte[0];
+    }
+
+    // One upstream call per convert currency for every missed symbol
+    private CompletableFuture<Map<QuoteKey, CmcQuotes.Quote>> loadQuotes(Set<QuoteKey> keys) {
+        Map<String, List<String>> symbolsByConvert = new LinkedHashMap<>();
+        for (QuoteKey key : keys) {
+            symbolsByConvert.computeIfAbsent(key.convert(), c -> new ArrayList<>()).add(key.symbol());
+        }
+
+        List<CompletableFuture<Map<QuoteKey, CmcQuotes.Quote>>> batches = new ArrayList<>();
+        symbolsByConvert.forEach((convert, symbols) -> {
+            Map<String, String> params = new HashMap<>();
+            params.put("symbol", String.join(",", symbols));
+            params.put("convert", convert);
+
+            batches.add(callCmcApiAsync("/v1/cryptocurrency/quotes/latest", params).handle((response, error) -> {
+                Map<QuoteKey, CmcQuotes.Quote> quotes = new HashMap<>();
+                if (error != null) {
+                    // While CMC is down, symbols seen before are answered stale
+                    for (String symbol : symbols) {
+                        QuoteKey key = QuoteKey.of(symbol, convert);
+                        lastKnownGood.fallback(key, error, CmcQuotes.Quote::markStale)
+                                .ifPresent(quote -> quotes.put(key, quote));
+                    }
+                    if (quotes.isEmpty()) {
+                        throw error instanceof CompletionException e ? e : new CompletionException(error);
+                    }
+                    return quotes;
+                }
+                if (response.getData() != null) {
+                    response.getData().forEach((symbol, quote) -> {
+                        QuoteKey key = QuoteKey.of(symbol, convert);
+                        quotes.put(key, lastKnownGood.remember(key, quote));
+                        recordPrice(symbol, convert, quote);
+                    });
+                }
+                return quotes;
+            }));
+        });
+
+        return CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    Map<QuoteKey, CmcQuotes.Quote> quotes = new HashMap<>();
+                    batches.forEach(batch -> quotes.putAll(batch.join()));
+                    return quotes;
+                });
+    }
+
+    private void recordPrice(String symbol, String convert, CmcQuotes.Quote quote) {
+        Double price = quote.price(convert);
+        if (price != null) {
+            priceHistoryService.record(symbol, convert, "crypto", price);
+            eventPublisher.publishEvent(new PriceUpdatedEvent("crypto", symbol, convert, price));
+        }
+    }
+
+    private CompletableFuture<CmcQuotes> callCmcApiAsync(String endpoint, Map<String, String> params) {
+        if (webClient == null) {
+            return CompletableFuture.supplyAsync(() -> callCmcApi(HttpMethod.GET, endpoint, params), executor);
+        }
+
+        return webClient.get()
+                .uri(buildUri(endpoint, params))
+                .accept(MediaType.APPLICATION_JSON)
+                .header("X-CMC_PRO_API_KEY", cmcApiKey)
+                .retrieve()
+                .bodyToMono(CmcQuotes.class)
+                .defaultIfEmpty(new CmcQuotes())
+                .toFuture();
+    }
+
+    private CmcQuotes callCmcApi(HttpMethod method, String endpoint, Map<String, String> params) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Accept", "application/json");
+        headers.set("X-CMC_PRO_API_KEY", cmcApiKey);
+
+        HttpEntity<?> entity = new HttpEntity<>(headers);
+
+        // Parsed straight into the typed model; unmapped fields are skipped, not built
+        ResponseEntity<CmcQuotes> response = restTemplate.exchange(
+                buildUri(endpoint, params),
+                method,
+                entity,
+                CmcQuotes.class
+        );
+
+        CmcQuotes responseBody = response.getBody();
+        return responseBody != null ? responseBody : new CmcQuotes();
+    }
+
+    private String buildUri(String endpoint, Map<String, String> params) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString(cmcBaseUrl + endpoint);
+
+        if (params != null && !params.isEmpty()) {
+            params.forEach(uriBuilder::queryParam);
+        }
+        return uriBuilder.toUriString();
+    }
+}
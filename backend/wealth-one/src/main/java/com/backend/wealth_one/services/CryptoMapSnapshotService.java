@@ -0,0 +1,169 @@
+package com.backend.wealth_one.services;
+
+import com.backend.wealth_one.clients.RequestPriority;
+import com.backend.wealth_one.configs.ExecutorConfig;
+import com.backend.wealth_one.models.CryptoMapSnapshot;
+import com.backend.wealth_one.repositories.CryptoMapSnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves the CoinMarketCap cryptocurrency map from a gzipped in-memory snapshot.
+ * The snapshot is refreshed on a schedule and persisted, so a restart serves the
+ * stored copy instead of calling CoinMarketCap.
+ */
+@Service
+public class CryptoMapSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CryptoMapSnapshotService.class);
+
+    public record Snapshot(byte[] gzipBody, String etag, long rawSize, Instant fetchedAt) {
+        public byte[] body() {
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipBody))) {
+                return in.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private final CoinMarketCapService coinMarketCapService;
+    private final CryptoMapSnapshotRepository snapshotRepository;
+    private final Executor executor;
+    private final Duration refreshInterval;
+    // Keeps a cold start from sending several concurrent multi-megabyte fetches upstream
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile Snapshot current;
+
+    public CryptoMapSnapshotService(CoinMarketCapService coinMarketCapService,
+                                    CryptoMapSnapshotRepository snapshotRepository,
+                                    @Qualifier(ExecutorConfig.PROVIDER_EXECUTOR) Executor executor,
+                                    @Value("${crypto.map.refresh-ms:3600000}") long refreshMs) {
+        this.coinMarketCapService = coinMarketCapService;
+        this.snapshotRepository = snapshotRepository;
+        this.executor = executor;
+        this.refreshInterval = Duration.ofMillis(refreshMs);
+    }
+
+    /**
+     * Current snapshot, fetching one first if nothing has been loaded yet.
+     */
+    public Snapshot getSnapshot() {
+        Snapshot snapshot = current;
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        refreshLock.lock();
+        try {
+            if (current == null) {
+                refresh();
+            }
+            return current;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadStoredSnapshot() {
+        executor.execute(() -> {
+            try {
+                snapshotRepository.findById(CryptoMapSnapshot.LATEST).ifPresent(stored -> {
+                    if (current == null) {
+                        current = new Snapshot(stored.getGzipBody(), stored.getEtag(),
+                                stored.getRawSize(), stored.getFetchedAt());
+                    }
+                });
+            } catch (RuntimeException e) {
+                logger.warn("Could not load stored crypto map snapshot", e);
+            }
+
+            Snapshot snapshot = current;
+            if (snapshot == null || snapshot.fetchedAt().plus(refreshInterval).isBefore(Instant.now())) {
+                scheduledRefresh();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${crypto.map.refresh-ms:3600000}",
+               initialDelayString = "${crypto.map.refresh-ms:3600000}")
+    public void scheduledRefresh() {
+        refreshLock.lock();
+        try {
+            RequestPriority.runAs(RequestPriority.BACKGROUND, this::refresh);
+        } catch (RuntimeException e) {
+            // Keep serving the previous snapshot until the next attempt
+            logger.warn("Crypto map refresh failed", e);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void refresh() {
+        byte[] raw = coinMarketCapService.fetchMap();
+        String etag = etag(raw);
+
+        Snapshot previous = current;
+        if (previous != null && previous.etag().equals(etag)) {
+            current = new Snapshot(previous.gzipBody(), etag, previous.rawSize(), Instant.now());
+        } else {
+            current = new Snapshot(gzip(raw), etag, raw.length, Instant.now());
+        }
+        persist(current);
+    }
+
+    private void persist(Snapshot snapshot) {
+        CryptoMapSnapshot stored = new CryptoMapSnapshot();
+        stored.setId(CryptoMapSnapshot.LATEST);
+        stored.setGzipBody(snapshot.gzipBody());
+        stored.setEtag(snapshot.etag());
+        stored.setRawSize(snapshot.rawSize());
+        stored.setFetchedAt(snapshot.fetchedAt());
+        try {
+            snapshotRepository.save(stored);
+        } catch (RuntimeException e) {
+            logger.warn("Could not persist crypto map snapshot", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String etag(byte[] raw) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(raw);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.backend.wealth_one.services;
+
+import com.backend.wealth_one.clients.RequestPriority;
+import com.backend.wealth_one.models.providers.CmcQuotes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Shared live price feeds. Each distinct symbol has at most one poller, however
+ * many clients watch it. The poller starts with the first subscriber and stops
+ * shortly after the last one leaves. Polls go through the quote caches, and
+ * only price changes are emitted.
+ */
+@Service
+public class LivePriceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LivePriceService.class);
+
+    public static final String CRYPTO = "crypto";
+    public static final String STOCK = "stock";
+
+    private static final String STOCK_CURRENCY = "INR";
+
+    public record PriceUpdate(String type, String symbol, String currency, double price, Instant time) {}
+
+    private final CoinMarketCapService coinMarketCapService;
+    private final StockService stockService;
+    private final Duration pollInterval;
+    private final Duration idleGrace;
+
+    private final ConcurrentMap<String, Flux<PriceUpdate>> feeds = new ConcurrentHashMap<>();
+
+    public LivePriceService(CoinMarketCapService coinMarketCapService,
+                            StockService stockService,
+                            @Value("${live.prices.poll-ms:5000}") long pollMs,
+                            @Value("${live.prices.idle-grace-ms:10000}") long idleGraceMs) {
+        this.coinMarketCapService = coinMarketCapService;
+        this.stockService = stockService;
+        this.pollInterval = Duration.ofMillis(pollMs);
+        this.idleGrace = Duration.ofMillis(idleGraceMs);
+    }
+
+    public Flux<PriceUpdate> crypto(String symbol, String convert) {
+        String ticker = symbol.trim().toUpperCase();
+        String currency = convert.trim().toUpperCase();
+        return feed(CRYPTO + ":" + ticker + ":" + currency,
+                () -> coinMarketCapService.getLatestQuotesAsync(ticker, currency)
+                        .thenApply(response -> cryptoPrice(response, ticker, currency)),
+                CRYPTO, ticker, currency);
+    }
+
+    public Flux<PriceUpdate> stock(String symbol) {
+        String ticker = symbol.trim().toUpperCase();
+        return feed(STOCK + ":" + ticker,
+                () -> stockService.getStockPriceAsync(ticker).thenApply(LivePriceService::stockPrice),
+                STOCK, ticker, STOCK_CURRENCY);
+    }
+
+    /** Number of symbols currently being polled. */
+    public int activeFeeds() {
+        return feeds.size();
+    }
+
+    private Flux<PriceUpdate> feed(String key, PriceLookup lookup, String type, String symbol, String currency) {
+        return feeds.computeIfAbsent(key, k -> newFeed(k, lookup, type, symbol, currency));
+    }
+
+    /*
+     * A caller can take the feed from the map just as it goes idle, and subscribe
+     * after refCount has cancelled the poller and the entry is gone. refCount then
+     * connects again. Each connection therefore claims the map entry under the
+     * map's lock: if another feed has taken over the symbol it follows that one
+     * instead of polling, and only the latest connection may remove the entry.
+     */
+    private Flux<PriceUpdate> newFeed(String key, PriceLookup lookup, String type, String symbol, String currency) {
+        AtomicReference<Flux<PriceUpdate>> self = new AtomicReference<>();
+        AtomicLong connections = new AtomicLong();
+        Flux<PriceUpdate> prices = Flux.interval(Duration.ZERO, pollInterval)
+                // A slow poll skips ticks instead of queueing them up
+                .onBackpressureDrop()
+                // Polls are shared and periodic, so they yield to direct user requests
+                .concatMap(tick -> Mono.fromFuture(() -> RequestPriority.callAs(RequestPriority.BACKGROUND, lookup::fetch))
+                        .onErrorResume(e -> {
+                            logger.debug("Live price poll for {} failed: {}", key, e.getMessage());
+                            return Mono.empty();
+                        }), 1)
+                .distinctUntilChanged()
+                .map(price -> new PriceUpdate(type, symbol, currency, price, Instant.now()));
+        Flux<PriceUpdate> feed = Flux.defer(() -> {
+                    long[] connection = new long[1];
+                    Flux<PriceUpdate> current = feeds.compute(key, (k, existing) -> {
+                        if (existing != null && existing != self.get()) {
+                            return existing;
+                        }
+                        connection[0] = connections.incrementAndGet();
+                        return self.get();
+                    });
+                    if (current != self.get()) {
+                        return current;
+                    }
+                    return prices.doFinally(signal -> feeds.computeIfPresent(key, (k, existing) ->
+                            existing == self.get() && connections.get() == connection[0] ? null : existing));
+                })
+                // New subscribers get the last price straight away
+                .replay(1)
+                .refCount(1, idleGrace);
+        self.set(feed);
+        return feed;
+    }
+
+    @FunctionalInterface
+    private interface PriceLookup {
+        // Completes with null when the response has no usable price
+        CompletableFuture<Double> fetch();
+    }
+
+    // data.<SYMBOL>.quote.<CONVERT>.price
+    private static Double cryptoPrice(Map<String, Object> response, String symbol, String convert) {
+        if (response.get("data") instanceof Map<?, ?> data && data.get(symbol) instanceof CmcQuotes.Quote quote) {
+            return quote.price(convert);
+        }
+        return null;
+    }
+
+    // currentPrice is either a number or per exchange, e.g. {"NSE": .., "BSE": ..}
+    private static Double stockPrice(Object response) {
+        if (!(response instanceof Map<?, ?> stock)) {
+            return null;
+        }
+        Object currentPrice = stock.get("currentPrice");
+        if (currentPrice instanceof Map<?, ?> byExchange) {
+            currentPrice = byExchange.get("NSE") != null ? byExchange.get("NSE") : byExchange.get("BSE");
+        }
+        if (currentPrice instanceof Number number) {
+            return number.doubleValue();
+        }
+        try {
+            return currentPrice != null ? Double.valueOf(currentPrice.toString()) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.backend.wealth_one.services;
+
+import com.backend.wealth_one.configs.ExecutorConfig;
+import com.backend.wealth_one.models.PortfolioSummary;
+import com.backend.wealth_one.models.PortfolioSummary.Position;
+import com.backend.wealth_one.models.PortfolioSummary.SourceStatus;
+import com.backend.wealth_one.models.providers.CmcQuotes;
+import com.backend.wealth_one.models.providers.CoinDcxBalance;
+import com.backend.wealth_one.models.providers.UpstoxFunds;
+import com.backend.wealth_one.models.providers.UpstoxHoldings;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Builds the portfolio summary by calling CoinDCX, Upstox, CoinMarketCap and
+ * the stock API concurrently. Every source shares one deadline measured from
+ * the start of the request, so a slow provider turns into a partial result
+ * instead of delaying the whole response.
+ */
+@Service
+public class PortfolioService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioService.class);
+
+    // Source names in PortfolioSummary.sources
+    static final String COINDCX_BALANCES = "coindcxBalances";
+    static final String CRYPTO_PRICES = "cryptoPrices";
+    static final String UPSTOX_HOLDINGS = "upstoxHoldings";
+    static final String UPSTOX_FUNDS = "upstoxFunds";
+    static final String STOCK_PRICES = "stockPrices";
+
+    private static final String INR = "INR";
+
+    private final CoinDcxApiService coinDcxApiService;
+    private final CoinMarketCapService coinMarketCapService;
+    private final UpstoxAuthService upstoxAuthService;
+    private final StockService stockService;
+    private final Executor executor;
+    private final ObjectMapper objectMapper;
+
+    @Value("${portfolio.source-timeout-ms:3000}")
+    private long sourceTimeoutMs;
+
+    public PortfolioService(CoinDcxApiService coinDcxApiService,
+                            CoinMarketCapService coinMarketCapService,
+                            UpstoxAuthService upstoxAuthService,
+                            StockService stockService,
+                            @Qualifier(ExecutorConfig.PROVIDER_EXECUTOR) Executor executor,
+                            ObjectMapper objectMapper) {
+        this.coinDcxApiService = coinDcxApiService;
+        this.coinMarketCapService = coinMarketCapService;
+        this.upstoxAuthService = upstoxAuthService;
+        this.stockService = stockService;
+        this.executor = executor;
+        this.objectMapper = objectMapper;
+    }
+
+    public PortfolioSummary getSummary(String userId) {
+        long startNanos = System.nanoTime();
+        // Filled from executor threads as each source completes
+        Map<String, SourceStatus> sources = new ConcurrentHashMap<>();
+
+        // Crypto: balances first, then one batched quote lookup for every coin held
+        CompletableFuture<List<CoinDcxBalance>> balances = track(sources, COINDCX_BALANCES, startNanos,
+                CompletableFuture.supplyAsync(() -> fetchCoinDcxBalances(userId), executor));
+        CompletableFuture<Map<String, BigDecimal>> cryptoPrices = track(sources, CRYPTO_PRICES, startNanos,
+                balances.thenCompose(this::fetchCryptoPrices));
+
+        // Equity: holdings first, then one batched price lookup for every holding.
+        // The price lookups are composed, not run on the executor, so no pool thread waits on the quote cache
+        CompletableFuture<List<UpstoxHoldings.Holding>> holdings = track(sources, UPSTOX_HOLDINGS, startNanos,
+                CompletableFuture.supplyAsync(() -> fetchUpstoxHoldings(userId), executor));
+        CompletableFuture<Map<String, BigDecimal>> stockPrices = track(sources, STOCK_PRICES, startNanos,
+                holdings.thenCompose(this::fetchStockPrices));
+
+        CompletableFuture<UpstoxFunds> funds = track(sources, UPSTOX_FUNDS, startNanos,
+                CompletableFuture.supplyAsync(() -> fetchUpstoxFunds(userId), executor));
+
+        // Every tracked future completes, normally or exceptionally, by the deadline
+        CompletableFuture.allOf(balances, cryptoPrices, holdings, stockPrices, funds)
+                .exceptionally(e -> null)
+                .join();
+
+        PortfolioSummary summary = new PortfolioSummary();
+        valueCrypto(summary, valueOrNull(balances), valueOrNull(cryptoPrices));
+        valueEquity(summary, valueOrNull(holdings), valueOrNull(stockPrices));
+        valueFunds(summary, valueOrNull(funds));
+
+        for (String source : List.of(COINDCX_BALANCES, CRYPTO_PRICES, UPSTOX_HOLDINGS, STOCK_PRICES, UPSTOX_FUNDS)) {
+            summary.getSources().put(source, sources.get(source));
+        }
+        summary.updateTotals();
+        summary.setGeneratedAt(Instant.now());
+        return summary;
+    }
+
+    private <T> CompletableFuture<T> track(Map<String, SourceStatus> sources, String name, long startNanos,
+                                           CompletableFuture<T> future) {
+        long remainingNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(sourceTimeoutMs) - System.nanoTime();
+        return future.orTimeout(Math.max(remainingNanos, 0), TimeUnit.NANOSECONDS)
+                .whenComplete((value, error) -> {
+                    long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                    Throwable cause = unwrap(error);
+                    SourceStatus status;
+                    if (cause == null) {
+                        status = new SourceStatus(SourceStatus.OK, latencyMs, null);
+                    } else if (cause instanceof TimeoutException) {
+                        status = new SourceStatus(SourceStatus.TIMEOUT, latencyMs, "No response before deadline");
+                    } else {
+                        logger.warn("Portfolio source {} failed: {}", name, cause.getMessage());
+                        status = new SourceStatus(SourceStatus.ERROR, latencyMs, cause.getMessage());
+                    }
+                    sources.put(name, status);
+                });
+    }
+
+    private List<CoinDcxBalance> fetchCoinDcxBalances(String userId) {
+        String body = coinDcxApiService.exchange(userId, "/exchange/v1/users/balances", HttpMethod.POST, null).getBody();
+        try {
+            return body != null ? objectMapper.readValue(body, new TypeReference<List<CoinDcxBalance>>() {}) : List.of();
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable CoinDCX balances: " + e.getMessage(), e);
+        }
+    }
+
+    private CompletableFuture<Map<String, BigDecimal>> fetchCryptoPrices(List<CoinDcxBalance> balances) {
+        Set<String> symbols = new LinkedHashSet<>();
+        for (CoinDcxBalance balance : balances) {
+            String currency = balance.getCurrency();
+            if (currency != null && !INR.equalsIgnoreCase(currency) && heldQuantity(balance).signum() > 0) {
+                symbols.add(currency.toUpperCase());
+            }
+        }
+        if (symbols.isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of());
+        }
+
+        return coinMarketCapService.getLatestQuotesAsync(String.join(",", symbols), INR).thenApply(response -> {
+            Map<String, BigDecimal> prices = new LinkedHashMap<>();
+            if (response.get("data") instanceof Map<?, ?> data) {
+                data.forEach((symbol, entry) -> {
+                    if (entry instanceof CmcQuotes.Quote quote) {
+                        BigDecimal price = toDecimal(quote.price(INR));
+                        if (price != null) {
+                            prices.put(symbol.toString().toUpperCase(), price);
+                        }
+                    }
+                });
+            }
+            return prices;
+        });
+    }
+
+    private List<UpstoxHoldings.Holding> fetchUpstoxHoldings(String userId) {
+        UpstoxHoldings response = upstoxAuthService.get(userId, "/portfolio/long-term-holdings", UpstoxHoldings.class);
+        return response != null && response.getData() != null ? response.getData() : List.of();
+    }
+
+    private UpstoxFunds fetchUpstoxFunds(String userId) {
+        return upstoxAuthService.get(userId, "/user/get-funds-and-margin", UpstoxFunds.class);
+    }
+
+    // A missing price, or none at all by the deadline, falls back to Upstox's last price in valueEquity
+    private CompletableFuture<Map<String, BigDecimal>> fetchStockPrices(List<UpstoxHoldings.Holding> holdings) {
+        Set<String> symbols = new LinkedHashSet<>();
+        for (UpstoxHoldings.Holding holding : holdings) {
+            if (holding.getTradingsymbol() != null && !holding.getTradingsymbol().isBlank()) {
+                symbols.add(holding.getTradingsymbol());
+            }
+        }
+        if (symbols.isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of());
+        }
+
+        return stockService.getStockPricesAsync(symbols).thenApply(response -> {
+            Map<String, BigDecimal> prices = new LinkedHashMap<>();
+            if (response.get("prices") instanceof Map<?, ?> found) {
+                for (String symbol : symbols) {
+                    // Prices come back keyed by the upper-cased symbol
+                    BigDecimal price = parseStockPrice(found.get(symbol.trim().toUpperCase(Locale.ROOT)));
+                    if (price != null) {
+                        prices.put(symbol, price);
+                    }
+                }
+            }
+            return prices;
+        });
+    }
+
+    private BigDecimal parseStockPrice(Object stockResponse) {
+        if (stockResponse instanceof Map<?, ?> response) {
+            Object currentPrice = response.get("currentPrice");
+            if (currentPrice instanceof Map<?, ?> byExchange) {
+                BigDecimal nse = toDecimal(byExchange.get("NSE"));
+                return nse != null ? nse : toDecimal(byExchange.get("BSE"));
+            }
+            return toDecimal(currentPrice);
+        }
+        return null;
+    }
+
+    private void valueCrypto(PortfolioSummary summary, List<CoinDcxBalance> balances, Map<String, BigDecimal> prices) {
+        if (balances == null) {
+            return;
+        }
+        for (CoinDcxBalance balance : balances) {
+            String currency = balance.getCurrency();
+            BigDecimal quantity = heldQuantity(balance);
+            if (currency == null || quantity.signum() <= 0) {
+                continue;
+            }
+            if (INR.equalsIgnoreCase(currency)) {
+                summary.getCash().put("coindcxInr", quantity);
+                summary.setCashValue(summary.getCashValue().add(quantity));
+                continue;
+            }
+            BigDecimal price = prices != null ? prices.get(currency.toUpperCase()) : null;
+            BigDecimal value = price != null ? price.multiply(quantity) : null;
+            summary.getCrypto().add(new Position(currency.toUpperCase(), quantity, price, value,
+                    price != null ? "coinmarketcap" : null));
+        }
+    }
+
+    private void valueEquity(PortfolioSummary summary, List<UpstoxHoldings.Holding> holdings, Map<String, BigDecimal> prices) {
+        if (holdings == null) {
+            return;
+        }
+        for (UpstoxHoldings.Holding holding : holdings) {
+            String symbol = holding.getTradingsymbol();
+            BigDecimal quantity = holding.getQuantity();
+            if (symbol == null || quantity == null || quantity.signum() <= 0) {
+                continue;
+            }
+            BigDecimal price = prices != null ? prices.get(symbol) : null;
+            String priceSource = "stock-api";
+            if (price == null) {
+                price = holding.getLastPrice();
+                priceSource = price != null ? "upstox" : null;
+            }
+            BigDecimal value = price != null ? price.multiply(quantity) : null;
+            summary.getEquity().add(new Position(symbol, quantity, price, value, priceSource));
+        }
+    }
+
+    private void valueFunds(PortfolioSummary summary, UpstoxFunds funds) {
+        UpstoxFunds.Segment equity = funds != null && funds.getData() != null ? funds.getData().get("equity") : null;
+        if (equity != null) {
+            BigDecimal availableMargin = equity.getAvailableMargin();
+            if (availableMargin != null) {
+                summary.getCash().put("upstoxAvailableMargin", availableMargin);
+                summary.setCashValue(summary.getCashValue().add(availableMargin));
+            }
+        }
+    }
+
+    private static BigDecimal heldQuantity(CoinDcxBalance balance) {
+        BigDecimal available = balance.getBalance();
+        BigDecimal locked = balance.getLockedBalance();
+        return (available != null ? available : BigDecimal.ZERO).add(locked != null ? locked : BigDecimal.ZERO);
+    }
+
+    private static BigDecimal toDecimal(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static <T> T valueOrNull(CompletableFuture<T> future) {
+        return future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
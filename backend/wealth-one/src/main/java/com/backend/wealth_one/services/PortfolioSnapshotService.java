@@ -0,0 +1,383 @@
+package com.backend.wealth_one.services;
+
+import com.backend.wealth_one.clients.RequestPriority;
+import com.backend.wealth_one.configs.ExecutorConfig;
+import com.backend.wealth_one.models.PortfolioSnapshot;
+import com.backend.wealth_one.models.PortfolioSummary;
+import com.backend.wealth_one.models.PortfolioSummary.Position;
+import com.backend.wealth_one.repositories.PortfolioSnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Keeps a precomputed {@link PortfolioSummary} per user in {@code portfolio_snapshots},
+ * so a dashboard read is one lookup by id instead of a call to every provider.
+ *
+ * <ul>
+ *   <li>A user's first read builds the snapshot live through {@link PortfolioService}.</li>
+ *   <li>A scheduled job rebuilds snapshots older than {@code refresh-ms}, for users
+ *       who read theirs within {@code idle-ms}, {@code refresh-concurrency} at a time
+ *       on the provider executor.</li>
+ *   <li>Prices the quote caches load are applied in between to the affected
+ *       snapshots of those same active users, without fetching holdings again.</li>
+ *   <li>A rebuild where a source failed keeps that source's part of the previous
+ *       snapshot and still counts as a refresh, so it waits its turn like any other.</li>
+ * </ul>
+ */
+@Service
+public class PortfolioSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioSnapshotService.class);
+
+    private static final String CRYPTO = "crypto";
+    private static final String STOCK = "stock";
+    private static final String INR = "INR";
+
+    // lastReadAt is only written when older than this, so reads do not turn into writes
+    private static final Duration READ_TRACKING = Duration.ofHours(1);
+
+    private final PortfolioService portfolioService;
+    private final PortfolioSnapshotRepository repository;
+    private final MongoTemplate mongoTemplate;
+    private final Executor executor;
+
+    // Latest price per "type:SYMBOL" since the last revaluation
+    private final ConcurrentMap<String, BigDecimal> changedPrices = new ConcurrentHashMap<>();
+
+    @Value("${portfolio.snapshots.refresh-ms:300000}")
+    private long refreshMs;
+
+    @Value("${portfolio.snapshots.idle-ms:604800000}")
+    private long idleMs;
+
+    @Value("${portfolio.snapshots.refresh-batch-size:100}")
+    private int refreshBatchSize;
+
+    // Refreshes in flight at once; keep it well below executor.provider.pool-size,
+    // since each one waits on fan-out tasks in the same pool
+    @Value("${portfolio.snapshots.refresh-concurrency:4}")
+    private int refreshConcurrency;
+
+    public PortfolioSnapshotService(PortfolioService portfolioService,
+                                    PortfolioSnapshotRepository repository,
+                                    MongoTemplate mongoTemplate,
+                                    @Qualifier(ExecutorConfig.PROVIDER_EXECUTOR) Executor executor) {
+        this.portfolioService = portfolioService;
+        this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+        this.executor = executor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps(PortfolioSnapshot.class);
+            new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                    .resolveIndexFor(PortfolioSnapshot.class)
+                    .forEach(indexOps::ensureIndex);
+        } catch (RuntimeException e) {
+            logger.warn("Could not create portfolio_snapshots indexes", e);
+        }
+    }
+
+    /**
+     * The user's snapshot, built live on the first read. Falls back to a live
+     * summary when MongoDB cannot be read.
+     */
+    public PortfolioSummary getSummary(String userId) {
+        Optional<PortfolioSnapshot> snapshot;
+        try {
+            snapshot = repository.findById(userId);
+        } catch (DataAccessException e) {
+            logger.warn("Could not read portfolio snapshot for {}, computing it live: {}", userId, e.getMessage());
+            return portfolioService.getSummary(userId);
+        }
+        if (snapshot.isEmpty()) {
+            return refresh(userId, null).getSummary();
+        }
+        markRead(snapshot.get());
+        return snapshot.get().getSummary();
+    }
+
+    /**
+     * Rebuilds the user's snapshot from the providers now and returns it.
+     */
+    public PortfolioSummary refreshSummary(String userId) {
+        PortfolioSnapshot existing;
+        try {
+            existing = repository.findById(userId).orElse(null);
+        } catch (DataAccessException e) {
+            logger.warn("Could not read portfolio snapshot for {}: {}", userId, e.getMessage());
+            existing = null;
+        }
+        return refresh(userId, existing).getSummary();
+    }
+
+    @EventListener
+    public void onPriceUpdated(PriceUpdatedEvent event) {
+        // Snapshots are valued in INR only
+        if (INR.equalsIgnoreCase(event.currency())) {
+            changedPrices.put(key(event.type(), event.symbol()), BigDecimal.valueOf(event.price()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${portfolio.snapshots.revalue-ms:5000}")
+    public void revalueChanged() {
+        if (changedPrices.isEmpty()) {
+            return;
+        }
+        Map<String, BigDecimal> prices = new HashMap<>();
+        for (String key : changedPrices.keySet()) {
+            BigDecimal price = changedPrices.remove(key);
+            if (price != null) {
+                prices.put(key, price);
+            }
+        }
+
+        try {
+            Instant now = Instant.now();
+            // Idle users are left alone, as by refreshStale; their next read is a plain lookup
+            for (PortfolioSnapshot snapshot : repository.findBySymbolsInAndLastReadAtAfter(prices.keySet(),
+                    now.minusMillis(idleMs))) {
+                if (!revalue(snapshot.getSummary(), prices)) {
+                    continue;
+                }
+                snapshot.getSummary().setRevaluedAt(now);
+                try {
+                    repository.save(snapshot);
+                } catch (OptimisticLockingFailureException e) {
+                    // Rebuilt meanwhile, with prices at least as new as these
+                    logger.debug("Portfolio snapshot {} changed during revaluation", snapshot.getId());
+                }
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Portfolio snapshot revaluation failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${portfolio.snapshots.refresh-check-ms:60000}",
+               initialDelayString = "${portfolio.snapshots.refresh-check-ms:60000}")
+    public void refreshStale() {
+        Instant now = Instant.now();
+        List<PortfolioSnapshot> due;
+        try {
+            due = repository.findByRefreshedAtBeforeAndLastReadAtAfter(now.minusMillis(refreshMs),
+                    now.minusMillis(idleMs), PageRequest.of(0, refreshBatchSize, Sort.by("refreshedAt")));
+        } catch (DataAccessException e) {
+            logger.warn("Could not list portfolio snapshots to refresh: {}", e.getMessage());
+            return;
+        }
+        // A few at a time on the provider pool, each bounded by the source timeout,
+        // so a full batch takes seconds rather than minutes
+        Semaphore slots = new Semaphore(Math.max(1, refreshConcurrency));
+        List<CompletableFuture<Void>> refreshes = new ArrayList<>(due.size());
+        for (PortfolioSnapshot snapshot : due) {
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            try {
+                refreshes.add(RequestPriority.callAs(RequestPriority.BACKGROUND, () -> CompletableFuture
+                        .runAsync(() -> refresh(snapshot.getId(), snapshot), executor)
+                        .whenComplete((ignored, e) -> {
+                            slots.release();
+                            if (e != null) {
+                                logger.warn("Portfolio snapshot refresh failed for {}", snapshot.getId(), e);
+                            }
+                        })));
+            } catch (RuntimeException e) {
+                // Rejected by the executor
+                slots.release();
+                logger.warn("Could not schedule portfolio snapshot refresh for {}: {}", snapshot.getId(), e.getMessage());
+            }
+        }
+        CompletableFuture.allOf(refreshes.toArray(CompletableFuture[]::new))
+                .exceptionally(e -> null)
+                .join();
+    }
+
+    private PortfolioSnapshot refresh(String userId, PortfolioSnapshot existing) {
+        PortfolioSummary summary = portfolioService.getSummary(userId);
+        List<String> failed = keepPrevious(summary, existing != null ? existing.getSummary() : null);
+
+        // refreshedAt advances even when a source failed, so a failing user does
+        // not stay at the head of the refresh queue
+        PortfolioSnapshot snapshot = existing != null ? existing : new PortfolioSnapshot();
+        snapshot.setId(userId);
+        snapshot.setSummary(summary);
+        snapshot.setSymbols(symbols(summary));
+        snapshot.setRefreshedAt(summary.getGeneratedAt());
+        snapshot.setRefreshError(failed.isEmpty() ? null : "Sources not ok: " + failed);
+        if (snapshot.getLastReadAt() == null) {
+            snapshot.setLastReadAt(Instant.now());
+        }
+
+        try {
+            return repository.save(snapshot);
+        } catch (OptimisticLockingFailureException | DuplicateKeyException e) {
+            // Another instance or job wrote it first; what we computed is still current
+            logger.debug("Portfolio snapshot {} was written concurrently", userId);
+        } catch (DataAccessException e) {
+            logger.warn("Could not store portfolio snapshot for {}: {}", userId, e.getMessage());
+        }
+        return snapshot;
+    }
+
+    private void markRead(PortfolioSnapshot snapshot) {
+        Instant now = Instant.now();
+        if (snapshot.getLastReadAt() != null && snapshot.getLastReadAt().isAfter(now.minus(READ_TRACKING))) {
+            return;
+        }
+        try {
+            // A plain update, so it does not bump the version and fail a concurrent refresh
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(snapshot.getId())),
+                    Update.update("lastReadAt", now), PortfolioSnapshot.class);
+        } catch (DataAccessException e) {
+            logger.debug("Could not record read of portfolio snapshot {}: {}", snapshot.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Applies {@code prices} (keyed "type:SYMBOL") to the matching positions and
+     * updates the totals.
+     *
+     * @return whether any position changed
+     */
+    static boolean revalue(PortfolioSummary summary, Map<String, BigDecimal> prices) {
+        boolean changed = reprice(summary.getCrypto(), CRYPTO, "coinmarketcap", prices);
+        changed |= reprice(summary.getEquity(), STOCK, "stock-api", prices);
+        if (changed) {
+            summary.updateTotals();
+        }
+        return changed;
+    }
+
+    private static boolean reprice(List<Position> positions, String type, String priceSource,
+                                   Map<String, BigDecimal> prices) {
+        boolean changed = false;
+        for (Position position : positions) {
+            BigDecimal price = prices.get(key(type, position.getSymbol()));
+            if (price == null || (position.getPrice() != null && price.compareTo(position.getPrice()) == 0)) {
+                continue;
+            }
+            position.setPrice(price);
+            position.setValue(price.multiply(position.getQuantity()));
+            position.setPriceSource(priceSource);
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Fills in what the failed sources of {@code summary} left out from
+     * {@code previous}: the crypto positions or cash of a failed holdings or funds
+     * source, and the last price of positions a failed price source left unpriced.
+     * Parts whose sources succeeded are not touched.
+     *
+     * @return the failed sources
+     */
+    static List<String> keepPrevious(PortfolioSummary summary, PortfolioSummary previous) {
+        List<String> failed = failedSources(summary);
+        if (failed.isEmpty() || previous == null) {
+            return failed;
+        }
+
+        if (failed.contains(PortfolioService.COINDCX_BALANCES)) {
+            summary.setCrypto(previous.getCrypto());
+            keepCash(summary, previous, "coindcxInr");
+        } else if (failed.contains(PortfolioService.CRYPTO_PRICES)) {
+            keepPrices(summary.getCrypto(), previous.getCrypto());
+        }
+        if (failed.contains(PortfolioService.UPSTOX_HOLDINGS)) {
+            summary.setEquity(previous.getEquity());
+        } else if (failed.contains(PortfolioService.STOCK_PRICES)) {
+            keepPrices(summary.getEquity(), previous.getEquity());
+        }
+        if (failed.contains(PortfolioService.UPSTOX_FUNDS)) {
+            keepCash(summary, previous, "upstoxAvailableMargin");
+        }
+
+        summary.setCashValue(summary.getCash().values().stream()
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        summary.updateTotals();
+        return failed;
+    }
+
+    private static void keepCash(PortfolioSummary summary, PortfolioSummary previous, String name) {
+        BigDecimal amount = previous.getCash().get(name);
+        if (amount != null) {
+            summary.getCash().put(name, amount);
+        }
+    }
+
+    // Unpriced positions take the previous price of the same symbol
+    private static void keepPrices(List<Position> positions, List<Position> previous) {
+        Map<String, Position> bySymbol = new HashMap<>();
+        previous.forEach(position -> bySymbol.put(position.getSymbol(), position));
+        for (Position position : positions) {
+            Position last = bySymbol.get(position.getSymbol());
+            if (position.getPrice() != null || last == null || last.getPrice() == null) {
+                continue;
+            }
+            position.setPrice(last.getPrice());
+            position.setValue(last.getPrice().multiply(position.getQuantity()));
+            position.setPriceSource(last.getPriceSource());
+        }
+    }
+
+    private static List<String> symbols(PortfolioSummary summary) {
+        List<String> symbols = new ArrayList<>();
+        summary.getCrypto().forEach(position -> symbols.add(key(CRYPTO, position.getSymbol())));
+        summary.getEquity().forEach(position -> symbols.add(key(STOCK, position.getSymbol())));
+        return symbols;
+    }
+
+    private static List<String> failedSources(PortfolioSummary summary) {
+        List<String> failed = new ArrayList<>();
+        summary.getSources().forEach((name, status) -> {
+            if (status == null || !PortfolioSummary.SourceStatus.OK.equals(status.getStatus())) {
+                failed.add(name);
+            }
+        });
+        return failed;
+    }
+
+    private static String key(String type, String symbol) {
+        return type + ":" + symbol.toUpperCase();
+    }
+}
@@ -0,0 +1,301 @@
+package com.backend.wealth_one.services;
+
+import com.backend.wealth_one.models.PriceBucket;
+import com.backend.wealth_one.models.PricePoint;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Price history built from the quotes the caches already fetch. Points are
+ * buffered in memory and bulk-inserted into the {@code price_points}
+ * time-series collection. A background job rolls them up into 1m, 1h and 1d
+ * OHLC buckets in {@code price_rollups}, which is what charts read.
+ *
+ * <p>The rollup keeps a watermark in {@code price_rollup_state}. Each pass
+ * starts from it, so minutes missed while the app was down or a pass failed
+ * are backfilled before the watermark moves on.
+ */
+@Service
+public class PriceHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceHistoryService.class);
+
+    public static final String RAW = "raw";
+    public static final String MINUTE = "1m";
+    public static final String HOUR = "1h";
+    public static final String DAY = "1d";
+
+    private static final String ROLLUPS = "price_rollups";
+    private static final String ROLLUP_STATE = "price_rollup_state";
+    private static final String WATERMARK_ID = "rollup";
+
+    // Raw points expire after this (see PricePoint), so nothing older can be rolled up
+    private static final Duration RAW_RETENTION = Duration.ofDays(7);
+
+    private final MongoTemplate mongoTemplate;
+    private final BlockingQueue<PricePoint> buffer;
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Points are only written once the time-series collection is known to exist,
+    // otherwise the first insert would create a plain collection
+    private volatile boolean ready;
+
+    @Value("${price.history.max-points:5000}")
+    private int maxPoints;
+
+    public PriceHistoryService(MongoTemplate mongoTemplate,
+                               @Value("${price.history.buffer-size:10000}") int bufferSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createCollections() {
+        try {
+            if (!mongoTemplate.collectionExists(PricePoint.class)) {
+                mongoTemplate.createCollection(PricePoint.class);
+            }
+            IndexOperations indexOps = mongoTemplate.indexOps(PriceBucket.class);
+            new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                    .resolveIndexFor(PriceBucket.class)
+                    .forEach(indexOps::ensureIndex);
+            ready = true;
+        } catch (RuntimeException e) {
+            logger.warn("Could not prepare price history collections; history will not be recorded", e);
+        }
+    }
+
+    /**
+     * Queues a fetched quote for storage. Never blocks; when the buffer is full
+     * the point is dropped and counted.
+     */
+    public void record(String symbol, String currency, String source, double price) {
+        PricePoint.Meta meta = new PricePoint.Meta();
+        meta.setSymbol(symbol.toUpperCase());
+        meta.setCurrency(currency.toUpperCase());
+        meta.setSource(source);
+
+        PricePoint point = new PricePoint();
+        point.setTimestamp(Instant.now());
+        point.setMeta(meta);
+        point.setPrice(price);
+
+        if (!buffer.offer(point)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${price.history.flush-ms:5000}")
+    public void flush() {
+        if (!ready || buffer.isEmpty()) {
+            return;
+        }
+        List<PricePoint> points = new ArrayList<>(buffer.size());
+        buffer.drainTo(points);
+        try {
+            mongoTemplate.insert(points, PricePoint.class);
+        } catch (RuntimeException e) {
+            dropped.addAndGet(points.size());
+            logger.warn("Could not store {} price points", points.size(), e);
+        }
+
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            logger.warn("Dropped {} price points since the last flush", lost);
+        }
+    }
+
+    /**
+     * Rebuilds every bucket from the watermark up to now, then moves the
+     * watermark to the start of the previous minute. That minute is rebuilt
+     * again next pass, so points flushed late still land in it. A failed pass
+     * leaves the watermark where it was.
+     */
+    @Scheduled(fixedDelayString = "${price.history.rollup-ms:60000}",
+               initialDelayString = "${price.history.rollup-ms:60000}")
+    public void rollUp() {
+        if (!ready) {
+            return;
+        }
+        Instant now = Instant.now();
+        Instant next = now.truncatedTo(ChronoUnit.MINUTES).minus(1, ChronoUnit.MINUTES);
+        try {
+            Instant from = rolledUpTo().filter(watermark -> watermark.isAfter(now.minus(RAW_RETENTION)))
+                    .orElse(now.minus(RAW_RETENTION))
+                    .truncatedTo(ChronoUnit.MINUTES);
+            if (from.isAfter(next)) {
+                from = next;
+            }
+            rollUpRaw(from);
+            rollUpBuckets(MINUTE, HOUR, "hour", from.truncatedTo(ChronoUnit.HOURS));
+            rollUpBuckets(HOUR, DAY, "day", from.truncatedTo(ChronoUnit.DAYS));
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(WATERMARK_ID)),
+                    Update.update("rolledUpTo", Date.from(next)), ROLLUP_STATE);
+        } catch (RuntimeException e) {
+            logger.warn("Price rollup failed; the next pass starts from the same watermark", e);
+        }
+    }
+
+    private Optional<Instant> rolledUpTo() {
+        return Optional.ofNullable(mongoTemplate.findById(WATERMARK_ID, Document.class, ROLLUP_STATE))
+                .map(state -> state.getDate("rolledUpTo"))
+                .map(Date::toInstant);
+    }
+
+    private void rollUpRaw(Instant from) {
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("timestamp", new Document("$gte", Date.from(from)))),
+                new Document("$sort", new Document("timestamp", 1)),
+                new Document("$group", new Document("_id", new Document()
+                        .append("symbol", "$meta.symbol")
+                        .append("currency", "$meta.currency")
+                        .append("bucket", dateTrunc("$timestamp", "minute")))
+                        .append("open", new Document("$first", "$price"))
+                        .append("high", new Document("$max", "$price"))
+                        .append("low", new Document("$min", "$price"))
+                        .append("close", new Document("$last", "$price"))
+                        .append("count", new Document("$sum", 1))),
+                toBucket(MINUTE),
+                mergeIntoRollups());
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(PricePoint.class))
+                .aggregate(pipeline).toCollection();
+    }
+
+    private void rollUpBuckets(String source, String target, String unit, Instant from) {
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("resolution", source)
+                        .append("bucketStart", new Document("$gte", Date.from(from)))),
+                new Document("$sort", new Document("bucketStart", 1)),
+                new Document("$group", new Document("_id", new Document()
+                        .append("symbol", "$symbol")
+                        .append("currency", "$currency")
+                        .append("bucket", dateTrunc("$bucketStart", unit)))
+                        .append("open", new Document("$first", "$open"))
+                        .append("high", new Document("$max", "$high"))
+                        .append("low", new Document("$min", "$low"))
+                        .append("close", new Document("$last", "$close"))
+                        .append("count", new Document("$sum", "$count"))),
+                toBucket(target),
+                mergeIntoRollups());
+        mongoTemplate.getCollection(ROLLUPS).aggregate(pipeline).toCollection();
+    }
+
+    private static Document dateTrunc(String field, String unit) {
+        return new Document("$dateTrunc", new Document("date", field).append("unit", unit));
+    }
+
+    // Shapes a $group result into a PriceBucket document with its deterministic id
+    private static Document toBucket(String resolution) {
+        Document id = new Document("$concat", List.of(
+                "$_id.symbol", ":", "$_id.currency", ":" + resolution + ":",
+                new Document("$toString", new Document("$toLong", "$_id.bucket"))));
+        return new Document("$project", new Document("_id", id)
+                .append("symbol", "$_id.symbol")
+                .append("currency", "$_id.currency")
+                .append("resolution", new Document("$literal", resolution))
+                .append("bucketStart", "$_id.bucket")
+                .append("open", 1)
+                .append("high", 1)
+                .append("low", 1)
+                .append("close", 1)
+                .append("count", 1));
+    }
+
+    private static Document mergeIntoRollups() {
+        return new Document("$merge", new Document("into", ROLLUPS)
+                .append("on", "_id")
+                .append("whenMatched", "replace")
+                .append("whenNotMatched", "insert"));
+    }
+
+    /**
+     * Picks the coarsest resolution that still gives a useful number of points
+     * for the requested range.
+     */
+    public static String resolutionFor(Instant from, Instant to) {
+        Duration range = Duration.between(from, to);
+        if (range.compareTo(Duration.ofHours(6)) <= 0) {
+            return MINUTE;
+        }
+        if (range.compareTo(Duration.ofDays(14)) <= 0) {
+            return HOUR;
+        }
+        return DAY;
+    }
+
+    /**
+     * History for one symbol between {@code from} and {@code to}, oldest first.
+     * {@code raw} returns the stored quotes; other resolutions return OHLC buckets.
+     */
+    public Map<String, Object> getHistory(String symbol, String currency, Instant from, Instant to, String resolution) {
+        String series = symbol.trim().toUpperCase();
+        String quoteCurrency = currency.trim().toUpperCase();
+
+        List<Map<String, Object>> points = new ArrayList<>();
+        if (RAW.equals(resolution)) {
+            Query query = Query.query(Criteria.where("meta.symbol").is(series)
+                            .and("meta.currency").is(quoteCurrency)
+                            .and("timestamp").gte(from).lte(to))
+                    .with(Sort.by("timestamp"))
+                    .limit(maxPoints);
+            for (PricePoint point : mongoTemplate.find(query, PricePoint.class)) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("time", point.getTimestamp());
+                row.put("price", point.getPrice());
+                points.add(row);
+            }
+        } else {
+            Query query = Query.query(Criteria.where("symbol").is(series)
+                            .and("currency").is(quoteCurrency)
+                            .and("resolution").is(resolution)
+                            .and("bucketStart").gte(from).lte(to))
+                    .with(Sort.by("bucketStart"))
+                    .limit(maxPoints);
+            for (PriceBucket bucket : mongoTemplate.find(query, PriceBucket.class)) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("time", bucket.getBucketStart());
+                row.put("open", bucket.getOpen());
+                row.put("high", bucket.getHigh());
+                row.put("low", bucket.getLow());
+                row.put("close", bucket.getClose());
+                row.put("count", bucket.getCount());
+                points.add(row);
+            }
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("symbol", series);
+        response.put("currency", quoteCurrency);
+        response.put("resolution", resolution);
+        response.put("from", from);
+        response.put("to", to);
+        response.put("points", points);
+        return response;
+    }
+}
@@ -0,0 +1,9 @@
+package com.backend.wealth_one.services;
+
+/**
+ * Published whenever a quote cache loads a price from its provider.
+ *
+ * @param type {@code crypto} or {@code stock}
+ */
+public record PriceUpdatedEvent(String type, String symbol, String currency, double price) {
+}
@@ -1,62 +1,255 @@
 package com.backend.wealth_one.services;
 
+import com.backend.wealth_one.cache.LastKnownGood;
+import com.backend.wealth_one.cache.LastKnownGoodRegistry;
+import com.backend.wealth_one.cache.QuoteCache;
+import com.backend.wealth_one.cache.QuoteCacheRegistry;
+import com.backend.wealth_one.cache.QuoteKey;
+import com.backend.wealth_one.clients.Provider;
+import com.backend.wealth_one.clients.ProviderHttpClients;
+import com.backend.wealth_one.clients.ProviderUnavailableException;
+import com.backend.wealth_one.clients.ProviderWebClients;
+import com.backend.wealth_one.configs.ExecutorConfig;
+import com.backend.wealth_one.models.providers.StockQuote;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 public class StockPriceService implements StockService {
 
+    private static final Logger logger = LoggerFactory.getLogger(StockPriceService.class);
+
+    // The stock API quotes Indian exchanges only
+    private static final String CURRENCY = "INR";
+
     @Value("${stock.api.baseUrl}")
     private String baseUrl;
 
     @Value("${stock.api.key}")
     private String apiKey;
 
+    // Upstream calls in flight at once for a single batch of cache misses
+    @Value("${stock.api.batch-concurrency:8}")
+    private int batchConcurrency;
+
     private final RestTemplate restTemplate;
+    // Only present when provider.client.mode=reactive
+    private final WebClient webClient;
+    private final Executor executor;
+    private final QuoteCache<Object> quoteCache;
+    // Answers for symbols whose upstream call fails while the provider is down
+    private final LastKnownGood<QuoteKey, Object> lastKnownGood;
+    private final PriceHistoryService priceHistoryService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public StockPriceService(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    public StockPriceService(ProviderHttpClients providerHttpClients,
+                             ObjectProvider<ProviderWebClients> providerWebClients,
+                             QuoteCacheRegistry quoteCacheRegistry,
+                             LastKnownGoodRegistry lastKnownGoodRegistry,
+                             PriceHistoryService priceHistoryService,
+                             ApplicationEventPublisher eventPublisher,
+                             @Qualifier(ExecutorConfig.QUOTE_LOADER_EXECUTOR) Executor executor) {
+        this.restTemplate = providerHttpClients.restTemplate(Provider.STOCK);
+        ProviderWebClients webClients = providerWebClients.getIfAvailable();
+        this.webClient = webClients != null ? webClients.webClient(Provider.STOCK) : null;
+        this.executor = executor;
+        this.priceHistoryService = priceHistoryService;
+        this.eventPublisher = eventPublisher;
+        this.quoteCache = quoteCacheRegistry.create("stock",
+                Duration.ofMillis(providerHttpClients.settings(Provider.STOCK).readTimeoutMs()), this::loadStockPrices);
+        this.lastKnownGood = lastKnownGoodRegistry.create("stock");
     }
 
     @Override
     public Object getStockPrice(String stockName) {
+        QuoteKey key = QuoteKey.of(stockName, CURRENCY);
+        try {
+            // Waits at most the provider read timeout
+            Object stockPrice = quoteCache.get(key);
+            return stockPrice != null ? stockPrice : Map.of("error", "Failed to fetch stock price");
+        } catch (Exception ex) {
+            logger.error("Error fetching stock price: {}", ex.getMessage());
+
+            // Return a well-formed response instead of propagating the exception
+            return lastKnownGood.fallback(key, ex, LastKnownGood::markStale)
+                    .orElse(Map.of("error", "Failed to fetch stock price"));
+        }
+    }
+
+    @Override
+    public CompletableFuture<Object> getStockPriceAsync(String stockName) {
+        return quoteCache.getAsync(QuoteKey.of(stockName, CURRENCY))
+                .handle((stockPrice, ex) -> {
+                    if (ex != null) {
+                        logger.error("Error fetching stock price: {}", ex.getMessage());
+                    }
+                    return stockPrice != null ? stockPrice : Map.of("error", "Failed to fetch stock price");
+                });
+    }
+
+    @Override
+    public Map<String, Object> getStockPrices(Collection<String> stockNames) {
         try {
+            return QuoteCache.join(getStockPricesAsync(stockNames), quoteCache.getMaxWait());
+        } catch (ProviderUnavailableException ex) {
+            logger.error("Error fetching stock prices: {}", ex.getMessage());
+            // Out of time: answer what we can from the last known good prices
+            Set<QuoteKey> keys = keys(stockNames);
+            Map<QuoteKey, Object> stale = new LinkedHashMap<>();
+            for (QuoteKey key : keys) {
+                lastKnownGood.fallback(key, ex, LastKnownGood::markStale).ifPresent(price -> stale.put(key, price));
+            }
+            return toResponse(keys, stale);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> getStockPricesAsync(Collection<String> stockNames) {
+        Set<QuoteKey> keys = keys(stockNames);
+        return quoteCache.getAllAsync(keys)
+                .exceptionally(ex -> {
+                    logger.error("Error fetching stock prices: {}", ex.getMessage());
+                    return Map.of();
+                })
+                .thenApply(found -> toResponse(keys, found));
+    }
+
+    private static Set<QuoteKey> keys(Collection<String> stockNames) {
+        Set<QuoteKey> keys = new LinkedHashSet<>();
+        for (String stockName : stockNames) {
+            if (stockName != null && !stockName.isBlank()) {
+                keys.add(QuoteKey.of(stockName, CURRENCY));
+            }
+        }
+        return keys;
+    }
+
+    private static Map<String, Object> toResponse(Set<QuoteKey> keys, Map<QuoteKey, Object> found) {
+        Map<String, Object> prices = new LinkedHashMap<>();
+        Map<String, Object> errors = new LinkedHashMap<>();
+        for (QuoteKey key : keys) {
+            Object stockPrice = found.get(key);
+            if (stockPrice == null) {
+                errors.put(key.symbol(), "Failed to fetch stock price");
+            } else if (stockPrice instanceof Map<?, ?> price && price.containsKey("error")) {
+                errors.put(key.symbol(), price.get("error"));
+            } else {
+                prices.put(key.symbol(), stockPrice);
+            }
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("prices", prices);
+        response.put("errors", errors);
+        return response;
+    }
+
+    // Misses are fetched in parallel, at most batchConcurrency at a time
+    private CompletableFuture<Map<QuoteKey, Object>> loadStockPrices(Set<QuoteKey> keys) {
+        return Flux.fromIterable(keys)
+                .flatMap(key -> Mono.fromFuture(() -> fetchStockPrice(key.symbol()))
+                        // "Price not found" is left out like a failure, so it is retried rather than cached
+                        .filter(price -> !(price instanceof Map<?, ?> map && map.containsKey("error")))
+                        .doOnNext(price -> recordPrice(key, price))
+                        .doOnNext(price -> lastKnownGood.remember(key, price))
+                        .onErrorResume(ex -> {
+                            logger.error("Error fetching stock price for {}: {}", key.symbol(), ex.getMessage());
+                            // While the provider is down the last price is served, marked stale;
+                            // otherwise the symbol is left out so it is retried rather than cached
+                            return Mono.justOrEmpty(lastKnownGood.fallback(key, ex, LastKnownGood::markStale));
+                        })
+                        .map(price -> Map.entry(key, price)), Math.max(1, batchConcurrency))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, LinkedHashMap::new)
+                .toFuture();
+    }
+
+    // currentPrice is either a number or per exchange, e.g. {"NSE": .., "BSE": ..}
+    private void recordPrice(QuoteKey key, Object stockPrice) {
+        if (!(stockPrice instanceof Map<?, ?> price)) {
+            return;
+        }
+        Object currentPrice = price.get("currentPrice");
+        if (currentPrice instanceof Map<?, ?> byExchange) {
+            currentPrice = byExchange.get("NSE") != null ? byExchange.get("NSE") : byExchange.get("BSE");
+        }
+        if (currentPrice == null) {
+            return;
+        }
+        try {
+            double value = currentPrice instanceof Number number
+                    ? number.doubleValue()
+                    : Double.parseDouble(currentPrice.toString());
+            priceHistoryService.record(key.symbol(), key.convert(), "stock", value);
+            eventPublisher.publishEvent(new PriceUpdatedEvent("stock", key.symbol(), key.convert(), value));
+        } catch (NumberFormatException e) {
+            logger.debug("Not recording non-numeric price for {}", key.symbol());
+        }
+    }
+
+    private CompletableFuture<Object> fetchStockPrice(String stockName) {
+        String uri = UriComponentsBuilder.fromHttpUrl(baseUrl + "/stock")
+                .queryParam("name", stockName)
+                .toUriString();
+
+        if (webClient != null) {
+            return webClient.get()
+                    .uri(uri)
+                    .header("X-API-KEY", apiKey)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .retrieve()
+                    .bodyToMono(StockQuote.class)
+                    .map(this::toStockPrice)
+                    .toFuture();
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
             HttpHeaders headers = new HttpHeaders();
             headers.set("X-API-KEY", apiKey);
             headers.set("Content-Type", "application/json");
 
-            UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(baseUrl + "/stock")
-                    .queryParam("name", stockName);
-
             HttpEntity<?> entity = new HttpEntity<>(headers);
 
-            ResponseEntity<Map> response = restTemplate.exchange(
-                    builder.toUriString(),
+            // Only currentPrice is mapped; the rest of the body is skipped while parsing
+            ResponseEntity<StockQuote> response = restTemplate.exchange(
+                    uri,
                     HttpMethod.GET,
                     entity,
-                    Map.class
+                    StockQuote.class
             );
 
-            Map<String, Object> responseBody = response.getBody();
-            if (responseBody != null && responseBody.containsKey("currentPrice")) {
-                return Map.of("currentPrice", responseBody.get("currentPrice"));
-            } else {
-                return Map.of("error", "Price not found");
-            }
-
-        } catch (Exception ex) {
-            // Log the exception (you can use a logger here)
-            System.err.println("Error fetching stock price: " + ex.getMessage());
+            return toStockPrice(response.getBody());
+        }, executor);
+    }
 
-            // Return a well-formed response instead of propagating the exception
-            return Map.of("error", "Failed to fetch stock price");
+    private Object toStockPrice(StockQuote responseBody) {
+        if (responseBody != null && responseBody.getCurrentPrice() != null) {
+            return Map.of("currentPrice", responseBody.getCurrentPrice());
+        } else {
+            return Map.of("error", "Price not found");
         }
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,19 @@
 package com.backend.wealth_one.services;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 public interface StockService {
     Object getStockPrice(String stockName);
+
+    CompletableFuture<Object> getStockPriceAsync(String stockName);
+
+    /**
+     * Prices for many stocks in one call. Names are deduplicated case-insensitively;
+     * the result holds {@code prices} and {@code errors}, both keyed by upper-cased name.
+     */
+    Map<String, Object> getStockPrices(Collection<String> stockNames);
+
+    CompletableFuture<Map<String, Object>> getStockPricesAsync(Collection<String> stockNames);
 }
@@ -1,23 +1,60 @@
 package com.backend.wealth_one.services;
 
+import com.backend.wealth_one.cache.LastKnownGood;
+import com.backend.wealth_one.cache.LastKnownGoodRegistry;
+import com.backend.wealth_one.clients.Provider;
+import com.backend.wealth_one.clients.ProviderHttpClients;
+import com.backend.wealth_one.clients.RequestPriority;
+import com.backend.wealth_one.models.UpstoxToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Base64;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Upstox OAuth and authenticated API calls, per application user.
+ *
+ * <p>Tokens live in {@link UpstoxTokenStore}. A scheduled job refreshes tokens
+ * before they expire, so requests do not run into a 401. A refresh that still
+ * has to happen during a request is single-flight per user.
+ */
 @Service
 public class UpstoxAuthService {
 
+    private static final Logger logger = LoggerFactory.getLogger(UpstoxAuthService.class);
+
+    // Upstox access tokens expire at 03:30 IST the next day unless told otherwise
+    private static final ZoneId UPSTOX_ZONE = ZoneId.of("Asia/Kolkata");
+    private static final LocalTime UPSTOX_EXPIRY = LocalTime.of(3, 30);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     @Value("${upstox.api.key}")
     private String apiKey;
 
@@ -27,31 +64,63 @@ public class UpstoxAuthService {
     @Value("${upstox.redirect.uri}")
     private String redirectUri;
 
-    private final String baseUrl = "https://api.upstox.com/v2";
-    private String accessToken;
-    private String refreshToken;
+    // Tokens expiring within this window are refreshed by the scheduled job
+    @Value("${upstox.tokens.refresh-ahead-ms:900000}")
+    private long refreshAheadMs;
+
+    @Value("${upstox.api.baseUrl:https://api.upstox.com/v2}")
+    private String baseUrl;
+
+    private final ProviderHttpClients providerHttpClients;
     private final RestTemplate restTemplate;
+    private final UpstoxTokenStore tokenStore;
+    // Values are Maps for makeRequest and typed models for get
+    private final LastKnownGood<String, Object> lastKnownGood;
 
-    public UpstoxAuthService() {
-        this.restTemplate = new RestTemplate();
+    // OAuth state -> user who started the login, so the callback knows whose tokens these are
+    private final Cache<String, String> pendingLogins = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .maximumSize(10000)
+            .build();
+    private final ConcurrentMap<String, CompletableFuture<UpstoxToken>> refreshesInFlight = new ConcurrentHashMap<>();
+
+    public UpstoxAuthService(ProviderHttpClients providerHttpClients,
+                             UpstoxTokenStore tokenStore,
+                             LastKnownGoodRegistry lastKnownGoodRegistry) {
+        this.providerHttpClients = providerHttpClients;
+        this.restTemplate = providerHttpClients.restTemplate(Provider.UPSTOX);
+        this.tokenStore = tokenStore;
+        this.lastKnownGood = lastKnownGoodRegistry.create("upstox");
     }
 
     // Generate authorization URL for OAuth authentication
-    public String getAuthorizationUrl() {
+    public String getAuthorizationUrl(String userId) {
+        byte[] nonce = new byte[24];
+        RANDOM.nextBytes(nonce);
+        String state = Base64.getUrlEncoder().withoutPadding().encodeToString(nonce);
+        pendingLogins.put(state, userId);
+
         return UriComponentsBuilder
-                .fromHttpUrl("https://api.upstox.com/v2/login/authorization/dialog")
+                .fromHttpUrl(baseUrl + "/login/authorization/dialog")
                 .queryParam("client_id", apiKey)
                 .queryParam("redirect_uri", redirectUri)
                 .queryParam("response_type", "code")
                 .queryParam("scope", "orders holdings profile")
+                .queryParam("state", state)
                 .toUriString();
     }
 
-    // Exchange authorization code for access token
-    public Map<String, Object> getAccessToken(String authorizationCode) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-        headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+    /**
+     * Exchanges the authorization code from the OAuth callback for tokens and
+     * stores them for the user who started the login.
+     *
+     * @return the user the tokens were stored for
+     */
+    public String completeAuthorization(String state, String authorizationCode) {
+        String userId = state != null ? pendingLogins.asMap().remove(state) : null;
+        if (userId == null) {
+            throw new IllegalArgumentException("Unknown or expired login state");
+        }
 
         MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
         formData.add("code", authorizationCode);
@@ -60,85 +129,127 @@ public class UpstoxAuthService {
         formData.add("redirect_uri", redirectUri);
         formData.add("grant_type", "authorization_code");
 
-        HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(formData, headers);
-
         try {
-            Map<String, Object> response = restTemplate.postForObject(
-                    baseUrl + "/login/authorization/token",
-                    request,
-                    Map.class
-            );
-
-            if (response != null) {
-                this.accessToken = (String) response.get("access_token");
-                this.refreshToken = (String) response.get("refresh_token");
-
-                Map<String, Object> result = new HashMap<>();
-                result.put("accessToken", this.accessToken);
-                result.put("refreshToken", this.refreshToken);
-                result.put("expiresIn", response.get("expires_in"));
-
-                return result;
-            } else {
-                throw new RuntimeException("Failed to get access token");
-            }
+            storeTokens(userId, requestToken(formData), null);
+            return userId;
         } catch (Exception e) {
             throw new RuntimeException("Error getting access token: " + e.getMessage(), e);
         }
     }
 
-    // Refresh the access token using refresh token
-    public Map<String, Object> refreshAccessToken() {
-        if (refreshToken == null) {
-            throw new IllegalStateException("Refresh token not available");
+    /**
+     * Refreshes the user's access token. Concurrent calls for the same user
+     * share one refresh.
+     */
+    public UpstoxToken refreshAccessToken(String userId) {
+        CompletableFuture<UpstoxToken> refresh = new CompletableFuture<>();
+        CompletableFuture<UpstoxToken> running = refreshesInFlight.putIfAbsent(userId, refresh);
+        if (running != null) {
+            return running.join();
         }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-        headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+        try {
+            UpstoxToken refreshed = doRefresh(userId);
+            refresh.complete(refreshed);
+            return refreshed;
+        } catch (RuntimeException e) {
+            refresh.completeExceptionally(e);
+            throw e;
+        } finally {
+            refreshesInFlight.remove(userId, refresh);
+        }
+    }
 
-        MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
-        formData.add("refresh_token", refreshToken);
-        formData.add("client_id", apiKey);
-        formData.add("client_secret", apiSecret);
-        formData.add("grant_type", "refresh_token");
+    @Scheduled(fixedDelayString = "${upstox.tokens.refresh-check-ms:60000}",
+               initialDelayString = "${upstox.tokens.refresh-check-ms:60000}")
+    public void refreshExpiringTokens() {
+        Instant horizon = Instant.now().plusMillis(refreshAheadMs);
+        for (UpstoxToken token : tokenStore.findRefreshableExpiringBefore(horizon)) {
+            try {
+                RequestPriority.runAs(RequestPriority.BACKGROUND, () -> refreshAccessToken(token.getId()));
+            } catch (RuntimeException e) {
+                logger.warn("Upstox token refresh failed for {}", token.getId(), e);
+            }
+        }
+    }
 
-        HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(formData, headers);
+    public String getBaseUrl() {
+        return baseUrl;
+    }
 
-        try {
-            Map<String, Object> response = restTemplate.postForObject(
-                    baseUrl + "/login/authorization/token",
-                    request,
-                    Map.class
-            );
+    /**
+     * A usable access token for the user. Normally the stored one; only a token
+     * that has already expired is refreshed here.
+     */
+    public String getAccessToken(String userId) {
+        UpstoxToken token = tokenStore.get(userId)
+                .orElseThrow(() -> new IllegalStateException("Access token not available. Please authenticate first."));
+        if (token.getExpiresAt() == null || token.getExpiresAt().isAfter(Instant.now())) {
+            return token.getAccessToken();
+        }
+        if (token.getRefreshToken() == null) {
+            throw new IllegalStateException("Upstox session expired. Please authenticate again.");
+        }
+        return refreshAccessToken(userId).getAccessToken();
+    }
 
-            if (response != null) {
-                this.accessToken = (String) response.get("access_token");
-                this.refreshToken = (String) response.get("refresh_token");
+    /**
+     * Forgets the in-memory token after Upstox rejected it, so the next request
+     * reads the stored one again.
+     */
+    public void onUnauthorized(String userId) {
+        tokenStore.evict(userId);
+    }
 
-                Map<String, Object> result = new HashMap<>();
-                result.put("accessToken", this.accessToken);
-                result.put("refreshToken", this.refreshToken);
-                result.put("expiresIn", response.get("expires_in"));
+    /**
+     * GET parsed straight into {@code type}; fields the type does not map are
+     * skipped while parsing. While Upstox is unavailable the last successful
+     * response is returned instead.
+     */
+    public <T> T get(String userId, String endpoint, Class<T> type) {
+        Object response = lastKnownGood.call(userId + " " + endpoint + " " + type.getName(),
+                () -> send(userId, HttpMethod.GET, endpoint, null, type), LastKnownGood::markStale);
+        return type.cast(response);
+    }
 
-                return result;
-            } else {
-                throw new RuntimeException("Failed to refresh access token");
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Error refreshing token: " + e.getMessage(), e);
+    /**
+     * GET with the body left unread, for endpoints that pass it on unchanged. The
+     * caller closes the response. There is no last known good fallback, since
+     * the body is never held.
+     */
+    public ClientHttpResponse open(String userId, String endpoint) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+        headers.setBearerAuth(getAccessToken(userId));
+        try {
+            return providerHttpClients.open(Provider.UPSTOX, HttpMethod.GET, baseUrl + endpoint, headers, null);
+        } catch (HttpClientErrorException.Unauthorized e) {
+            onUnauthorized(userId);
+            throw e;
         }
     }
 
-    // Helper method to make authenticated API requests
-    public Map<String, Object> makeRequest(HttpMethod method, String endpoint, Object data) {
-        if (accessToken == null) {
-            throw new IllegalStateException("Access token not available. Please authenticate first.");
+    // Helper method to make authenticated API requests. While Upstox is unavailable,
+    // GETs are answered with the last successful response, marked "stale": true
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> makeRequest(String userId, HttpMethod method, String endpoint, Object data) {
+        if (method != HttpMethod.GET) {
+            return makeFreshRequest(userId, method, endpoint, data);
         }
+        return (Map<String, Object>) lastKnownGood.call(userId + " " + endpoint + " " + data,
+                () -> makeFreshRequest(userId, method, endpoint, data), LastKnownGood::markStale);
+    }
+
+    // Like makeRequest, but never answers from the last known good response
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> makeFreshRequest(String userId, HttpMethod method, String endpoint, Object data) {
+        return send(userId, method, endpoint, data, Map.class);
+    }
 
+    private <T> T send(String userId, HttpMethod method, String endpoint, Object data, Class<T> type) {
         HttpHeaders headers = new HttpHeaders();
         headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
-        headers.setBearerAuth(accessToken);
+        headers.setBearerAuth(getAccessToken(userId));
 
         HttpEntity<?> request;
         String url = baseUrl + endpoint;
@@ -164,15 +275,76 @@ public class UpstoxAuthService {
                     url,
                     method,
                     request,
-                    Map.class
+                    type
             ).getBody();
+        } catch (HttpClientErrorException.Unauthorized e) {
+            // Tokens are refreshed ahead of expiry, so this one was revoked or replaced elsewhere
+            onUnauthorized(userId);
+            throw new RuntimeException("API request failed: " + e.getMessage(), e);
         } catch (Exception e) {
-            // Handle token expiration
-            if (e.getMessage().contains("401") && refreshToken != null) {
-                refreshAccessToken();
-                return makeRequest(method, endpoint, data);
-            }
             throw new RuntimeException("API request failed: " + e.getMessage(), e);
         }
     }
+
+    private UpstoxToken doRefresh(String userId) {
+        UpstoxToken current = tokenStore.get(userId)
+                .orElseThrow(() -> new IllegalStateException("Access token not available. Please authenticate first."));
+        if (current.getRefreshToken() == null) {
+            throw new IllegalStateException("Refresh token not available");
+        }
+
+        MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
+        formData.add("refresh_token", current.getRefreshToken());
+        formData.add("client_id", apiKey);
+        formData.add("client_secret", apiSecret);
+        formData.add("grant_type", "refresh_token");
+
+        try {
+            return storeTokens(userId, requestToken(formData), current.getRefreshToken());
+        } catch (HttpClientErrorException.BadRequest | HttpClientErrorException.Unauthorized e) {
+            // Revoked or expired; retrying cannot help, so only a new login brings the session back
+            tokenStore.dropRefreshToken(userId, current.getRefreshToken());
+            logger.info("Upstox rejected the refresh token for {}, a new login is needed", userId);
+            throw new IllegalStateException("Upstox session expired. Please authenticate again.", e);
+        } catch (Exception e) {
+            throw new RuntimeException("Error refreshing token: " + e.getMessage(), e);
+        }
+    }
+
+    private Map<String, Object> requestToken(MultiValueMap<String, String> formData) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> response = restTemplate.postForObject(
+                baseUrl + "/login/authorization/token",
+                new HttpEntity<>(formData, headers),
+                Map.class
+        );
+        if (response == null || response.get("access_token") == null) {
+            throw new RuntimeException("No access token in Upstox response");
+        }
+        return response;
+    }
+
+    private UpstoxToken storeTokens(String userId, Map<String, Object> response, String previousRefreshToken) {
+        UpstoxToken token = new UpstoxToken();
+        token.setId(userId);
+        token.setAccessToken((String) response.get("access_token"));
+        // Keep the old refresh token when Upstox does not rotate it
+        Object refreshToken = response.get("refresh_token");
+        token.setRefreshToken(refreshToken != null ? refreshToken.toString() : previousRefreshToken);
+        token.setExpiresAt(expiresAt(response.get("expires_in")));
+        return tokenStore.save(token);
+    }
+
+    private static Instant expiresAt(Object expiresIn) {
+        if (expiresIn instanceof Number seconds) {
+            return Instant.now().plusSeconds(seconds.longValue());
+        }
+        ZonedDateTime now = ZonedDateTime.now(UPSTOX_ZONE);
+        ZonedDateTime expiry = now.with(UPSTOX_EXPIRY);
+        return (expiry.isAfter(now) ? expiry : expiry.plusDays(1)).toInstant();
+    }
 }
@@ -0,0 +1,102 @@
+package com.backend.wealth_one.services;
+
+import com.backend.wealth_one.models.UpstoxToken;
+import com.backend.wealth_one.repositories.UpstoxTokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Per-user Upstox tokens, stored in MongoDB with an in-memory front so a request
+ * does not read Mongo for its token. Entries are re-read after {@code cache-ttl-ms}
+ * so a refresh made by another instance is picked up.
+ */
+@Component
+public class UpstoxTokenStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstoxTokenStore.class);
+
+    private final UpstoxTokenRepository repository;
+    private final MongoTemplate mongoTemplate;
+    // Users without a token are cached as empty too, so they cost one lookup per TTL
+    private final Cache<String, Optional<UpstoxToken>> tokens;
+
+    public UpstoxTokenStore(UpstoxTokenRepository repository,
+                            MongoTemplate mongoTemplate,
+                            @Value("${upstox.tokens.cache-ttl-ms:600000}") long cacheTtlMs,
+                            @Value("${upstox.tokens.cache-size:10000}") long cacheSize) {
+        this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps(UpstoxToken.class);
+            new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                    .resolveIndexFor(UpstoxToken.class)
+                    .forEach(indexOps::ensureIndex);
+        } catch (RuntimeException e) {
+            logger.warn("Could not create upstox_tokens indexes", e);
+        }
+    }
+
+    public Optional<UpstoxToken> get(String userId) {
+        return tokens.get(userId, repository::findById);
+    }
+
+    public UpstoxToken save(UpstoxToken token) {
+        token.setUpdatedAt(Instant.now());
+        UpstoxToken saved = repository.save(token);
+        tokens.put(saved.getId(), Optional.of(saved));
+        return saved;
+    }
+
+    /**
+     * Drops the in-memory copy, e.g. after Upstox rejected it, so the next
+     * lookup reads the stored token again.
+     */
+    public void evict(String userId) {
+        tokens.invalidate(userId);
+    }
+
+    /**
+     * Forgets a refresh token Upstox rejected, so the refresh job stops trying
+     * it. Left alone if the user has logged in again since.
+     */
+    public void dropRefreshToken(String userId, String refreshToken) {
+        try {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId).and("refreshToken").is(refreshToken)),
+                    new Update().unset("refreshToken").set("updatedAt", Instant.now()), UpstoxToken.class);
+        } catch (DataAccessException e) {
+            logger.warn("Could not drop the rejected Upstox refresh token for {}: {}", userId, e.getMessage());
+        }
+        evict(userId);
+    }
+
+    // Refreshable tokens only; the others can only be replaced by logging in again
+    public List<UpstoxToken> findRefreshableExpiringBefore(Instant expiresAt) {
+        return repository.findByRefreshTokenNotNullAndExpiresAtBefore(expiresAt);
+    }
+}
@@ -0,0 +1,149 @@
+package com.backend.wealth_one.services;
+
+import com.backend.wealth_one.configs.ExecutorConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Walks every page of Upstox's historical trades for a segment and date range.
+ * Results are written out one page at a time, so memory stays bounded by the
+ * pages in flight rather than the size of the account's history.
+ */
+@Service
+public class UpstoxTradeHistoryService {
+
+    private final UpstoxAuthService upstoxAuthService;
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+
+    @Value("${upstox.trades.page-size:500}")
+    private int pageSize;
+
+    // Pages fetched ahead of the one being written
+    @Value("${upstox.trades.page-concurrency:4}")
+    private int pageConcurrency;
+
+    public UpstoxTradeHistoryService(UpstoxAuthService upstoxAuthService,
+                                     ObjectMapper objectMapper,
+                                     @Qualifier(ExecutorConfig.PROVIDER_EXECUTOR) Executor executor) {
+        this.upstoxAuthService = upstoxAuthService;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getPageConcurrency() {
+        return Math.max(1, pageConcurrency);
+    }
+
+    public static String endpoint(String segment, LocalDate startDate, LocalDate endDate, int pageNumber, int pageSize) {
+        return String.format(
+                "/charges/historical-trades?segment=%s&start_date=%s&end_date=%s&page_number=%d&page_size=%d",
+                segment, startDate, endDate, pageNumber, pageSize
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    public static List<Object> trades(Map<String, Object> page) {
+        return page != null && page.get("data") instanceof List<?> data ? (List<Object>) data : List.of();
+    }
+
+    /**
+     * Total page count from {@code meta_data.page.total_pages}, or -1 when Upstox
+     * did not report one.
+     */
+    public static int totalPages(Map<String, Object> page) {
+        if (page != null
+                && page.get("meta_data") instanceof Map<?, ?> meta
+                && meta.get("page") instanceof Map<?, ?> paging
+                && paging.get("total_pages") instanceof Number total) {
+            return total.intValue();
+        }
+        return -1;
+    }
+
+    // Always fresh; a stale page mixed into the stream would go unnoticed
+    public Map<String, Object> fetchPage(String userId, String segment, LocalDate startDate, LocalDate endDate,
+                                         int pageNumber) {
+        return upstoxAuthService.makeFreshRequest(userId, HttpMethod.GET,
+                endpoint(segment, startDate, endDate, pageNumber, pageSize), null);
+    }
+
+    /**
+     * Writes every trade after {@code firstPage} as newline-delimited JSON. Once the
+     * total page count is known the remaining pages are fetched in parallel, and
+     * they are still written in page order. The status has already been sent by
+     * then, so a failed page ends the stream with an {@code {"error": ...}} line,
+     * and pages that have not started yet are skipped rather than fetched.
+     */
+    public void streamTrades(String userId, String segment, LocalDate startDate, LocalDate endDate,
+                             Map<String, Object> firstPage, OutputStream out) throws IOException {
+        try {
+            writeTrades(userId, segment, startDate, endDate, firstPage, out);
+        } catch (RuntimeException e) {
+            out.write(objectMapper.writeValueAsBytes(Map.of("error", String.valueOf(e.getMessage()))));
+            out.write('\n');
+            out.flush();
+        }
+    }
+
+    private void writeTrades(String userId, String segment, LocalDate startDate, LocalDate endDate,
+                             Map<String, Object> firstPage, OutputStream out) throws IOException {
+        writePage(firstPage, out);
+
+        int totalPages = totalPages(firstPage);
+        if (totalPages < 0) {
+            // No page count to plan with; keep going until a short page comes back
+            Map<String, Object> page = firstPage;
+            for (int pageNumber = 2; trades(page).size() >= pageSize; pageNumber++) {
+                page = fetchPage(userId, segment, startDate, endDate, pageNumber);
+                writePage(page, out);
+            }
+            return;
+        }
+
+        // Set when this method returns. After a failed page, fetches that have not
+        // started yet see it and skip the Upstox call; one already under way still finishes
+        AtomicBoolean streamEnded = new AtomicBoolean();
+        Deque<CompletableFuture<Map<String, Object>>> window = new ArrayDeque<>();
+        int nextPage = 2;
+        try {
+            while (nextPage <= totalPages || !window.isEmpty()) {
+                while (nextPage <= totalPages && window.size() < getPageConcurrency()) {
+                    int pageNumber = nextPage++;
+                    window.add(CompletableFuture.supplyAsync(() -> streamEnded.get()
+                            ? null
+                            : fetchPage(userId, segment, startDate, endDate, pageNumber), executor));
+                }
+                writePage(window.poll().join(), out);
+            }
+        } finally {
+            streamEnded.set(true);
+        }
+    }
+
+    private void writePage(Map<String, Object> page, OutputStream out) throws IOException {
+        for (Object trade : trades(page)) {
+            out.write(objectMapper.writeValueAsBytes(trade));
+            out.write('\n');
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,19 @@
+package com.backend.wealth_one.utils;
+
+/**
+ * Thrown instead of hashing or checking a password when the BCrypt pool is
+ * saturated. Callers answer 503 with the suggested {@code Retry-After}.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
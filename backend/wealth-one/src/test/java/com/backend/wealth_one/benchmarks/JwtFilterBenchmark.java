@@ -0,0 +1,147 @@
+package com.backend.wealth_one.benchmarks;
+
+import com.backend.wealth_one.utils.JwtRequestFilter;
+import com.backend.wealth_one.utils.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Base64;
+import java.util.Date;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Per-request cost of JWT authentication in {@link JwtRequestFilter}. It compares
+ * the previous flow against the current filter with and without the verified-claims
+ * cache. The previous flow parsed each token three times and rebuilt and printed the
+ * signing key on every parse.
+ *
+ * <p>Run with {@code ./mvnw -Pbenchmark test -Dtest=JwtFilterBenchmark}.
+ * Tunables: {@code bench.iterations}, {@code bench.warmup}, {@code bench.tokens}.
+ */
+class JwtFilterBenchmark {
+
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 200_000);
+    private static final int WARMUP = Integer.getInteger("bench.warmup", 50_000);
+    private static final int TOKENS = Integer.getInteger("bench.tokens", 1_000);
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private final UserDetailsService userDetailsService = username ->
+            User.withUsername(username).password("unused").authorities("USER").build();
+    private final FilterChain chain = (request, response) -> { };
+
+    @Test
+    void filterOverheadPerRequest() throws Exception {
+        JwtUtil cached = jwtUtil(10_000);
+        JwtUtil uncached = jwtUtil(0);
+        String[] tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = cached.generateToken("user" + i);
+        }
+
+        JwtRequestFilter cachedFilter = filter(cached);
+        JwtRequestFilter uncachedFilter = filter(uncached);
+        LegacyJwtUtil legacy = new LegacyJwtUtil();
+
+        // The old key print went to stdout on every parse; a null stream keeps the
+        // output readable and understates what the previous flow really cost
+        PrintStream stdout = System.out;
+        double legacyNs;
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            legacyNs = measure(tokens, token -> legacyFlow(legacy, token));
+        } finally {
+            System.setOut(stdout);
+        }
+        double uncachedNs = measure(tokens, token -> runFilter(uncachedFilter, token));
+        double cachedNs = measure(tokens, token -> runFilter(cachedFilter, token));
+
+        System.out.printf("%niterations=%d distinct tokens=%d%n", ITERATIONS, TOKENS);
+        System.out.printf("%-28s %12s%n", "mode", "ns/request");
+        System.out.printf("%-28s %12.0f%n", "before (3 parses, key/parse)", legacyNs);
+        System.out.printf("%-28s %12.0f%n", "after, cache disabled", uncachedNs);
+        System.out.printf("%-28s %12.0f%n", "after, claims cached", cachedNs);
+    }
+
+    private double measure(String[] tokens, Function<String, Object> request) {
+        for (int i = 0; i < WARMUP; i++) {
+            assertNotNull(request.apply(tokens[i % tokens.length]));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertNotNull(request.apply(tokens[i % tokens.length]));
+        }
+        return (System.nanoTime() - start) / (double) ITERATIONS;
+    }
+
+    private Object runFilter(JwtRequestFilter filter, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/portfolio/summary");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    // What JwtRequestFilter did before: extractUsername, then validateToken, which
+    // parsed twice more for the subject and the expiry
+    private Object legacyFlow(LegacyJwtUtil legacy, String token) {
+        String username = legacy.extractClaim(token, Claims::getSubject);
+        String loaded = userDetailsService.loadUserByUsername(username).getUsername();
+        boolean valid = legacy.extractClaim(token, Claims::getSubject).equals(loaded)
+                && !legacy.extractClaim(token, Claims::getExpiration).before(new Date());
+        return valid ? loaded : null;
+    }
+
+    private JwtUtil jwtUtil(long cacheSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3600L);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxSize", cacheSize);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return jwtUtil;
+    }
+
+    private JwtRequestFilter filter(JwtUtil jwtUtil) {
+        JwtRequestFilter filter = new JwtRequestFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        return filter;
+    }
+
+    private static class LegacyJwtUtil {
+        <T> T extractClaim(String token, Function<Claims, T> resolver) {
+            Claims claims = Jwts.parserBuilder()
+                    .setSigningKey(signingKey())
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+            return resolver.apply(claims);
+        }
+
+        private Key signingKey() {
+            byte[] keyBytes = SECRET.getBytes(StandardCharsets.UTF_8);
+            System.out.println("🔐 Key (base64): " + Base64.getEncoder().encodeToString(keyBytes));
+            return Keys.hmacShaKeyFor(keyBytes);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.backend.wealth_one.benchmarks;
+
+import com.backend.wealth_one.utils.BoundedPasswordEncoder;
+import com.backend.wealth_one.utils.PasswordHashingBusyException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.AbstractProtocol;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A login storm against the rest of the API: BCrypt on the request threads,
+ * as before, against {@link BoundedPasswordEncoder}. While login clients hammer
+ * {@code /login}, a few clients measure a cheap {@code /api} endpoint.
+ *
+ * <p>Run with {@code ./mvnw -Pbenchmark test -Dtest=LoginStormBenchmark}.
+ * Tunables: {@code bench.durationSeconds}, {@code bench.loginClients},
+ * {@code bench.apiClients}, {@code bench.apiIntervalMs}, {@code bench.bcryptStrength}, {@code bench.bcryptThreads},
+ * {@code bench.bcryptQueue}, {@code bench.tomcatThreads}.
+ */
+class LoginStormBenchmark {
+
+    private static final int DURATION_SECONDS = Integer.getInteger("bench.durationSeconds", 10);
+    private static final int LOGIN_CLIENTS = Integer.getInteger("bench.loginClients", 200);
+    private static final int API_CLIENTS = Integer.getInteger("bench.apiClients", 8);
+    // Pause between one API client's requests, so they do not take the whole CPU themselves
+    private static final int API_INTERVAL_MS = Integer.getInteger("bench.apiIntervalMs", 10);
+    private static final int BCRYPT_STRENGTH = Integer.getInteger("bench.bcryptStrength", 10);
+    private static final int BCRYPT_THREADS = Integer.getInteger("bench.bcryptThreads",
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    private static final int BCRYPT_QUEUE = Integer.getInteger("bench.bcryptQueue", 8);
+    private static final int TOMCAT_THREADS = Integer.getInteger("bench.tomcatThreads", 200);
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Test
+    void loginStorm() throws Exception {
+        Result inline = run("inline", new BCryptPasswordEncoder(BCRYPT_STRENGTH));
+        Result bounded;
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(BCRYPT_STRENGTH, BCRYPT_THREADS, BCRYPT_QUEUE,
+                2000, 1)) {
+            bounded = run("bounded", encoder);
+        }
+
+        System.out.printf("%nduration=%ds loginClients=%d apiClients=%d strength=%d bcryptThreads=%d bcryptQueue=%d cores=%d%n",
+                DURATION_SECONDS, LOGIN_CLIENTS, API_CLIENTS, BCRYPT_STRENGTH, BCRYPT_THREADS, BCRYPT_QUEUE,
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-8s %10s %10s %12s %12s %10s %10s %10s%n",
+                "mode", "logins/s", "503/s", "login-p50", "login-p99", "api/s", "api-p50", "api-p99");
+        inline.print("inline");
+        bounded.print("bounded");
+
+        assertEquals(0, inline.apiErrors() + bounded.apiErrors(), "api requests failed");
+    }
+
+    private Result run(String mode, PasswordEncoder encoder) throws Exception {
+        String hash = new BCryptPasswordEncoder(BCRYPT_STRENGTH).encode(PASSWORD);
+        Tomcat tomcat = startTomcat(encoder, hash);
+        try (ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(httpExecutor)
+                    .build();
+            String base = "http://127.0.0.1:" + tomcat.getConnector().getLocalPort();
+            HttpRequest login = HttpRequest.newBuilder(URI.create(base + "/login"))
+                    .POST(HttpRequest.BodyPublishers.ofString(PASSWORD))
+                    .build();
+            HttpRequest api = HttpRequest.newBuilder(URI.create(base + "/api")).GET().build();
+
+            List<Long> loginLatencies = Collections.synchronizedList(new ArrayList<>());
+            List<Long> apiLatencies = Collections.synchronizedList(new ArrayList<>());
+            AtomicInteger busy = new AtomicInteger();
+            AtomicInteger apiErrors = new AtomicInteger();
+            long end = System.nanoTime() + DURATION_SECONDS * 1_000_000_000L;
+
+            for (int i = 0; i < LOGIN_CLIENTS; i++) {
+                clients.submit(() -> loop(end, () -> {
+                    long sent = System.nanoTime();
+                    HttpResponse<Void> response = client.send(login, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        loginLatencies.add(System.nanoTime() - sent);
+                    } else if (response.statusCode() == 503) {
+                        busy.incrementAndGet();
+                        // Back off as Retry-After asks
+                        long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+                        Thread.sleep(retryAfter * 1000);
+                    }
+                }));
+            }
+            for (int i = 0; i < API_CLIENTS; i++) {
+                clients.submit(() -> loop(end, () -> {
+                    long sent = System.nanoTime();
+                    HttpResponse<Void> response = client.send(api, HttpResponse.BodyHandlers.discarding());
+                    apiLatencies.add(System.nanoTime() - sent);
+                    if (response.statusCode() != 200) {
+                        apiErrors.incrementAndGet();
+                    }
+                    Thread.sleep(API_INTERVAL_MS);
+                }));
+            }
+            clients.shutdown();
+            clients.awaitTermination(DURATION_SECONDS + 60L, TimeUnit.SECONDS);
+
+            return new Result(
+                    loginLatencies.size() / (double) DURATION_SECONDS,
+                    busy.get() / (double) DURATION_SECONDS,
+                    percentile(loginLatencies, 0.50), percentile(loginLatencies, 0.99),
+                    apiLatencies.size() / (double) DURATION_SECONDS,
+                    percentile(apiLatencies, 0.50), percentile(apiLatencies, 0.99),
+                    apiErrors.get());
+        } finally {
+            tomcat.stop();
+            tomcat.destroy();
+        }
+    }
+
+    private Tomcat startTomcat(PasswordEncoder encoder, String hash) throws Exception {
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("tomcat-bench").toString());
+
+        Connector connector = new Connector("HTTP/1.1");
+        connector.setPort(0);
+        connector.setProperty("maxConnections", "20000");
+        connector.setProperty("acceptCount", "10000");
+        ((AbstractProtocol<?>) connector.getProtocolHandler()).setMaxThreads(TOMCAT_THREADS);
+        tomcat.getService().addConnector(connector);
+        tomcat.setConnector(connector);
+
+        Context context = tomcat.addContext("", null);
+        // Same outcomes as AuthController: 200, 401, or 503 with Retry-After
+        Tomcat.addServlet(context, "login", new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                String password = new String(req.getInputStream().readAllBytes());
+                try {
+                    resp.setStatus(encoder.matches(password, hash) ? 200 : 401);
+                } catch (PasswordHashingBusyException e) {
+                    resp.setStatus(503);
+                    resp.setHeader("Retry-After", String.valueOf(e.getRetryAfterSeconds()));
+                }
+            }
+        });
+        context.addServletMappingDecoded("/login", "login");
+        // Stands in for a cached read, e.g. a portfolio snapshot
+        Tomcat.addServlet(context, "api", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType("application/json");
+                resp.getWriter().write("{\"totalValue\":\"1520.35\"}");
+            }
+        });
+        context.addServletMappingDecoded("/api", "api");
+
+        tomcat.start();
+        return tomcat;
+    }
+
+    private static void loop(long endNanos, Call call) {
+        while (System.nanoTime() < endNanos) {
+            try {
+                call.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Counted by the caller where it matters; keep the load going
+            }
+        }
+    }
+
+    private static double percentile(List<Long> latencies, double quantile) {
+        if (latencies.isEmpty()) {
+            return Double.NaN;
+        }
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return sorted.get(Math.min(sorted.size() - 1, (int) (sorted.size() * quantile))) / 1_000_000.0;
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        void run() throws Exception;
+    }
+
+    private record Result(double loginsPerSecond, double busyPerSecond, double loginP50Ms, double loginP99Ms,
+                          double apiPerSecond, double apiP50Ms, double apiP99Ms, int apiErrors) {
+        void print(String mode) {
+            System.out.printf("%-8s %10.1f %10.1f %12.1f %12.1f %10.1f %10.1f %10.1f%n",
+                    mode, loginsPerSecond, busyPerSecond, loginP50Ms, loginP99Ms, apiPerSecond, apiP50Ms, apiP99Ms);
+        }
+    }
+}
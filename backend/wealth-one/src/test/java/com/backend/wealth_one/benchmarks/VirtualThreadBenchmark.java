@@ -0,0 +1,216 @@
+package com.backend.wealth_one.benchmarks;
+
+import com.backend.wealth_one.clients.Provider;
+import com.backend.wealth_one.clients.ProviderGuards;
+import com.backend.wealth_one.clients.ProviderHttpClients;
+import com.backend.wealth_one.clients.ProviderMetrics;
+import com.backend.wealth_one.clients.ProviderRateLimiters;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.AbstractProtocol;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares Tomcat request handling on a fixed platform pool against virtual
+ * threads, for a handler that makes one blocking provider call through
+ * {@link ProviderHttpClients} to an upstream with fixed latency.
+ *
+ * <p>Run with {@code ./mvnw -Pbenchmark test -Dtest=VirtualThreadBenchmark}.
+ * Tunables: {@code bench.requests}, {@code bench.concurrency},
+ * {@code bench.upstreamLatencyMs}, {@code bench.tomcatThreads}.
+ */
+class VirtualThreadBenchmark {
+
+    private static final int REQUESTS = Integer.getInteger("bench.requests", 4000);
+    private static final int CONCURRENCY = Integer.getInteger("bench.concurrency", 1000);
+    private static final int UPSTREAM_LATENCY_MS = Integer.getInteger("bench.upstreamLatencyMs", 200);
+    private static final int TOMCAT_THREADS = Integer.getInteger("bench.tomcatThreads", 200);
+
+    static {
+        // The JDK server closes idle keep-alive connections beyond 200 by default,
+        // which would surface as stale pooled connections rather than thread limits
+        System.setProperty("sun.net.httpserver.maxIdleConnections", "20000");
+    }
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        AtomicInteger upstreamInFlight = new AtomicInteger();
+        AtomicInteger upstreamPeak = new AtomicInteger();
+        HttpServer upstream = startUpstream(upstreamInFlight, upstreamPeak);
+
+        try {
+            Result platform = run(false, upstream, upstreamPeak);
+            Result virtual = run(true, upstream, upstreamPeak);
+
+            System.out.printf("%nrequests=%d concurrency=%d upstreamLatency=%dms tomcatThreads=%d%n",
+                    REQUESTS, CONCURRENCY, UPSTREAM_LATENCY_MS, TOMCAT_THREADS);
+            System.out.printf("%-10s %12s %12s %10s %10s %10s%n",
+                    "mode", "req/s", "peak-inflight", "p50(ms)", "p99(ms)", "errors");
+            platform.print("platform");
+            virtual.print("virtual");
+
+            assertEquals(0, platform.errors() + virtual.errors(), "benchmark requests failed");
+        } finally {
+            upstream.stop(0);
+        }
+    }
+
+    private Result run(boolean virtualThreads, HttpServer upstream, AtomicInteger upstreamPeak) throws Exception {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("http.client.stock.max-connections", String.valueOf(CONCURRENCY))
+                .withProperty("http.client.stock.pool-acquire-timeout-ms", "60000")
+                .withProperty("http.client.stock.read-timeout-ms", "60000")
+                // Measure threading, not the provider quota
+                .withProperty("rate-limit.stock.default.permits-per-second", "1000000")
+                .withProperty("rate-limit.stock.default.burst", "1000000")
+                .withProperty("resilience.stock.max-concurrent", String.valueOf(CONCURRENCY * 2))
+                // ...nor the circuit breaker: queueing in platform mode makes calls slow enough to trip it
+                .withProperty("resilience.stock.slow-call-ms", String.valueOf(Integer.MAX_VALUE))
+                .withProperty("resilience.stock.minimum-calls", String.valueOf(REQUESTS + 1))
+                .withProperty("resilience.stock.window-size", String.valueOf(REQUESTS + 1));
+        String upstreamUrl = "http://127.0.0.1:" + upstream.getAddress().getPort() + "/stock";
+
+        try (ProviderRateLimiters rateLimiters = new ProviderRateLimiters(env);
+             ProviderHttpClients clients = new ProviderHttpClients(env, new ProviderGuards(env), rateLimiters,
+                     new ProviderMetrics(new SimpleMeterRegistry()))) {
+            Tomcat tomcat = startTomcat(virtualThreads, clients.restTemplate(Provider.STOCK), upstreamUrl);
+            try {
+                URI uri = URI.create("http://127.0.0.1:" + tomcat.getConnector().getLocalPort() + "/quote");
+                upstreamPeak.set(0);
+                return drive(uri, upstreamPeak);
+            } finally {
+                tomcat.stop();
+                tomcat.destroy();
+            }
+        }
+    }
+
+    private Result drive(URI uri, AtomicInteger upstreamPeak) throws Exception {
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore permits = new Semaphore(CONCURRENCY);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[REQUESTS];
+
+        try (ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientExecutor)
+                    .build();
+            HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                permits.acquire();
+                int index = i;
+                long sent = System.nanoTime();
+                futures[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, error) -> {
+                            latencies[index] = System.nanoTime() - sent;
+                            if (error != null || response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                            permits.release();
+                        });
+            }
+            CompletableFuture.allOf(futures).exceptionally(e -> null).join();
+            long elapsed = System.nanoTime() - start;
+
+            Arrays.sort(latencies);
+            return new Result(
+                    REQUESTS / (elapsed / 1_000_000_000.0),
+                    upstreamPeak.get(),
+                    latencies[(int) (REQUESTS * 0.50)] / 1_000_000.0,
+                    latencies[Math.min(REQUESTS - 1, (int) (REQUESTS * 0.99))] / 1_000_000.0,
+                    errors.get());
+        }
+    }
+
+    private Tomcat startTomcat(boolean virtualThreads, RestTemplate restTemplate, String upstreamUrl) throws Exception {
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("tomcat-bench").toString());
+
+        Connector connector = new Connector("HTTP/1.1");
+        connector.setPort(0);
+        connector.setProperty("maxConnections", "20000");
+        connector.setProperty("acceptCount", "10000");
+        AbstractProtocol<?> protocol = (AbstractProtocol<?>) connector.getProtocolHandler();
+        if (virtualThreads) {
+            // Same executor Spring Boot installs for spring.threads.virtual.enabled=true
+            protocol.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        } else {
+            protocol.setMaxThreads(TOMCAT_THREADS);
+        }
+        tomcat.getService().addConnector(connector);
+        tomcat.setConnector(connector);
+
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "quote", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                String body = restTemplate.getForObject(upstreamUrl, String.class);
+                resp.setContentType("application/json");
+                resp.getWriter().write(body);
+            }
+        });
+        context.addServletMappingDecoded("/quote", "quote");
+
+        tomcat.start();
+        return tomcat;
+    }
+
+    private HttpServer startUpstream(AtomicInteger inFlight, AtomicInteger peak) throws IOException {
+        byte[] body = "{\"currentPrice\":{\"NSE\":\"1520.35\",\"BSE\":\"1520.10\"}}".getBytes(StandardCharsets.UTF_8);
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 20000);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/stock", exchange -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(UPSTREAM_LATENCY_MS);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private record Result(double throughput, int peakInFlight, double p50Ms, double p99Ms, int errors) {
+        void print(String mode) {
+            System.out.printf("%-10s %12.1f %12d %10.1f %10.1f %10d%n",
+                    mode, throughput, peakInFlight, p50Ms, p99Ms, errors);
+        }
+    }
+}
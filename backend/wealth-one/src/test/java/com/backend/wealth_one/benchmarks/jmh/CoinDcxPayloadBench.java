@@ -0,0 +1,94 @@
+package com.backend.wealth_one.benchmarks.jmh;
+
+import com.backend.wealth_one.models.User;
+import com.backend.wealth_one.repositories.UserRepository;
+import com.backend.wealth_one.services.CoinDcxAuthService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * JSON serialization of the CoinDCX request payload. {@code signedRequest} is
+ * the current single pass. The other cases are the earlier path, which wrote the
+ * payload with {@code org.json} for the signature and again with Jackson for
+ * the request body.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CoinDcxPayloadBench {
+
+    private static final String USER = "bench-user";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CoinDcxAuthService authService;
+    private Map<String, Object> body;
+
+    @Setup
+    public void setUp() {
+        // Only the first call reads the repository, later ones hit the signer cache
+        User user = new User();
+        user.setCoindcxApiKey("bench-key");
+        user.setCoindcxApiSecret("bench-secret-bench-secret-bench-secret");
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findCoinDcxKeysByUsername(USER)).thenReturn(Optional.of(user));
+        authService = new CoinDcxAuthService(userRepository, objectMapper, 300_000, 10_000);
+        ReflectionTestUtils.setField(authService, "signerPoolSize", 16);
+
+        body = new HashMap<>();
+        body.put("symbol", "BTCINR");
+        body.put("limit", 500);
+        body.put("from_id", 123456789L);
+    }
+
+    private Map<String, Object> payload() {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("timestamp", System.currentTimeMillis());
+        payload.putAll(body);
+        return payload;
+    }
+
+    @Benchmark
+    public String signaturePayload() {
+        return new JSONObject(payload()).toString();
+    }
+
+    @Benchmark
+    public byte[] requestBody() throws Exception {
+        return objectMapper.writeValueAsBytes(payload());
+    }
+
+    // What one signed call cost in serialization before
+    @Benchmark
+    public int signatureAndRequestBody() throws Exception {
+        Map<String, Object> payload = payload();
+        return new JSONObject(payload).toString().length() + objectMapper.writeValueAsBytes(payload).length;
+    }
+
+    // Serialized once; the same bytes are signed and sent
+    @Benchmark
+    public CoinDcxAuthService.SignedRequest signedRequest() {
+        return authService.sign(USER, body);
+    }
+}
@@ -0,0 +1,84 @@
+package com.backend.wealth_one.benchmarks.jmh;
+
+import com.backend.wealth_one.models.User;
+import com.backend.wealth_one.repositories.UserRepository;
+import com.backend.wealth_one.services.CoinDcxAuthService;
+import com.backend.wealth_one.services.CoinDcxSigner;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * HMAC-SHA256 request signing for CoinDCX: the bare signer, and the full
+ * signed request from {@link CoinDcxAuthService} including the JSON payload.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CoinDcxSigningBench {
+
+    private static final String USER = "bench-user";
+
+    private CoinDcxSigner signer;
+    private CoinDcxAuthService authService;
+    private Map<String, Object> payload;
+    private String payloadJson;
+
+    @Setup
+    public void setUp() {
+        signer = new CoinDcxSigner("bench-key", "bench-secret-bench-secret-bench-secret", 16);
+
+        // Only the first call reads the repository, later ones hit the signer cache
+        User user = new User();
+        user.setCoindcxApiKey("bench-key");
+        user.setCoindcxApiSecret("bench-secret-bench-secret-bench-secret");
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findCoinDcxKeysByUsername(USER)).thenReturn(Optional.of(user));
+        authService = new CoinDcxAuthService(userRepository, new ObjectMapper(), 300_000, 10_000);
+        ReflectionTestUtils.setField(authService, "signerPoolSize", 16);
+
+        payload = new HashMap<>();
+        payload.put("symbol", "BTCINR");
+        payload.put("limit", 500);
+        payload.put("from_id", 123456789L);
+        payloadJson = "{\"timestamp\":1735689600000,\"symbol\":\"BTCINR\",\"limit\":500,\"from_id\":123456789}";
+    }
+
+    @Benchmark
+    public String sign() {
+        return signer.sign(payloadJson);
+    }
+
+    // Eight threads share one signer's Mac pool
+    @Benchmark
+    @Threads(8)
+    public String signContended() {
+        return signer.sign(payloadJson);
+    }
+
+    @Benchmark
+    public CoinDcxAuthService.SignedRequest signRequest() {
+        return authService.sign(USER, payload);
+    }
+}
@@ -0,0 +1,163 @@
+package com.backend.wealth_one.benchmarks.jmh;
+
+import com.backend.wealth_one.utils.JwtRequestFilter;
+import com.backend.wealth_one.utils.JwtUtil;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Objects shared by the JMH benchmarks, wired the way Spring would wire them.
+ */
+final class Fixtures {
+
+    static final String JWT_SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    static final UserDetailsService USER_DETAILS = username ->
+            User.withUsername(username).password("unused").authorities("USER").build();
+
+    private Fixtures() {
+    }
+
+    static JwtUtil jwtUtil(long claimsCacheSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3600L);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxSize", claimsCacheSize);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return jwtUtil;
+    }
+
+    static JwtRequestFilter jwtRequestFilter(JwtUtil jwtUtil) {
+        JwtRequestFilter filter = new JwtRequestFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "userDetailsService", USER_DETAILS);
+        return filter;
+    }
+
+    /**
+     * A CoinMarketCap {@code /v1/cryptocurrency/map} body with {@code entries}
+     * coins, shaped like the real one (about 250 bytes per coin).
+     */
+    static byte[] cmcMap(int entries) {
+        StringBuilder json = new StringBuilder(entries * 260);
+        json.append("{\"status\":{\"timestamp\":\"2025-01-01T00:00:00.000Z\",\"error_code\":0,")
+                .append("\"error_message\":null,\"elapsed\":12,\"credit_count\":1,\"notice\":null},\"data\":[");
+        for (int i = 1; i <= entries; i++) {
+            if (i > 1) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"rank\":").append(i)
+                    .append(",\"name\":\"Coin ").append(i)
+                    .append("\",\"symbol\":\"C").append(i)
+                    .append("\",\"slug\":\"coin-").append(i)
+                    .append("\",\"is_active\":1,\"first_historical_data\":\"2017-01-01T00:00:00.000Z\"")
+                    .append(",\"last_historical_data\":\"2025-01-01T00:00:00.000Z\"")
+                    .append(",\"platform\":{\"id\":1027,\"name\":\"Ethereum\",\"symbol\":\"ETH\",\"slug\":\"ethereum\"")
+                    .append(",\"token_address\":\"0x").append(String.format("%040x", i)).append("\"}}");
+        }
+        json.append("]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A CoinMarketCap v1 {@code /quotes/latest} body for {@code symbols} coins,
+     * with the full field set CMC sends (about 1.3 KB per coin).
+     */
+    static byte[] cmcQuotes(int symbols) {
+        StringBuilder json = new StringBuilder(symbols * 1400);
+        json.append("{\"status\":{\"timestamp\":\"2025-01-01T00:00:00.000Z\",\"error_code\":0,")
+                .append("\"error_message\":null,\"elapsed\":24,\"credit_count\":1,\"notice\":null},\"data\":{");
+        for (int i = 1; i <= symbols; i++) {
+            if (i > 1) {
+                json.append(',');
+            }
+            json.append("\"C").append(i).append("\":{\"id\":").append(i)
+                    .append(",\"name\":\"Coin ").append(i).append("\",\"symbol\":\"C").append(i)
+                    .append("\",\"slug\":\"coin-").append(i)
+                    .append("\",\"num_market_pairs\":").append(1000 + i)
+                    .append(",\"date_added\":\"2017-01-01T00:00:00.000Z\",\"tags\":[");
+            for (int t = 0; t < 12; t++) {
+                json.append(t > 0 ? "," : "").append("\"tag-number-").append(t).append('"');
+            }
+            json.append("],\"max_supply\":21000000,\"circulating_supply\":19600000.5,\"total_supply\":19600000.5")
+                    .append(",\"is_active\":1,\"infinite_supply\":false,\"platform\":null,\"cmc_rank\":").append(i)
+                    .append(",\"is_fiat\":0,\"self_reported_circulating_supply\":null,\"self_reported_market_cap\":null")
+                    .append(",\"tvl_ratio\":null,\"last_updated\":\"2025-01-01T00:00:00.000Z\",\"quote\":{\"INR\":{")
+                    .append("\"price\":").append(5_000_000.123456 + i)
+                    .append(",\"volume_24h\":2345678901234.56,\"volume_change_24h\":-3.1234")
+                    .append(",\"percent_change_1h\":0.1234,\"percent_change_24h\":1.2345,\"percent_change_7d\":-2.3456")
+                    .append(",\"percent_change_30d\":10.4567,\"percent_change_60d\":20.5678,\"percent_change_90d\":30.6789")
+                    .append(",\"market_cap\":98765432109876.54,\"market_cap_dominance\":54.321")
+                    .append(",\"fully_diluted_market_cap\":105000000000000.12,\"tvl\":null")
+                    .append(",\"last_updated\":\"2025-01-01T00:00:00.000Z\"}}}");
+        }
+        json.append("}}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * An Upstox {@code /portfolio/long-term-holdings} body with {@code holdings}
+     * entries and every field Upstox returns for a holding.
+     */
+    static byte[] upstoxHoldings(int holdings) {
+        StringBuilder json = new StringBuilder(holdings * 600);
+        json.append("{\"status\":\"success\",\"data\":[");
+        for (int i = 1; i <= holdings; i++) {
+            if (i > 1) {
+                json.append(',');
+            }
+            json.append("{\"isin\":\"INE").append(String.format("%09d", i)).append("\",\"cnc_used_quantity\":0")
+                    .append(",\"collateral_type\":\"WC\",\"company_name\":\"Example Industries Limited ").append(i)
+                    .append("\",\"haircut\":0.2,\"product\":\"D\",\"quantity\":").append(i % 50 + 1)
+                    .append(",\"tradingsymbol\":\"STOCK").append(i).append("\",\"trading_symbol\":\"STOCK").append(i)
+                    .append("\",\"last_price\":").append(1000.05 + i)
+                    .append(",\"close_price\":").append(995.4 + i)
+                    .append(",\"pnl\":1234.56,\"day_change\":4.65,\"day_change_percentage\":0.4671")
+                    .append(",\"instrument_token\":\"NSE_EQ|INE").append(String.format("%09d", i))
+                    .append("\",\"average_price\":").append(900.25 + i)
+                    .append(",\"collateral_quantity\":0,\"collateral_update_quantity\":0,\"t1_quantity\":0")
+                    .append(",\"exchange\":\"NSE\"}");
+        }
+        json.append("]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A stock API {@code /stock} body: the price plus the company profile,
+     * financials and news the API always includes (about 50 KB).
+     */
+    static byte[] stockQuote() {
+        StringBuilder json = new StringBuilder(64 * 1024);
+        json.append("{\"companyName\":\"Example Industries\",\"industry\":\"Refineries\",\"companyProfile\":{")
+                .append("\"companyDescription\":\"").append("An example company description. ".repeat(40))
+                .append("\",\"mgIndustry\":\"Refineries\",\"isInId\":\"INE002A01018\",\"officers\":[");
+        for (int i = 0; i < 10; i++) {
+            json.append(i > 0 ? "," : "").append("{\"rank\":").append(i)
+                    .append(",\"firstName\":\"First\",\"lastName\":\"Last\",\"title\":\"Director\",\"since\":\"2010\"}");
+        }
+        json.append("]},\"currentPrice\":{\"BSE\":\"2899.55\",\"NSE\":\"2900.10\"},\"percentChange\":\"0.85\"")
+                .append(",\"yearHigh\":\"3217.60\",\"yearLow\":\"2220.30\",\"financials\":[");
+        for (int f = 0; f < 12; f++) {
+            json.append(f > 0 ? "," : "").append("{\"FiscalYear\":\"").append(2013 + f)
+                    .append("\",\"Type\":\"Annual\",\"stockFinancialMap\":{\"INC\":[");
+            for (int k = 0; k < 40; k++) {
+                json.append(k > 0 ? "," : "").append("{\"displayName\":\"Line item ").append(k)
+                        .append("\",\"key\":\"Key").append(k).append("\",\"value\":\"").append(123456.78 + k)
+                        .append("\",\"yqoqp\":null}");
+            }
+            json.append("]}}");
+        }
+        json.append("],\"recentNews\":[");
+        for (int n = 0; n < 10; n++) {
+            json.append(n > 0 ? "," : "").append("{\"id\":\"n").append(n)
+                    .append("\",\"headline\":\"Example headline\",\"intro\":\"").append("Intro text. ".repeat(20))
+                    .append("\",\"url\":\"https://example.com/news/").append(n).append("\"}");
+        }
+        json.append("]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,71 @@
+package com.backend.wealth_one.benchmarks.jmh;
+
+import com.backend.wealth_one.utils.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtUtil} token generation, and validation with and without the
+ * verified-claims cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBench {
+
+    private static final int TOKENS = 1024;
+
+    private JwtUtil cached;
+    private JwtUtil uncached;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        cached = Fixtures.jwtUtil(10_000);
+        uncached = Fixtures.jwtUtil(0);
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = cached.generateToken("user" + i);
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cached.generateToken("user");
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return cached.verify(nextToken());
+    }
+
+    @Benchmark
+    public Claims verifyUncached() {
+        return uncached.verify(nextToken());
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        String token = nextToken();
+        return cached.validateToken(token, cached.extractUsername(token));
+    }
+
+    private String nextToken() {
+        return tokens[next++ & (TOKENS - 1)];
+    }
+}
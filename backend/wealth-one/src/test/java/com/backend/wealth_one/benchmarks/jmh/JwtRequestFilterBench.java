@@ -0,0 +1,68 @@
+package com.backend.wealth_one.benchmarks.jmh;
+
+import com.backend.wealth_one.utils.JwtRequestFilter;
+import com.backend.wealth_one.utils.JwtUtil;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request overhead of {@link JwtRequestFilter}, including building the
+ * authentication and clearing the security context afterwards.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtRequestFilterBench {
+
+    private static final int TOKENS = 1024;
+
+    // 0 disables the verified-claims cache
+    @Param({"10000", "0"})
+    public long claimsCacheSize;
+
+    private final FilterChain chain = (request, response) -> { };
+    private JwtRequestFilter filter;
+    private String[] headers;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = Fixtures.jwtUtil(claimsCacheSize);
+        filter = Fixtures.jwtRequestFilter(jwtUtil);
+        headers = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            headers[i] = "Bearer " + jwtUtil.generateToken("user" + i);
+        }
+    }
+
+    @Benchmark
+    public Authentication authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/portfolio/summary");
+        request.addHeader("Authorization", headers[next++ & (TOKENS - 1)]);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
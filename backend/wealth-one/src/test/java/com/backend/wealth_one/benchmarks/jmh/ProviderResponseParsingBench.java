@@ -0,0 +1,98 @@
+package com.backend.wealth_one.benchmarks.jmh;
+
+import com.backend.wealth_one.models.providers.CmcQuotes;
+import com.backend.wealth_one.models.providers.StockQuote;
+import com.backend.wealth_one.models.providers.UpstoxHoldings;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing provider responses into a generic {@code Map}, as the RestTemplate
+ * calls that asked for {@code Map.class} did, against the typed models in
+ * {@code models.providers}. Run with {@code -prof gc} to see the allocation
+ * per parse ({@code gc.alloc.rate.norm}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class ProviderResponseParsingBench {
+
+    private static final TypeReference<Map<String, Object>> MAP = new TypeReference<>() { };
+
+    // Coins in the CMC map, which is about 2.5 MB at 10000
+    @Param({"1000", "10000"})
+    public int entries;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] cmcMap;
+    private byte[] cmcQuotes;
+    private byte[] upstoxHoldings;
+    private byte[] stockQuote;
+
+    @Setup
+    public void setUp() {
+        cmcMap = Fixtures.cmcMap(entries);
+        // A portfolio-sized quote batch and holdings list
+        cmcQuotes = Fixtures.cmcQuotes(50);
+        upstoxHoldings = Fixtures.upstoxHoldings(100);
+        stockQuote = Fixtures.stockQuote();
+    }
+
+    @Benchmark
+    public Map<String, Object> cmcMapToMap() throws Exception {
+        return objectMapper.readValue(cmcMap, MAP);
+    }
+
+    @Benchmark
+    public JsonNode cmcMapToTree() throws Exception {
+        return objectMapper.readTree(cmcMap);
+    }
+
+    @Benchmark
+    public Map<String, Object> cmcQuotesToMap() throws Exception {
+        return objectMapper.readValue(cmcQuotes, MAP);
+    }
+
+    @Benchmark
+    public CmcQuotes cmcQuotesTyped() throws Exception {
+        return objectMapper.readValue(cmcQuotes, CmcQuotes.class);
+    }
+
+    @Benchmark
+    public Map<String, Object> upstoxHoldingsToMap() throws Exception {
+        return objectMapper.readValue(upstoxHoldings, MAP);
+    }
+
+    @Benchmark
+    public UpstoxHoldings upstoxHoldingsTyped() throws Exception {
+        return objectMapper.readValue(upstoxHoldings, UpstoxHoldings.class);
+    }
+
+    @Benchmark
+    public Map<String, Object> stockQuoteToMap() throws Exception {
+        return objectMapper.readValue(stockQuote, MAP);
+    }
+
+    @Benchmark
+    public StockQuote stockQuoteTyped() throws Exception {
+        return objectMapper.readValue(stockQuote, StockQuote.class);
+    }
+}
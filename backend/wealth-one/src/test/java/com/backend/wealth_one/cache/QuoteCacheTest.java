@@ -0,0 +1,105 @@
+package com.backend.wealth_one.cache;
+
+import com.backend.wealth_one.clients.ProviderUnavailableException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QuoteCacheTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Test
+    void concurrentMissesShareOneLoad() {
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<Map<QuoteKey, String>> upstream = new CompletableFuture<>();
+        QuoteCache<String> cache = new QuoteCache<>("test", new QuoteCacheSettings(60_000, 60_000, 100), WAIT,
+                keys -> {
+                    loads.incrementAndGet();
+                    return upstream;
+                }, executor);
+
+        QuoteKey btc = QuoteKey.of("btc", "inr");
+        List<CompletableFuture<String>> callers = List.of(cache.getAsync(btc), cache.getAsync(btc), cache.getAsync(btc));
+        upstream.complete(Map.of(btc, "6000000"));
+
+        callers.forEach(caller -> assertEquals("6000000", caller.join()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void missesFromOneRequestAreLoadedInOneBatch() {
+        AtomicInteger loads = new AtomicInteger();
+        QuoteCache<String> cache = new QuoteCache<>("test", new QuoteCacheSettings(60_000, 60_000, 100), WAIT,
+                keys -> {
+                    loads.incrementAndGet();
+                    return CompletableFuture.completedFuture(pricesFor(keys));
+                }, executor);
+
+        cache.get(QuoteKey.of("BTC", "INR"));
+        Map<QuoteKey, String> quotes = cache.getAll(List.of(
+                QuoteKey.of("BTC", "INR"), QuoteKey.of("ETH", "INR"), QuoteKey.of("SOL", "INR")));
+
+        assertEquals(3, quotes.size());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void staleEntryIsServedWhileRefreshing() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        QuoteCache<String> cache = new QuoteCache<>("test", new QuoteCacheSettings(50, 60_000, 100), WAIT,
+                keys -> CompletableFuture.supplyAsync(() -> {
+                    int load = loads.incrementAndGet();
+                    Map<QuoteKey, String> values = new HashMap<>();
+                    keys.forEach(key -> values.put(key, "v" + load));
+                    return values;
+                }, CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS, executor)), executor);
+
+        QuoteKey key = QuoteKey.of("INFY", "INR");
+        assertEquals("v1", cache.get(key));
+        Thread.sleep(100);
+
+        // Past the TTL the old value comes back immediately and a refresh runs behind it
+        assertEquals("v1", cache.get(key));
+        String refreshed = cache.get(key);
+        for (int i = 0; i < 50 && refreshed.equals("v1"); i++) {
+            Thread.sleep(10);
+            refreshed = cache.get(key);
+        }
+        assertEquals("v2", refreshed);
+    }
+
+    @Test
+    void blockingReadGivesUpAfterMaxWait() {
+        CompletableFuture<Map<QuoteKey, String>> upstream = new CompletableFuture<>();
+        QuoteCache<String> cache = new QuoteCache<>("test", new QuoteCacheSettings(60_000, 60_000, 100),
+                Duration.ofMillis(100), keys -> upstream, executor);
+
+        QuoteKey btc = QuoteKey.of("BTC", "INR");
+        assertThrows(ProviderUnavailableException.class, () -> cache.get(btc));
+
+        // The load was left running and still fills the cache
+        upstream.complete(Map.of(btc, "6000000"));
+        assertEquals("6000000", cache.get(btc));
+    }
+
+    private static Map<QuoteKey, String> pricesFor(Set<QuoteKey> keys) {
+        Map<QuoteKey, String> prices = new HashMap<>();
+        keys.forEach(key -> prices.put(key, key.symbol() + "-price"));
+        return prices;
+    }
+}
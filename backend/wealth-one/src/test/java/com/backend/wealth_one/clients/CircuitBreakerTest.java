@@ -0,0 +1,72 @@
+package com.backend.wealth_one.clients;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CircuitBreakerTest {
+
+    // window 4, minimum 4 calls, opens at 50% failures, 1s open, 2 trial calls, 100ms slow
+    private static final ProviderGuardSettings SETTINGS = new ProviderGuardSettings(10, 0, 50, 100, 4, 4, 1000, 2);
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker("test", SETTINGS, now::get);
+
+    @Test
+    void opensOnceTheFailureRateIsReachedAndRecoversAfterTrialCalls() {
+        breaker.onSuccess(breaker.tryAcquire(), 0);
+        breaker.onSuccess(breaker.tryAcquire(), 0);
+        breaker.onFailure(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        breaker.onFailure(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertNull(breaker.tryAcquire());
+
+        now.addAndGet(1_000_000_000L);
+        CircuitBreaker.Permit first = breaker.tryAcquire();
+        CircuitBreaker.Permit second = breaker.tryAcquire();
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(breaker.tryAcquire(), "only the configured number of trial calls");
+
+        breaker.onSuccess(first, 0);
+        breaker.onSuccess(second, 0);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void slowCallsCountAsFailuresAndAFailedTrialReopens() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onSuccess(breaker.tryAcquire(), 200_000_000L);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        now.addAndGet(1_000_000_000L);
+        breaker.onFailure(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertNull(breaker.tryAcquire());
+    }
+
+    @Test
+    void outcomesOfCallsAdmittedBeforeTheCircuitOpenedAreDropped() {
+        CircuitBreaker.Permit stale = breaker.tryAcquire();
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure(breaker.tryAcquire());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        now.addAndGet(1_000_000_000L);
+        CircuitBreaker.Permit trial = breaker.tryAcquire();
+        assertNotNull(trial);
+        // A success from before the circuit opened neither counts as a trial nor frees one
+        breaker.onSuccess(stale, 0);
+        breaker.onIgnored(stale);
+        assertNotNull(breaker.tryAcquire());
+        assertNull(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+    }
+}
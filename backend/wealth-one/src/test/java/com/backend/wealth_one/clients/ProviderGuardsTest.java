@@ -0,0 +1,96 @@
+package com.backend.wealth_one.clients;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ProviderGuardsTest {
+
+    private static final String URL = "https://api.coindcx.test/exchange/v1/users/balances";
+
+    @Test
+    void waitingForARateLimitPermitIsNotASlowCall() {
+        // One permit a second, and any call over 100ms counts as a failure
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("rate-limit.coindcx.default.permits-per-second", "1")
+                .withProperty("rate-limit.coindcx.default.burst", "1")
+                .withProperty("resilience.coindcx.slow-call-ms", "100")
+                .withProperty("resilience.coindcx.window-size", "1")
+                .withProperty("resilience.coindcx.minimum-calls", "1");
+        ProviderGuards guards = new ProviderGuards(env);
+
+        try (ProviderRateLimiters rateLimiters = new ProviderRateLimiters(env);
+             ProviderHttpClients clients = new ProviderHttpClients(env, guards, rateLimiters,
+                     new ProviderMetrics(new SimpleMeterRegistry()))) {
+            RestTemplate restTemplate = clients.restTemplate(Provider.COINDCX);
+            MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+            server.expect(ExpectedCount.times(2), requestTo(URL))
+                    .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+            restTemplate.getForObject(URL, String.class);
+            // Waits about a second in the limiter queue before it is sent
+            restTemplate.getForObject(URL, String.class);
+
+            server.verify();
+            assertEquals(CircuitBreaker.State.CLOSED, guards.circuitBreaker(Provider.COINDCX).state());
+            assertEquals(0, guards.stats().get("coindcx").get("inFlight"));
+        }
+    }
+
+    @Test
+    void aStreamedResponseHoldsItsBulkheadSlotUntilClosed() throws Exception {
+        MockEnvironment env = new MockEnvironment();
+        ProviderGuards guards = new ProviderGuards(env);
+
+        try (ProviderRateLimiters rateLimiters = new ProviderRateLimiters(env);
+             ProviderHttpClients clients = new ProviderHttpClients(env, guards, rateLimiters,
+                     new ProviderMetrics(new SimpleMeterRegistry()))) {
+            RestTemplate restTemplate = clients.restTemplate(Provider.COINDCX);
+            MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+            server.expect(requestTo(URL)).andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+            ClientHttpResponse response = clients.open(Provider.COINDCX, HttpMethod.GET, URL, new HttpHeaders(), null);
+            assertEquals(1, guards.stats().get("coindcx").get("inFlight"));
+
+            response.getBody().readAllBytes();
+            response.close();
+            assertEquals(0, guards.stats().get("coindcx").get("inFlight"));
+            assertEquals(1, guards.stats().get("coindcx").get("bufferedCalls"));
+        }
+    }
+
+    @Test
+    void anOpenCircuitIsRefusedBeforeTakingARateLimitPermit() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("rate-limit.coindcx.default.burst", "1")
+                .withProperty("resilience.coindcx.window-size", "1")
+                .withProperty("resilience.coindcx.minimum-calls", "1");
+        ProviderGuards guards = new ProviderGuards(env);
+        CircuitBreaker breaker = guards.circuitBreaker(Provider.COINDCX);
+        breaker.onFailure(breaker.tryAcquire());
+
+        try (ProviderRateLimiters rateLimiters = new ProviderRateLimiters(env);
+             ProviderHttpClients clients = new ProviderHttpClients(env, guards, rateLimiters,
+                     new ProviderMetrics(new SimpleMeterRegistry()))) {
+            RestTemplate restTemplate = clients.restTemplate(Provider.COINDCX);
+            MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+
+            assertThrows(ProviderUnavailableException.class, () -> restTemplate.getForObject(URL, String.class));
+
+            server.verify();
+            assertEquals(0L, rateLimiters.stats().get("coindcx.default").get("granted"));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.backend.wealth_one.clients;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ProviderMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void timesCallsByProviderEndpointAndStatus() {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new ProviderMetrics(registry).interceptor(Provider.COINDCX));
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo("https://api.example.com/exchange/v1/orders/12345?limit=10"))
+                .andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS));
+        server.expect(requestTo("https://api.example.com/exchange/v1/users/info"))
+                .andRespond(withSuccess());
+
+        assertThrows(HttpClientErrorException.TooManyRequests.class, () ->
+                restTemplate.getForObject("https://api.example.com/exchange/v1/orders/12345?limit=10", String.class));
+        restTemplate.exchange("https://api.example.com/exchange/v1/users/info", HttpMethod.POST, null, String.class);
+
+        Timer limited = registry.find(ProviderMetrics.REQUESTS)
+                .tags("provider", "coindcx", "endpoint", "/exchange/v1/orders/{id}", "status", "429")
+                .timer();
+        assertNotNull(limited);
+        assertEquals(1, limited.count());
+        assertEquals("CLIENT_ERROR", limited.getId().getTag("outcome"));
+
+        Timer ok = registry.find(ProviderMetrics.REQUESTS)
+                .tags("endpoint", "/exchange/v1/users/info", "method", "POST", "outcome", "SUCCESS")
+                .timer();
+        assertNotNull(ok);
+        assertEquals(1, ok.count());
+    }
+}
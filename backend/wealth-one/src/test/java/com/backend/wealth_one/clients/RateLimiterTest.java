@@ -0,0 +1,63 @@
+package com.backend.wealth_one.clients;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void interactiveCallersAreServedBeforeQueuedBackgroundWork() {
+        RateLimiter limiter = new RateLimiter("test", new RateLimitSettings(null, 50, 1, 10, 5_000), scheduler);
+        limiter.acquire(RequestPriority.BACKGROUND).join();
+
+        List<String> order = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> background = limiter.acquire(RequestPriority.BACKGROUND)
+                .thenRun(() -> order.add("background"));
+        CompletableFuture<Void> interactive = limiter.acquire(RequestPriority.INTERACTIVE)
+                .thenRun(() -> order.add("interactive"));
+
+        CompletableFuture.allOf(background, interactive).orTimeout(2, TimeUnit.SECONDS).join();
+        assertEquals(List.of("interactive", "background"), order);
+    }
+
+    @Test
+    void callersBeyondTheQueueLimitAreRejected() {
+        RateLimiter limiter = new RateLimiter("test", new RateLimitSettings(null, 0.001, 1, 1, 5_000), scheduler);
+        limiter.acquire(RequestPriority.INTERACTIVE).join();
+        limiter.acquire(RequestPriority.INTERACTIVE);
+
+        assertThrows(RateLimitExceededException.class,
+                () -> limiter.acquireBlocking(RequestPriority.INTERACTIVE));
+        assertEquals(1L, limiter.stats().get("rejected"));
+    }
+
+    @Test
+    void waitersGiveUpAfterMaxWait() {
+        RateLimiter limiter = new RateLimiter("test", new RateLimitSettings(null, 0.001, 1, 10, 50), scheduler);
+        limiter.acquire(RequestPriority.INTERACTIVE).join();
+
+        CompletableFuture<Void> waiter = limiter.acquire(RequestPriority.INTERACTIVE);
+        Throwable failure = assertThrows(Exception.class, () -> waiter.get(2, TimeUnit.SECONDS)).getCause();
+        assertInstanceOf(RateLimitExceededException.class, failure);
+        assertTrue(limiter.stats().get("timedOut") instanceof Long timedOut && timedOut == 1);
+    }
+}
@@ -0,0 +1,121 @@
+package com.backend.wealth_one.controllers;
+
+import com.backend.wealth_one.clients.Provider;
+import com.backend.wealth_one.clients.ProviderGuards;
+import com.backend.wealth_one.clients.ProviderHttpClients;
+import com.backend.wealth_one.clients.ProviderMetrics;
+import com.backend.wealth_one.clients.ProviderRateLimiters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PassThroughResponsesTest {
+
+    @Test
+    void streamsTheUpstreamBodyThroughTheProviderClient() throws Exception {
+        MockEnvironment env = new MockEnvironment();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        byte[] upstreamBody = "{\"status\":\"success\",\"data\":[{\"tradingsymbol\":\"INFY\"}]}".getBytes();
+
+        try (ProviderRateLimiters rateLimiters = new ProviderRateLimiters(env);
+             ProviderHttpClients clients = new ProviderHttpClients(env, new ProviderGuards(env), rateLimiters,
+                     new ProviderMetrics(registry))) {
+            MockRestServiceServer server = MockRestServiceServer.bindTo(clients.restTemplate(Provider.UPSTOX)).build();
+            server.expect(requestTo("https://api.example.com/portfolio/long-term-holdings"))
+                    .andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer token"))
+                    .andRespond(withSuccess(upstreamBody, MediaType.APPLICATION_JSON));
+            server.expect(requestTo("https://api.example.com/user/profile"))
+                    .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth("token");
+            ResponseEntity<Resource> response = PassThroughResponses.of(clients.open(Provider.UPSTOX,
+                    HttpMethod.GET, "https://api.example.com/portfolio/long-term-holdings", headers, null));
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+            try (InputStream in = response.getBody().getInputStream()) {
+                assertArrayEquals(upstreamBody, in.readAllBytes());
+            }
+
+            assertThrows(HttpClientErrorException.NotFound.class, () -> clients.open(Provider.UPSTOX,
+                    HttpMethod.GET, "https://api.example.com/user/profile", new HttpHeaders(), null));
+            // Both calls went through the provider interceptors
+            assertEquals(2, registry.find("provider.requests").tag("provider", "upstox").timers().stream()
+                    .mapToLong(timer -> timer.count()).sum());
+            server.verify();
+        }
+    }
+
+    // MVC chooses how to write a body from its class, so check the bytes really reach the client
+    @Test
+    void mvcWritesBothKindsOfStreamedBodyUnchanged() throws Exception {
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new StreamingController()).build();
+
+        mvc.perform(get("/blocking"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string("{\"data\":[1,2]}"));
+
+        MvcResult reactive = mvc.perform(get("/reactive")).andExpect(request().asyncStarted()).andReturn();
+        reactive.getAsyncResult(5000);
+        MvcResult written = mvc.perform(asyncDispatch(reactive)).andReturn();
+        written.getAsyncResult(5000);
+        assertEquals(HttpStatus.ACCEPTED.value(), written.getResponse().getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, written.getResponse().getContentType());
+        assertEquals("{\"data\":[1,2]}", written.getResponse().getContentAsString());
+    }
+
+    @RestController
+    static class StreamingController {
+
+        @GetMapping("/blocking")
+        public ResponseEntity<?> blocking() throws Exception {
+            MockClientHttpResponse upstream = new MockClientHttpResponse("{\"data\":[1,2]}".getBytes(), HttpStatus.OK);
+            upstream.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return PassThroughResponses.of(upstream);
+        }
+
+        @GetMapping("/reactive")
+        public Mono<Object> reactive() {
+            DefaultDataBufferFactory buffers = DefaultDataBufferFactory.sharedInstance;
+            Flux<DataBuffer> body = Flux.just("{\"data\"", ":[1,2]}")
+                    .map(chunk -> buffers.wrap(chunk.getBytes()));
+            return Mono.just(PassThroughResponses.of(ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .contentType(MediaType.APPLICATION_JSON).body(body)));
+        }
+    }
+}
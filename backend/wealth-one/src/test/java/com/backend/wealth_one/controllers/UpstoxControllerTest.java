@@ -0,0 +1,124 @@
+package com.backend.wealth_one.controllers;
+
+import com.backend.wealth_one.cache.LastKnownGoodRegistry;
+import com.backend.wealth_one.clients.Provider;
+import com.backend.wealth_one.clients.ProviderHttpClients;
+import com.backend.wealth_one.models.UpstoxToken;
+import com.backend.wealth_one.services.UpstoxAuthService;
+import com.backend.wealth_one.services.UpstoxTokenStore;
+import com.backend.wealth_one.services.UpstoxTradeHistoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class UpstoxControllerTest {
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void eachUserCallsUpstoxWithTheirOwnToken() throws Exception {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer upstox = MockRestServiceServer.bindTo(restTemplate).build();
+        ProviderHttpClients clients = mock(ProviderHttpClients.class);
+        when(clients.restTemplate(Provider.UPSTOX)).thenReturn(restTemplate);
+
+        UpstoxTokenStore tokenStore = mock(UpstoxTokenStore.class);
+        when(tokenStore.get("alice")).thenReturn(Optional.of(token("alice", "alice-token")));
+        when(tokenStore.get("bob")).thenReturn(Optional.of(token("bob", "bob-token")));
+
+        UpstoxAuthService authService = new UpstoxAuthService(clients, tokenStore, new LastKnownGoodRegistry(new MockEnvironment()));
+        ReflectionTestUtils.setField(authService, "baseUrl", "https://upstox.test/v2");
+        UpstoxController controller = new UpstoxController(authService, mock(UpstoxTradeHistoryService.class));
+        ReflectionTestUtils.setField(controller, "streaming", false);
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        upstox.expect(requestTo("https://upstox.test/v2/user/profile"))
+                .andExpect(header("Authorization", "Bearer alice-token"))
+                .andRespond(withSuccess("{\"data\":{\"user_name\":\"Alice\"}}", MediaType.APPLICATION_JSON));
+        upstox.expect(requestTo("https://upstox.test/v2/user/profile"))
+                .andExpect(header("Authorization", "Bearer bob-token"))
+                .andRespond(withSuccess("{\"data\":{\"user_name\":\"Bob\"}}", MediaType.APPLICATION_JSON));
+
+        signIn("alice");
+        mvc.perform(get("/api/upstox/profile")).andExpect(jsonPath("$.data.user_name").value("Alice"));
+        signIn("bob");
+        mvc.perform(get("/api/upstox/profile")).andExpect(jsonPath("$.data.user_name").value("Bob"));
+        upstox.verify();
+
+        // No shared fallback session for anonymous callers
+        SecurityContextHolder.clearContext();
+        mvc.perform(get("/api/upstox/profile")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void tradeHistoryReachesTheClientAsNdjson() throws Exception {
+        UpstoxTradeHistoryService tradeHistory = mock(UpstoxTradeHistoryService.class);
+        Map<String, Object> firstPage = Map.of("data", List.of());
+        when(tradeHistory.fetchPage(eq("alice"), eq("EQ"), any(), any(), eq(1))).thenReturn(firstPage);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(5).write("{\"trade_id\":\"1\"}\n{\"trade_id\":\"2\"}\n".getBytes());
+            return null;
+        }).when(tradeHistory).streamTrades(eq("alice"), eq("EQ"), any(), any(), eq(firstPage), any());
+        UpstoxController controller = new UpstoxController(mock(UpstoxAuthService.class), tradeHistory);
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        signIn("alice");
+        MvcResult started = mvc.perform(get("/api/upstox/trades-history")).andExpect(request().asyncStarted()).andReturn();
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"trade_id\":\"1\"}\n{\"trade_id\":\"2\"}\n"));
+
+        MvcResult rejected = mvc.perform(get("/api/upstox/trades-history")
+                        .param("startDate", "2025-02-01").param("endDate", "2025-01-01"))
+                .andReturn();
+        mvc.perform(asyncDispatch(rejected))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("startDate must not be after endDate"));
+    }
+
+    private static void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, AuthorityUtils.NO_AUTHORITIES));
+    }
+
+    private static UpstoxToken token(String userId, String accessToken) {
+        UpstoxToken token = new UpstoxToken();
+        token.setId(userId);
+        token.setAccessToken(accessToken);
+        return token;
+    }
+}
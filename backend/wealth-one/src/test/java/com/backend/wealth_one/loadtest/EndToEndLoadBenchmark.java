@@ -0,0 +1,400 @@
+package com.backend.wealth_one.loadtest;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives every endpoint in {@code com.backend.wealth_one.controllers} against the
+ * {@link ProviderStubs}, one scenario at a time, and reports throughput and
+ * p50/p99 latency per endpoint.
+ *
+ * <p>The application runs in-process with its real configuration, so caches,
+ * rate limiters and circuit breakers behave as in production. Only MongoDB is
+ * external: a local {@code mongod}, whose load-test database is dropped before
+ * each run. Without one the suite is skipped.
+ *
+ * <p>Run with {@code ./mvnw -Pbenchmark test -Dtest=EndToEndLoadBenchmark}.
+ * Tunables: {@code load.durationSeconds}, {@code load.warmupSeconds},
+ * {@code load.clients}, {@code load.users}, {@code load.only} (a regex over
+ * scenario names), {@code load.clientMode} ({@code blocking} or
+ * {@code reactive}), {@code load.mongoUri}, plus {@code load.app.<property>}
+ * for any application property and the {@code stub.*} settings of
+ * {@link ProviderStub.Behaviour}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class EndToEndLoadBenchmark {
+
+    private static final int DURATION_SECONDS = Integer.getInteger("load.durationSeconds", 10);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmupSeconds", 2);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 16);
+    private static final int USERS = Integer.getInteger("load.users", 10);
+    private static final Pattern ONLY = Pattern.compile(System.getProperty("load.only", ".*"));
+    private static final String MONGO_URI = System.getProperty("load.mongoUri", "mongodb://localhost:27017/wealth-one-load");
+
+    private static final String PASSWORD = "load-test-password";
+    private static final String CONTROLLERS = "com.backend.wealth_one.controllers";
+    private static final Pattern STATE = Pattern.compile("[?&]state=([^&]+)");
+
+    private static ProviderStubs stubs;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @BeforeAll
+    static void startStubs() throws Exception {
+        ConnectionString mongo = new ConnectionString(MONGO_URI);
+        Assumptions.assumeTrue(reachable(mongo.getHosts().get(0)), "No MongoDB at " + MONGO_URI);
+        Assumptions.assumeTrue(String.valueOf(mongo.getDatabase()).contains("load"),
+                "load.mongoUri must name a load-test database, it is dropped before each run");
+        // Before the application starts, so the indexes it creates on startup are kept
+        try (MongoClient mongoClient = MongoClients.create(mongo)) {
+            mongoClient.getDatabase(mongo.getDatabase()).drop();
+        }
+        stubs = ProviderStubs.start();
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        if (stubs != null) {
+            stubs.close();
+        }
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", () -> MONGO_URI);
+        registry.add("jwt.secret", () -> "load-test-secret-load-test-secret-load-test-secret-0123456789");
+        registry.add("jwt.expiration", () -> "86400");
+        // The shipped default is a fixed 8081, which a second run on the same machine would clash with
+        registry.add("management.server.port", () -> "0");
+        registry.add("provider.client.mode", () -> System.getProperty("load.clientMode", "blocking"));
+        for (String key : List.of("coindcx.api.baseUrl", "upstox.api.baseUrl", "coinmarketcap.api.baseUrl",
+                "stock.api.baseUrl", "upstox.api.key", "upstox.api.secret",
+                "upstox.redirect.uri", "coinmarketcap.api.key", "stock.api.key")) {
+            registry.add(key, () -> stubs.properties().get(key));
+        }
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("load.app."))
+                .forEach(name -> registry.add(name.substring("load.app.".length()), () -> System.getProperty(name)));
+    }
+
+    @Test
+    void allControllers() throws Exception {
+        List<Scenario> scenarios = scenarios();
+        assertEquals(Set.of(), undriven(scenarios), "endpoints without a scenario");
+
+        List<Session> sessions = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            sessions.add(signUp("load-user-" + i));
+        }
+        stubs.all().forEach(ProviderStub::resetCounts);
+
+        Map<String, Result> results = new TreeMap<>();
+        for (Scenario scenario : scenarios) {
+            if (ONLY.matcher(scenario.name()).matches()) {
+                run(scenario, sessions, WARMUP_SECONDS);
+                results.put(scenario.name(), run(scenario, sessions, DURATION_SECONDS));
+            }
+        }
+
+        report(results);
+        results.forEach((name, result) -> assertTrue(result.requests() > 0, name + " completed no requests"));
+    }
+
+    // Endpoints are "METHOD /pattern" as mapped in the controllers
+    private List<Scenario> scenarios() {
+        LocalDate today = LocalDate.now();
+        AtomicInteger registrations = new AtomicInteger();
+        return List.of(
+                new Scenario("auth-register", "POST /auth/v1/register", session -> send(post("/auth/v1/register",
+                        "{\"username\":\"load-new-" + registrations.incrementAndGet() + "-" + System.nanoTime()
+                                + "\",\"password\":\"" + PASSWORD + "\"}"))),
+                new Scenario("auth-login", "POST /auth/v1/login", session -> send(post("/auth/v1/login",
+                        "{\"username\":\"" + session.username() + "\",\"password\":\"" + PASSWORD + "\"}"))),
+                new Scenario("auth-logout", "POST /auth/v1/logout", session -> send(post("/auth/v1/logout", "{}"))),
+                new Scenario("user-credentials", "PUT /api/v1/user-credentials", session -> send(authorized(session,
+                        "/api/v1/user-credentials").PUT(json(credentials())).build())),
+                new Scenario("upstox-oauth", List.of("GET /login", "GET /upstox/callback"), this::upstoxLogin),
+                new Scenario("crypto-prices", "GET /api/crypto/prices", session -> get(session,
+                        "/api/crypto/prices?symbol=BTC,ETH,SOL&convert=INR")),
+                new Scenario("crypto-map", "GET /api/crypto/map", session -> get(session, "/api/crypto/map")),
+                new Scenario("stock", "GET /api/v1/stock", session -> get(session, "/api/v1/stock?name=STOCK1")),
+                new Scenario("stocks", "GET /api/v1/stocks", session -> get(session,
+                        "/api/v1/stocks?names=STOCK1,STOCK2,STOCK3,STOCK4,STOCK5")),
+                new Scenario("coindcx-user-info", "POST /api/coindcx/user-info", session -> send(authorized(session,
+                        "/api/coindcx/user-info").POST(HttpRequest.BodyPublishers.noBody()).build())),
+                new Scenario("coindcx-user-balance", "POST /api/coindcx/user-balance", session -> send(authorized(session,
+                        "/api/coindcx/user-balance").POST(HttpRequest.BodyPublishers.noBody()).build())),
+                new Scenario("coindcx-trade-history", "POST /api/coindcx/trade-history", session -> send(authorized(
+                        session, "/api/coindcx/trade-history?size=100").POST(HttpRequest.BodyPublishers.noBody()).build())),
+                new Scenario("upstox-profile", "GET /api/upstox/profile", session -> get(session, "/api/upstox/profile")),
+                new Scenario("upstox-funds", "GET /api/upstox/funds", session -> get(session, "/api/upstox/funds")),
+                new Scenario("upstox-holdings", "GET /api/upstox/holdings", session -> get(session, "/api/upstox/holdings")),
+                new Scenario("upstox-trades-history", "GET /api/upstox/trades-history", session -> get(session,
+                        "/api/upstox/trades-history?segment=EQ&startDate=" + today.minusYears(1) + "&endDate=" + today)),
+                new Scenario("portfolio-summary", "GET /api/v1/portfolio/summary", session -> get(session,
+                        "/api/v1/portfolio/summary")),
+                new Scenario("portfolio-summary-refresh", "GET /api/v1/portfolio/summary", session -> get(session,
+                        "/api/v1/portfolio/summary?refresh=true")),
+                new Scenario("price-history", "GET /api/v1/history/{symbol}", session -> get(session,
+                        "/api/v1/history/BTC?currency=INR")),
+                new Scenario("price-stream-first-event", "GET /api/v1/stream/prices", this::firstPriceEvent),
+                new Scenario("metrics-http-pools", "GET /api/v1/metrics/http-pools", session -> get(session,
+                        "/api/v1/metrics/http-pools")),
+                new Scenario("metrics-quote-cache", "GET /api/v1/metrics/quote-cache", session -> get(session,
+                        "/api/v1/metrics/quote-cache")),
+                new Scenario("metrics-rate-limits", "GET /api/v1/metrics/rate-limits", session -> get(session,
+                        "/api/v1/metrics/rate-limits")),
+                new Scenario("metrics-circuit-breakers", "GET /api/v1/metrics/circuit-breakers", session -> get(session,
+                        "/api/v1/metrics/circuit-breakers")),
+                new Scenario("metrics-last-known-good", "GET /api/v1/metrics/last-known-good", session -> get(session,
+                        "/api/v1/metrics/last-known-good")));
+    }
+
+    private Set<String> undriven(List<Scenario> scenarios) {
+        Set<String> driven = new TreeSet<>();
+        scenarios.forEach(scenario -> driven.addAll(scenario.endpoints()));
+
+        Set<String> missing = new TreeSet<>();
+        handlerMapping.getHandlerMethods().forEach((info, method) -> {
+            if (!method.getBeanType().getPackageName().equals(CONTROLLERS)) {
+                return;
+            }
+            for (String pattern : info.getPatternValues()) {
+                info.getMethodsCondition().getMethods().forEach(httpMethod -> {
+                    String endpoint = httpMethod.name() + " " + pattern;
+                    if (!driven.contains(endpoint)) {
+                        missing.add(endpoint);
+                    }
+                });
+            }
+        });
+        return missing;
+    }
+
+    private Session signUp(String username) throws Exception {
+        send(post("/auth/v1/register", "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}"));
+        HttpResponse<String> login = client.send(post("/auth/v1/login",
+                "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}"), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, login.statusCode(), "login of " + username + ": " + login.body());
+        Matcher token = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"").matcher(login.body());
+        assertTrue(token.find(), "no token for " + username);
+        Session session = new Session(username, token.group(1));
+
+        assertEquals(200, send(authorized(session, "/api/v1/user-credentials").PUT(json(credentials())).build()));
+        assertEquals(200, upstoxLogin(session), "Upstox login of " + username);
+        return session;
+    }
+
+    // The OAuth round trip: /login hands out the state, the callback trades the code for tokens at the stub
+    private int upstoxLogin(Session session) throws Exception {
+        HttpResponse<Void> login = client.send(authorized(session, "/login").GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+        Matcher state = STATE.matcher(login.headers().firstValue("Location").orElse(""));
+        if (login.statusCode() != 302 || !state.find()) {
+            return login.statusCode() == 302 ? 500 : login.statusCode();
+        }
+        HttpResponse<String> callback = client.send(authorized(session, "/upstox/callback?code=stub-code&state="
+                + URLEncoder.encode(state.group(1), StandardCharsets.UTF_8)).GET().build(), HttpResponse.BodyHandlers.ofString());
+        // The callback answers 200 either way; the body says whether it worked
+        return callback.body().startsWith("Authentication successful") ? callback.statusCode() : 502;
+    }
+
+    // Time until the first price event, then the stream is dropped
+    private int firstPriceEvent(Session session) throws Exception {
+        HttpResponse<InputStream> response = client.send(authorized(session,
+                "/api/v1/stream/prices?crypto=BTC,ETH&stocks=STOCK1").GET().build(), HttpResponse.BodyHandlers.ofInputStream());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            if (response.statusCode() != 200) {
+                return response.statusCode();
+            }
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.startsWith("event:price")) {
+                    return 200;
+                }
+            }
+            return 502;
+        }
+    }
+
+    private Result run(Scenario scenario, List<Session> sessions, int seconds) throws Exception {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        ConcurrentMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                Session session = sessions.get(i % sessions.size());
+                clients.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        long sent = System.nanoTime();
+                        int status;
+                        try {
+                            status = scenario.call().run(session);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (Exception e) {
+                            // Connection failures and timeouts
+                            status = 0;
+                        }
+                        latencies.add(System.nanoTime() - sent);
+                        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                    }
+                });
+            }
+            clients.shutdown();
+            clients.awaitTermination(seconds + 120L, TimeUnit.SECONDS);
+        }
+
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return new Result(latencies.size(), latencies.size() / (double) seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), counts);
+    }
+
+    private void report(Map<String, Result> results) {
+        System.out.printf("%nduration=%ds clients=%d users=%d clientMode=%s cores=%d%n", DURATION_SECONDS, CLIENTS, USERS,
+                System.getProperty("load.clientMode", "blocking"), Runtime.getRuntime().availableProcessors());
+        for (ProviderStub stub : stubs.all()) {
+            System.out.printf("stub %-14s %s%n", stub.name(), stub.behaviour());
+        }
+
+        System.out.printf("%n%-28s %8s %10s %10s %10s  %s%n", "scenario", "requests", "req/s", "p50-ms", "p99-ms", "statuses");
+        results.forEach((name, result) -> System.out.printf("%-28s %8d %10.1f %10.1f %10.1f  %s%n",
+                name, result.requests(), result.perSecond(), result.p50Ms(), result.p99Ms(), result.statuses()));
+
+        System.out.printf("%n%-14s %10s %10s %10s  %s%n", "provider", "requests", "429s", "500s", "per route");
+        for (ProviderStub stub : stubs.all()) {
+            Map<String, Long> counts = stub.requestCounts();
+            System.out.printf("%-14s %10d %10d %10d  %s%n", stub.name(),
+                    counts.values().stream().mapToLong(Long::longValue).sum(), stub.throttledCount(), stub.failedCount(),
+                    counts);
+        }
+    }
+
+    private int get(Session session, String path) throws Exception {
+        return send(authorized(session, path).GET().build());
+    }
+
+    private int send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(uri(path)).POST(json(body)).header("Content-Type", "application/json").build();
+    }
+
+    private HttpRequest.Builder authorized(Session session, String path) {
+        return HttpRequest.newBuilder(uri(path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Authorization", "Bearer " + session.token())
+                .header("Content-Type", "application/json");
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + port + path);
+    }
+
+    private static HttpRequest.BodyPublisher json(String body) {
+        return HttpRequest.BodyPublishers.ofString(body);
+    }
+
+    private static String credentials() {
+        return "{\"coindcxApiKey\":\"stub-key\",\"coindcxApiSecret\":\"stub-secret\"}";
+    }
+
+    private static boolean reachable(String hostAndPort) {
+        int colon = hostAndPort.lastIndexOf(':');
+        String host = colon < 0 ? hostAndPort : hostAndPort.substring(0, colon);
+        int mongoPort = colon < 0 ? 27017 : Integer.parseInt(hostAndPort.substring(colon + 1));
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, mongoPort), 1000);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static double percentile(List<Long> latencies, double quantile) {
+        if (latencies.isEmpty()) {
+            return Double.NaN;
+        }
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return sorted.get(Math.min(sorted.size() - 1, (int) (sorted.size() * quantile))) / 1_000_000.0;
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        int run(Session session) throws Exception;
+    }
+
+    private record Session(String username, String token) {
+    }
+
+    private record Scenario(String name, List<String> endpoints, Call call) {
+
+        Scenario(String name, String endpoint, Call call) {
+            this(name, List.of(endpoint), call);
+        }
+    }
+
+    private record Result(int requests, double perSecond, double p50Ms, double p99Ms, Map<Integer, Long> statuses) {
+    }
+}
@@ -0,0 +1,216 @@
+package com.backend.wealth_one.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An in-process stand-in for one provider API, on a random local port.
+ *
+ * <p>Every request waits {@code latencyMs} plus up to {@code jitterMs}, then is
+ * answered with a 429 ({@code throttleRate}), a 500 ({@code errorRate}) or the
+ * route's response. Requests are served on virtual threads, so the latency
+ * does not limit how many are in flight.
+ */
+final class ProviderStub implements AutoCloseable {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /**
+     * Latency and failures injected into every response.
+     */
+    record Behaviour(long latencyMs, long jitterMs, double errorRate, double throttleRate, int retryAfterSeconds) {
+
+        static final Behaviour NONE = new Behaviour(0, 0, 0, 0, 1);
+
+        /**
+         * Reads {@code stub.<provider>.<name>}, falling back to {@code stub.<name>}.
+         */
+        static Behaviour fromSystemProperties(String provider) {
+            return new Behaviour(
+                    Long.parseLong(property(provider, "latencyMs", "20")),
+                    Long.parseLong(property(provider, "jitterMs", "10")),
+                    Double.parseDouble(property(provider, "errorRate", "0")),
+                    Double.parseDouble(property(provider, "throttleRate", "0")),
+                    Integer.parseInt(property(provider, "retryAfterSeconds", "1")));
+        }
+
+        private static String property(String provider, String name, String defaultValue) {
+            return System.getProperty("stub." + provider + "." + name, System.getProperty("stub." + name, defaultValue));
+        }
+    }
+
+    record Request(String method, String path, Map<String, String> query, byte[] body) {
+
+        String param(String name, String defaultValue) {
+            return query.getOrDefault(name, defaultValue);
+        }
+
+        Map<?, ?> jsonBody() throws IOException {
+            return body.length == 0 ? Map.of() : JSON.readValue(body, Map.class);
+        }
+    }
+
+    /**
+     * A status and a body; a {@code byte[]} body is sent as is, anything else as JSON.
+     */
+    record Response(int status, Object body) {
+
+        static Response ok(Object body) {
+            return new Response(200, body);
+        }
+    }
+
+    @FunctionalInterface
+    interface Route {
+        Response handle(Request request) throws IOException;
+    }
+
+    private final String name;
+    private final Behaviour behaviour;
+    private final HttpServer server;
+    // "METHOD /path" to route; query strings are not part of the key
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, LongAdder> requests = new ConcurrentHashMap<>();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    ProviderStub(String name, Behaviour behaviour) throws IOException {
+        this.name = name;
+        this.behaviour = behaviour;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::serve);
+    }
+
+    ProviderStub route(String method, String path, Route route) {
+        routes.put(method + " " + path, route);
+        return this;
+    }
+
+    ProviderStub start() {
+        server.start();
+        return this;
+    }
+
+    String name() {
+        return name;
+    }
+
+    Behaviour behaviour() {
+        return behaviour;
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Requests received per route, including the ones answered with a 429 or 500.
+     */
+    Map<String, Long> requestCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        requests.forEach((route, count) -> counts.put(route, count.sum()));
+        return counts;
+    }
+
+    long throttledCount() {
+        return throttled.sum();
+    }
+
+    long failedCount() {
+        return failed.sum();
+    }
+
+    void resetCounts() {
+        requests.clear();
+        throttled.reset();
+        failed.reset();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            Route route = routes.get(method + " " + path);
+            if (route == null) {
+                send(exchange, new Response(404, Map.of("error", "No stub for " + method + " " + path)));
+                return;
+            }
+            requests.computeIfAbsent(method + " " + path, key -> new LongAdder()).increment();
+            delay();
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < behaviour.throttleRate()) {
+                throttled.increment();
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(behaviour.retryAfterSeconds()));
+                send(exchange, new Response(429, Map.of("error", "Too many requests")));
+                return;
+            }
+            if (roll < behaviour.throttleRate() + behaviour.errorRate()) {
+                failed.increment();
+                send(exchange, new Response(500, Map.of("error", "Injected failure")));
+                return;
+            }
+
+            Request request = new Request(method, path, query(exchange.getRequestURI().getRawQuery()),
+                    exchange.getRequestBody().readAllBytes());
+            send(exchange, route.handle(request));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void delay() throws InterruptedException {
+        long jitter = behaviour.jitterMs() > 0 ? ThreadLocalRandom.current().nextLong(behaviour.jitterMs() + 1) : 0;
+        long delay = behaviour.latencyMs() + jitter;
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        byte[] body = response.body() instanceof byte[] bytes ? bytes : JSON.writeValueAsBytes(response.body());
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.status(), body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+}
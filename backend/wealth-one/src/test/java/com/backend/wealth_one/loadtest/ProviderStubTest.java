@@ -0,0 +1,53 @@
+package com.backend.wealth_one.loadtest;
+
+import com.backend.wealth_one.models.providers.CmcQuotes;
+import com.backend.wealth_one.models.providers.UpstoxHoldings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class ProviderStubTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void servesBodiesTheApplicationModelsRead() throws Exception {
+        try (ProviderStub cmc = ProviderStubs.coinMarketCap(ProviderStub.Behaviour.NONE).start();
+             ProviderStub upstox = ProviderStubs.upstox(ProviderStub.Behaviour.NONE).start()) {
+            CmcQuotes quotes = objectMapper.readValue(
+                    get(cmc.baseUrl() + "/v1/cryptocurrency/quotes/latest?symbol=BTC,ETH&convert=INR").body(),
+                    CmcQuotes.class);
+            assertEquals(2, quotes.getData().size());
+            assertNotNull(quotes.getData().get("ETH").price("INR"));
+
+            UpstoxHoldings holdings = objectMapper.readValue(
+                    get(upstox.baseUrl() + "/v2/portfolio/long-term-holdings").body(), UpstoxHoldings.class);
+            assertEquals("STOCK1", holdings.getData().get(0).getTradingsymbol());
+            assertEquals(Map.of("GET /v2/portfolio/long-term-holdings", 1L), upstox.requestCounts());
+        }
+    }
+
+    @Test
+    void injectsThrottlingWithRetryAfter() throws Exception {
+        try (ProviderStub stock = ProviderStubs.stock(new ProviderStub.Behaviour(0, 0, 0, 1.0, 7)).start()) {
+            HttpResponse<String> response = get(stock.baseUrl() + "/stock?name=INFY");
+
+            assertEquals(429, response.statusCode());
+            assertEquals("7", response.headers().firstValue("Retry-After").orElse(null));
+            assertEquals(1, stock.throttledCount());
+        }
+    }
+
+    private HttpResponse<String> get(String url) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,309 @@
+package com.backend.wealth_one.loadtest;
+
+import com.backend.wealth_one.loadtest.ProviderStub.Behaviour;
+import com.backend.wealth_one.loadtest.ProviderStub.Request;
+import com.backend.wealth_one.loadtest.ProviderStub.Response;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-ins for CoinDCX, Upstox, CoinMarketCap and the stock API, serving
+ * the endpoints the application calls with bodies shaped like the real ones.
+ *
+ * <p>Run {@link #main} to keep them up for a locally started application; it
+ * prints the properties that point the application at them.
+ */
+final class ProviderStubs implements AutoCloseable {
+
+    // Size of the generated data; the real APIs return similar amounts for an active user
+    private static final int CMC_MAP_ENTRIES = Integer.getInteger("stub.coinmarketcap.mapEntries", 5000);
+    private static final int UPSTOX_HOLDINGS = Integer.getInteger("stub.upstox.holdings", 20);
+    private static final int UPSTOX_TRADES = Integer.getInteger("stub.upstox.trades", 1200);
+    private static final int COINDCX_TRADES = Integer.getInteger("stub.coindcx.trades", 1000);
+
+    private static final List<String> COINS = List.of("BTC", "ETH", "SOL", "XRP", "ADA", "DOGE", "DOT", "MATIC");
+
+    private final ProviderStub coinDcx;
+    private final ProviderStub upstox;
+    private final ProviderStub coinMarketCap;
+    private final ProviderStub stock;
+
+    private ProviderStubs(ProviderStub coinDcx, ProviderStub upstox, ProviderStub coinMarketCap, ProviderStub stock) {
+        this.coinDcx = coinDcx;
+        this.upstox = upstox;
+        this.coinMarketCap = coinMarketCap;
+        this.stock = stock;
+    }
+
+    /**
+     * Starts all four, with latency and failures from the {@code stub.*} system properties.
+     */
+    static ProviderStubs start() throws IOException {
+        return new ProviderStubs(
+                coinDcx(Behaviour.fromSystemProperties("coindcx")).start(),
+                upstox(Behaviour.fromSystemProperties("upstox")).start(),
+                coinMarketCap(Behaviour.fromSystemProperties("coinmarketcap")).start(),
+                stock(Behaviour.fromSystemProperties("stock")).start());
+    }
+
+    List<ProviderStub> all() {
+        return List.of(coinDcx, upstox, coinMarketCap, stock);
+    }
+
+    /**
+     * Application properties that send every provider call to these stubs.
+     */
+    Map<String, String> properties() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("coindcx.api.baseUrl", coinDcx.baseUrl());
+        properties.put("upstox.api.baseUrl", upstox.baseUrl() + "/v2");
+        properties.put("coinmarketcap.api.baseUrl", coinMarketCap.baseUrl());
+        properties.put("stock.api.baseUrl", stock.baseUrl());
+        properties.put("upstox.api.key", "stub-key");
+        properties.put("upstox.api.secret", "stub-secret");
+        properties.put("upstox.redirect.uri", "http://localhost:8080/upstox/callback");
+        properties.put("coinmarketcap.api.key", "stub-key");
+        properties.put("stock.api.key", "stub-key");
+        return properties;
+    }
+
+    @Override
+    public void close() {
+        all().forEach(ProviderStub::close);
+    }
+
+    public static void main(String[] args) throws Exception {
+        ProviderStubs stubs = start();
+        Runtime.getRuntime().addShutdownHook(new Thread(stubs::close));
+        stubs.properties().forEach((key, value) -> System.out.println(key + "=" + value));
+        Thread.currentThread().join();
+    }
+
+    static ProviderStub coinDcx(Behaviour behaviour) throws IOException {
+        return new ProviderStub("coindcx", behaviour)
+                .route("POST", "/exchange/v1/users/info", request -> Response.ok(Map.of(
+                        "coindcx_id", "stub-user",
+                        "first_name", "Load",
+                        "last_name", "Test",
+                        "mobile_number", "9999999999",
+                        "email", "load-test@example.com")))
+                .route("POST", "/exchange/v1/users/balances", request -> {
+                    List<Map<String, Object>> balances = new ArrayList<>();
+                    balances.add(balance("INR", 250000.5));
+                    for (int i = 0; i < COINS.size(); i++) {
+                        balances.add(balance(COINS.get(i), 0.05 * (i + 1)));
+                    }
+                    return Response.ok(balances);
+                })
+                .route("POST", "/exchange/v1/orders/trade_history", ProviderStubs::coinDcxTrades);
+    }
+
+    static ProviderStub upstox(Behaviour behaviour) throws IOException {
+        AtomicLong tokens = new AtomicLong();
+        return new ProviderStub("upstox", behaviour)
+                .route("POST", "/v2/login/authorization/token", request -> Response.ok(Map.of(
+                        "access_token", "stub-access-" + tokens.incrementAndGet(),
+                        "refresh_token", "stub-refresh-" + tokens.get(),
+                        "expires_in", 86400)))
+                .route("GET", "/v2/user/profile", request -> Response.ok(Map.of(
+                        "status", "success",
+                        "data", Map.of(
+                                "email", "load-test@example.com",
+                                "user_id", "STUB01",
+                                "user_name", "Load Test",
+                                "broker", "UPSTOX",
+                                "exchanges", List.of("NSE", "BSE"),
+                                "is_active", true))))
+                .route("GET", "/v2/user/get-funds-and-margin", request -> Response.ok(Map.of(
+                        "status", "success",
+                        "data", Map.of(
+                                "equity", Map.of("available_margin", 125000.75, "used_margin", 5000.0),
+                                "commodity", Map.of("available_margin", 0.0, "used_margin", 0.0)))))
+                .route("GET", "/v2/portfolio/long-term-holdings", request -> {
+                    List<Map<String, Object>> holdings = new ArrayList<>();
+                    for (int i = 1; i <= UPSTOX_HOLDINGS; i++) {
+                        Map<String, Object> holding = new LinkedHashMap<>();
+                        holding.put("isin", String.format("INE%09d", i));
+                        holding.put("company_name", "Example Industries Limited " + i);
+                        holding.put("tradingsymbol", "STOCK" + i);
+                        holding.put("trading_symbol", "STOCK" + i);
+                        holding.put("exchange", "NSE");
+                        holding.put("product", "D");
+                        holding.put("quantity", i % 50 + 1);
+                        holding.put("last_price", 1000.05 + i);
+                        holding.put("close_price", 995.4 + i);
+                        holding.put("average_price", 900.25 + i);
+                        holding.put("pnl", 1234.56);
+                        holdings.add(holding);
+                    }
+                    return Response.ok(Map.of("status", "success", "data", holdings));
+                })
+                .route("GET", "/v2/charges/historical-trades", ProviderStubs::upstoxTrades);
+    }
+
+    static ProviderStub coinMarketCap(Behaviour behaviour) throws IOException {
+        byte[] map = cmcMap(CMC_MAP_ENTRIES);
+        return new ProviderStub("coinmarketcap", behaviour)
+                .route("GET", "/v1/cryptocurrency/map", request -> Response.ok(map))
+                .route("GET", "/v1/cryptocurrency/quotes/latest", request -> {
+                    String convert = request.param("convert", "USD");
+                    Map<String, Object> data = new LinkedHashMap<>();
+                    int rank = 1;
+                    for (String symbol : request.param("symbol", "BTC").split(",")) {
+                        data.put(symbol, cmcQuote(symbol, convert, rank++));
+                    }
+                    return Response.ok(Map.of("status", cmcStatus(), "data", data));
+                });
+    }
+
+    static ProviderStub stock(Behaviour behaviour) throws IOException {
+        return new ProviderStub("stock", behaviour)
+                .route("GET", "/stock", request -> {
+                    String name = request.param("name", "STOCK");
+                    String price = String.format("%.2f", price(name, 2900));
+                    Map<String, Object> body = new LinkedHashMap<>();
+                    body.put("companyName", name + " Limited");
+                    body.put("industry", "Refineries");
+                    body.put("companyProfile", Map.of(
+                            "companyDescription", "An example company description. ".repeat(40),
+                            "mgIndustry", "Refineries"));
+                    body.put("currentPrice", Map.of("BSE", price, "NSE", price));
+                    body.put("percentChange", "0.85");
+                    body.put("yearHigh", "3217.60");
+                    body.put("yearLow", "2220.30");
+                    List<Map<String, Object>> news = new ArrayList<>();
+                    for (int n = 0; n < 10; n++) {
+                        news.add(Map.of("id", "n" + n, "headline", "Example headline",
+                                "intro", "Intro text. ".repeat(20)));
+                    }
+                    body.put("recentNews", news);
+                    return Response.ok(body);
+                });
+    }
+
+    private static Map<String, Object> balance(String currency, double balance) {
+        return Map.of("currency", currency, "balance", balance, "locked_balance", 0.0);
+    }
+
+    // Trades 1..COINDCX_TRADES, paged by from_id and limit like the real endpoint
+    private static Response coinDcxTrades(Request request) throws IOException {
+        Map<?, ?> body = request.jsonBody();
+        long fromId = body.get("from_id") instanceof Number from ? from.longValue() : 0;
+        int limit = body.get("limit") instanceof Number l ? l.intValue() : 500;
+        long now = System.currentTimeMillis();
+
+        List<Map<String, Object>> trades = new ArrayList<>();
+        for (long id = fromId + 1; id <= COINDCX_TRADES && trades.size() < limit; id++) {
+            String coin = COINS.get((int) (id % COINS.size()));
+            Map<String, Object> trade = new LinkedHashMap<>();
+            trade.put("id", id);
+            trade.put("order_id", "order-" + id);
+            trade.put("side", id % 2 == 0 ? "buy" : "sell");
+            trade.put("fee_amount", "0.5");
+            trade.put("ecode", "I");
+            trade.put("quantity", 0.01);
+            trade.put("price", price(coin, 1_000_000));
+            trade.put("symbol", coin + "INR");
+            trade.put("timestamp", now - (COINDCX_TRADES - id) * 60_000);
+            trades.add(trade);
+        }
+        return Response.ok(trades);
+    }
+
+    // UPSTOX_TRADES trades, paged by page_number and page_size with meta_data like the real endpoint
+    private static Response upstoxTrades(Request request) {
+        int pageSize = Integer.parseInt(request.param("page_size", "500"));
+        int pageNumber = Integer.parseInt(request.param("page_number", "1"));
+        int totalPages = Math.max(1, (UPSTOX_TRADES + pageSize - 1) / pageSize);
+        LocalDate start = LocalDate.parse(request.param("start_date", LocalDate.now().minusYears(1).toString()));
+
+        List<Map<String, Object>> trades = new ArrayList<>();
+        for (int i = (pageNumber - 1) * pageSize; i < Math.min(UPSTOX_TRADES, pageNumber * pageSize); i++) {
+            Map<String, Object> trade = new LinkedHashMap<>();
+            trade.put("exchange", "NSE");
+            trade.put("segment", request.param("segment", "EQ"));
+            trade.put("option_type", "");
+            trade.put("quantity", i % 20 + 1);
+            trade.put("amount", 1000.5 * (i % 20 + 1));
+            trade.put("trade_id", "T" + i);
+            trade.put("trade_date", start.plusDays(i % 365).toString());
+            trade.put("transaction_type", i % 2 == 0 ? "BUY" : "SELL");
+            trade.put("scrip_name", "Example Industries Limited " + (i % UPSTOX_HOLDINGS + 1));
+            trade.put("symbol", "STOCK" + (i % UPSTOX_HOLDINGS + 1));
+            trade.put("price", 1000.5);
+            trade.put("isin", String.format("INE%09d", i % UPSTOX_HOLDINGS + 1));
+            trades.add(trade);
+        }
+        return Response.ok(Map.of(
+                "status", "success",
+                "data", trades,
+                "meta_data", Map.of("page", Map.of(
+                        "page_number", pageNumber,
+                        "page_size", pageSize,
+                        "total_records", UPSTOX_TRADES,
+                        "total_pages", totalPages))));
+    }
+
+    private static Map<String, Object> cmcQuote(String symbol, String convert, int rank) {
+        String now = Instant.now().toString();
+        Map<String, Object> price = new LinkedHashMap<>();
+        price.put("price", price(symbol, 1_000_000));
+        price.put("volume_24h", 2345678901234.56);
+        price.put("percent_change_1h", 0.1234);
+        price.put("percent_change_24h", 1.2345);
+        price.put("percent_change_7d", -2.3456);
+        price.put("market_cap", 98765432109876.54);
+        price.put("last_updated", now);
+
+        Map<String, Object> quote = new LinkedHashMap<>();
+        quote.put("id", Math.abs(symbol.hashCode()) % 100_000);
+        quote.put("name", symbol + " coin");
+        quote.put("symbol", symbol);
+        quote.put("slug", symbol.toLowerCase());
+        quote.put("cmc_rank", rank);
+        quote.put("last_updated", now);
+        quote.put("quote", Map.of(convert, price));
+        return quote;
+    }
+
+    private static Map<String, Object> cmcStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("timestamp", Instant.now().toString());
+        status.put("error_code", 0);
+        status.put("error_message", null);
+        status.put("elapsed", 12);
+        status.put("credit_count", 1);
+        return status;
+    }
+
+    private static byte[] cmcMap(int entries) {
+        StringBuilder json = new StringBuilder(entries * 260);
+        json.append("{\"status\":{\"timestamp\":\"").append(Instant.now()).append("\",\"error_code\":0},\"data\":[");
+        for (int i = 1; i <= entries; i++) {
+            json.append(i > 1 ? "," : "")
+                    .append("{\"id\":").append(i)
+                    .append(",\"rank\":").append(i)
+                    .append(",\"name\":\"Coin ").append(i)
+                    .append("\",\"symbol\":\"C").append(i)
+                    .append("\",\"slug\":\"coin-").append(i)
+                    .append("\",\"is_active\":1,\"platform\":null}");
+        }
+        json.append("]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // A stable price per symbol that moves a little on every call, so live prices change
+    private static double price(String symbol, double scale) {
+        double base = scale * (1 + Math.floorMod(symbol.hashCode(), 1000) / 100.0);
+        return Math.round(base * (1 + ThreadLocalRandom.current().nextDouble(-0.001, 0.001)) * 100) / 100.0;
+    }
+}
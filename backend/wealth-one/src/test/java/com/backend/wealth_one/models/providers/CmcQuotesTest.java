@@ -0,0 +1,40 @@
+package com.backend.wealth_one.models.providers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CmcQuotesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void keepsTheShapeTheFrontendReads() throws Exception {
+        String body = """
+                {"status":{"error_code":0},"data":{"BTC":{"id":1,"name":"Bitcoin","symbol":"BTC",
+                "slug":"bitcoin","tags":["mineable"],"platform":null,"circulating_supply":19600000,
+                "cmc_rank":1,"last_updated":"2025-01-01T00:00:00.000Z","quote":{"INR":{"price":5000000.5,
+                "volume_24h":1.5,"market_cap_dominance":54.3,"last_updated":"2025-01-01T00:00:00.000Z"}}}}}
+                """;
+
+        CmcQuotes quotes = objectMapper.readValue(body, CmcQuotes.class);
+        CmcQuotes.Quote btc = quotes.getData().get("BTC");
+        assertEquals(5000000.5, btc.price("INR"));
+
+        JsonNode served = objectMapper.valueToTree(btc);
+        assertEquals(5000000.5, served.at("/quote/INR/price").asDouble());
+        assertEquals(1, served.get("cmc_rank").asInt());
+        assertFalse(served.has("tags"));
+        assertFalse(served.has("stale"));
+
+        JsonNode stale = objectMapper.valueToTree(btc.markStale(Instant.EPOCH));
+        assertTrue(stale.get("stale").asBoolean());
+        assertEquals("1970-01-01T00:00:00Z", stale.get("fetchedAt").asText());
+    }
+}
@@ -0,0 +1,46 @@
+package com.backend.wealth_one.services;
+
+import com.backend.wealth_one.models.User;
+import com.backend.wealth_one.repositories.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CoinDcxAuthServiceTest {
+
+    private static final String SECRET = "test-secret";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void signsExactlyTheBytesThatAreSent() throws Exception {
+        User alice = new User();
+        alice.setCoindcxApiKey("test-key");
+        alice.setCoindcxApiSecret(SECRET);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findCoinDcxKeysByUsername("alice")).thenReturn(Optional.of(alice));
+
+        CoinDcxAuthService authService = new CoinDcxAuthService(userRepository, objectMapper, 300_000, 100);
+        ReflectionTestUtils.setField(authService, "signerPoolSize", 2);
+
+        CoinDcxAuthService.SignedRequest request =
+                authService.sign("alice", Map.of("symbol", "BTCINR", "note", "₹ price"));
+
+        assertEquals("test-key", request.headers().getFirst("X-AUTH-APIKEY"));
+        assertEquals(new CoinDcxSigner("test-key", SECRET, 1).sign(request.body()),
+                request.headers().getFirst("X-AUTH-SIGNATURE"));
+
+        Map<?, ?> sent = objectMapper.readValue(request.body(), Map.class);
+        assertEquals("BTCINR", sent.get("symbol"));
+        assertEquals("₹ price", sent.get("note"));
+        assertTrue(sent.get("timestamp") instanceof Number);
+    }
+}
@@ -0,0 +1,48 @@
+package com.backend.wealth_one.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CoinDcxSignerTest {
+
+    // RFC 4231, test case 2
+    private static final String KEY = "Jefe";
+    private static final String DATA = "what do ya want for nothing?";
+    private static final String EXPECTED = "5bdcc146bf60754e6a042426089575c75a003f089d2739839dec58b964ec3843";
+
+    @Test
+    void signsWithHmacSha256AndLowercaseHex() {
+        CoinDcxSigner signer = new CoinDcxSigner("key", KEY, 2);
+        assertEquals(EXPECTED, signer.sign(DATA));
+        // A pooled Mac must come back reset
+        assertEquals(EXPECTED, signer.sign(DATA));
+
+        byte[] all = new byte[256];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = (byte) i;
+        }
+        assertEquals(HexFormat.of().formatHex(all), CoinDcxSigner.toHex(all));
+    }
+
+    @Test
+    void concurrentSignaturesMatch() throws Exception {
+        CoinDcxSigner signer = new CoinDcxSigner("key", KEY, 4);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> signatures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                signatures.add(executor.submit(() -> signer.sign(DATA)));
+            }
+            for (Future<String> signature : signatures) {
+                assertEquals(EXPECTED, signature.get());
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.backend.wealth_one.services;
+
+import com.backend.wealth_one.services.LivePriceService.PriceUpdate;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LivePriceServiceTest {
+
+    @Test
+    void subscribersToOneSymbolShareOnePollerAndOnlySeeChanges() throws Exception {
+        AtomicInteger polls = new AtomicInteger();
+        StockService stockService = mock(StockService.class);
+        // 100, 100, 101, 101, ... so every other poll is a change
+        when(stockService.getStockPriceAsync("INFY")).thenAnswer(invocation -> {
+            int poll = polls.getAndIncrement();
+            return CompletableFuture.completedFuture(Map.of("currentPrice", 100 + poll / 2));
+        });
+        LivePriceService service = new LivePriceService(mock(CoinMarketCapService.class), stockService, 20, 50);
+
+        List<PriceUpdate> first = new CopyOnWriteArrayList<>();
+        List<PriceUpdate> second = new CopyOnWriteArrayList<>();
+        Disposable a = service.stock("infy").subscribe(first::add);
+        Disposable b = service.stock("INFY").subscribe(second::add);
+        Thread.sleep(300);
+        a.dispose();
+        b.dispose();
+
+        int pollsWhileSubscribed = polls.get();
+        assertTrue(pollsWhileSubscribed > 4, "poller should have run");
+        // One poller: roughly one poll per tick, not one per subscriber
+        assertTrue(pollsWhileSubscribed < 300 / 20 + 3, "polls: " + pollsWhileSubscribed);
+        assertTrue(first.size() >= 2 && second.size() >= 2, "both subscribers get updates");
+        for (int i = 1; i < first.size(); i++) {
+            assertTrue(first.get(i).price() != first.get(i - 1).price(), "only changes are pushed");
+        }
+
+        // After the last subscriber leaves the poller stops and the feed is dropped
+        Thread.sleep(Duration.ofMillis(150).toMillis());
+        int pollsAfterIdle = polls.get();
+        Thread.sleep(100);
+        assertEquals(pollsAfterIdle, polls.get());
+        assertEquals(0, service.activeFeeds());
+    }
+
+    @Test
+    void aFeedReconnectedAfterItWasDroppedDoesNotStartASecondPoller() throws Exception {
+        AtomicInteger polls = new AtomicInteger();
+        StockService stockService = mock(StockService.class);
+        when(stockService.getStockPriceAsync("INFY")).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(Map.of("currentPrice", polls.incrementAndGet())));
+        LivePriceService service = new LivePriceService(mock(CoinMarketCapService.class), stockService, 20, 50);
+
+        // Taken from the map, then left idle until the poller stops and the entry is dropped
+        Flux<PriceUpdate> stale = service.stock("INFY");
+        stale.subscribe().dispose();
+        Thread.sleep(150);
+        assertEquals(0, service.activeFeeds());
+
+        Disposable fresh = service.stock("INFY").subscribe();
+        Disposable late = stale.subscribe();
+        Thread.sleep(50);
+        int before = polls.get();
+        Thread.sleep(300);
+        int polled = polls.get() - before;
+        fresh.dispose();
+        late.dispose();
+
+        assertEquals(1, service.activeFeeds());
+        // One poller: roughly one poll per 20ms tick, not two
+        assertTrue(polled <= 300 / 20 + 3, "polls: " + polled);
+    }
+}
@@ -0,0 +1,73 @@
+package com.backend.wealth_one.services;
+
+import com.backend.wealth_one.models.PortfolioSummary;
+import com.backend.wealth_one.models.PortfolioSummary.SourceStatus;
+import com.backend.wealth_one.models.providers.UpstoxFunds;
+import com.backend.wealth_one.models.providers.UpstoxHoldings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PortfolioServiceTest {
+
+    // One thread, so a task left blocked on a price lookup would starve everything after it
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void slowPriceLookupsTimeOutWithoutHoldingAPoolThread() throws Exception {
+        CoinDcxApiService coinDcx = mock(CoinDcxApiService.class);
+        when(coinDcx.exchange(anyString(), eq("/exchange/v1/users/balances"), eq(HttpMethod.POST), any()))
+                .thenReturn(ResponseEntity.ok("[{\"currency\":\"BTC\",\"balance\":0.5,\"locked_balance\":0}]"));
+
+        UpstoxAuthService upstox = mock(UpstoxAuthService.class);
+        UpstoxHoldings holdings = new UpstoxHoldings();
+        UpstoxHoldings.Holding infy = new UpstoxHoldings.Holding();
+        infy.setTradingsymbol("INFY");
+        infy.setQuantity(new BigDecimal("10"));
+        infy.setLastPrice(new BigDecimal("1500"));
+        holdings.setData(List.of(infy));
+        when(upstox.get(anyString(), eq("/portfolio/long-term-holdings"), eq(UpstoxHoldings.class))).thenReturn(holdings);
+        when(upstox.get(anyString(), eq("/user/get-funds-and-margin"), eq(UpstoxFunds.class))).thenReturn(new UpstoxFunds());
+
+        // Neither price source ever answers
+        CoinMarketCapService cmc = mock(CoinMarketCapService.class);
+        when(cmc.getLatestQuotesAsync(anyString(), anyString())).thenReturn(new CompletableFuture<>());
+        StockService stocks = mock(StockService.class);
+        when(stocks.getStockPricesAsync(anyCollection())).thenReturn(new CompletableFuture<>());
+
+        PortfolioService service = new PortfolioService(coinDcx, cmc, upstox, stocks, executor, new ObjectMapper());
+        ReflectionTestUtils.setField(service, "sourceTimeoutMs", 300L);
+
+        PortfolioSummary summary = service.getSummary("alice");
+
+        assertEquals(SourceStatus.TIMEOUT, summary.getSources().get("stockPrices").getStatus());
+        assertEquals(SourceStatus.TIMEOUT, summary.getSources().get("cryptoPrices").getStatus());
+        assertEquals("upstox", summary.getEquity().get(0).getPriceSource());
+        assertEquals(0, new BigDecimal("15000").compareTo(summary.getEquityValue()));
+        // The only pool thread is free again
+        assertEquals("free", executor.submit(() -> "free").get(1, TimeUnit.SECONDS));
+    }
+}
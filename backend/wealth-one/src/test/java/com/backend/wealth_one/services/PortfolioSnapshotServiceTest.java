@@ -0,0 +1,132 @@
+package com.backend.wealth_one.services;
+
+import com.backend.wealth_one.models.PortfolioSnapshot;
+import com.backend.wealth_one.models.PortfolioSummary;
+import com.backend.wealth_one.models.PortfolioSummary.Position;
+import com.backend.wealth_one.models.PortfolioSummary.SourceStatus;
+import com.backend.wealth_one.repositories.PortfolioSnapshotRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PortfolioSnapshotServiceTest {
+
+    @Test
+    void revaluesOnlyThePositionsWhosePriceChanged() {
+        PortfolioSummary summary = new PortfolioSummary();
+        summary.getCrypto().add(new Position("BTC", new BigDecimal("0.5"), new BigDecimal("100"), new BigDecimal("50"), "coinmarketcap"));
+        summary.getEquity().add(new Position("INFY", new BigDecimal("10"), null, null, null));
+        summary.getEquity().add(new Position("TCS", new BigDecimal("2"), new BigDecimal("30"), new BigDecimal("60"), "upstox"));
+        summary.getCash().put("upstoxAvailableMargin", new BigDecimal("5"));
+        summary.setCashValue(new BigDecimal("5"));
+        summary.getSources().put("upstoxHoldings", new SourceStatus(SourceStatus.OK, 10, null));
+        summary.updateTotals();
+        assertFalse(summary.isComplete());
+
+        // Same BTC price, a first price for INFY, and a symbol the user does not hold
+        assertTrue(PortfolioSnapshotService.revalue(summary, Map.of(
+                "crypto:BTC", new BigDecimal("100.0"),
+                "stock:INFY", new BigDecimal("20"),
+                "stock:WIPRO", new BigDecimal("7"))));
+
+        assertEquals(0, new BigDecimal("50").compareTo(summary.getCryptoValue()));
+        assertEquals(0, new BigDecimal("260").compareTo(summary.getEquityValue()));
+        assertEquals(0, new BigDecimal("315").compareTo(summary.getTotalValue()));
+        assertEquals("stock-api", summary.getEquity().get(0).getPriceSource());
+        assertEquals("upstox", summary.getEquity().get(1).getPriceSource());
+        assertTrue(summary.isComplete());
+
+        assertFalse(PortfolioSnapshotService.revalue(summary, Map.of("crypto:BTC", new BigDecimal("100"))));
+    }
+
+    @Test
+    void failingUserDoesNotBlockOthersFromRefreshing() {
+        // An in-memory stand-in for the collection, ordered and paged like the real query
+        Map<String, PortfolioSnapshot> store = new ConcurrentHashMap<>();
+        PortfolioSnapshotRepository repository = mock(PortfolioSnapshotRepository.class);
+        when(repository.save(any())).thenAnswer(invocation -> {
+            PortfolioSnapshot snapshot = invocation.getArgument(0);
+            store.put(snapshot.getId(), snapshot);
+            return snapshot;
+        });
+        when(repository.findByRefreshedAtBeforeAndLastReadAtAfter(any(), any(), any())).thenAnswer(invocation -> {
+            Instant refreshedBefore = invocation.getArgument(0);
+            Instant readAfter = invocation.getArgument(1);
+            Pageable page = invocation.getArgument(2);
+            return store.values().stream()
+                    .filter(s -> s.getRefreshedAt().isBefore(refreshedBefore) && s.getLastReadAt().isAfter(readAfter))
+                    .sorted(Comparator.comparing(PortfolioSnapshot::getRefreshedAt))
+                    .limit(page.getPageSize())
+                    .toList();
+        });
+
+        // Upstox is down for alice; bob's providers are fine
+        PortfolioService portfolioService = mock(PortfolioService.class);
+        when(portfolioService.getSummary("alice")).thenAnswer(invocation ->
+                summary(SourceStatus.ERROR, List.of()));
+        when(portfolioService.getSummary("bob")).thenAnswer(invocation ->
+                summary(SourceStatus.OK, List.of(new Position("TCS", BigDecimal.ONE, new BigDecimal("30"), new BigDecimal("30"), "upstox"))));
+
+        Instant start = Instant.now();
+        store.put("alice", snapshot("alice", start.minusSeconds(3600),
+                summary(SourceStatus.OK, List.of(new Position("INFY", BigDecimal.TEN, new BigDecimal("20"), new BigDecimal("200"), "upstox")))));
+        store.put("bob", snapshot("bob", start.minusSeconds(1800), summary(SourceStatus.OK, List.of())));
+
+        PortfolioSnapshotService service = new PortfolioSnapshotService(portfolioService, repository, mock(MongoTemplate.class),
+                Runnable::run);
+        ReflectionTestUtils.setField(service, "refreshMs", 300_000L);
+        ReflectionTestUtils.setField(service, "idleMs", 604_800_000L);
+        // Room for one user per run, so alice staying due would starve bob
+        ReflectionTestUtils.setField(service, "refreshBatchSize", 1);
+
+        service.refreshStale();
+        service.refreshStale();
+
+        PortfolioSnapshot alice = store.get("alice");
+        assertTrue(alice.getRefreshedAt().isAfter(start));
+        assertNotNull(alice.getRefreshError());
+        // Only the failed source's positions are carried over
+        assertEquals("INFY", alice.getSummary().getEquity().get(0).getSymbol());
+        assertEquals(0, new BigDecimal("200").compareTo(alice.getSummary().getEquityValue()));
+
+        PortfolioSnapshot bob = store.get("bob");
+        assertTrue(bob.getRefreshedAt().isAfter(start));
+        assertNull(bob.getRefreshError());
+        assertEquals("TCS", bob.getSummary().getEquity().get(0).getSymbol());
+    }
+
+    private static PortfolioSummary summary(String upstoxStatus, List<Position> equity) {
+        PortfolioSummary summary = new PortfolioSummary();
+        summary.getEquity().addAll(equity);
+        summary.getSources().put("upstoxHoldings", new SourceStatus(upstoxStatus, 10, null));
+        summary.setGeneratedAt(Instant.now());
+        summary.updateTotals();
+        return summary;
+    }
+
+    private static PortfolioSnapshot snapshot(String userId, Instant refreshedAt, PortfolioSummary summary) {
+        PortfolioSnapshot snapshot = new PortfolioSnapshot();
+        snapshot.setId(userId);
+        snapshot.setSummary(summary);
+        snapshot.setRefreshedAt(refreshedAt);
+        snapshot.setLastReadAt(Instant.now());
+        return snapshot;
+    }
+}
@@ -0,0 +1,57 @@
+package com.backend.wealth_one.services;
+
+import com.backend.wealth_one.cache.LastKnownGoodRegistry;
+import com.backend.wealth_one.clients.Provider;
+import com.backend.wealth_one.clients.ProviderHttpClients;
+import com.backend.wealth_one.models.UpstoxToken;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+
+class UpstoxAuthServiceTest {
+
+    @Test
+    void aRejectedRefreshTokenIsDroppedSoItIsNotRetried() {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer upstox = MockRestServiceServer.bindTo(restTemplate).build();
+        ProviderHttpClients clients = mock(ProviderHttpClients.class);
+        when(clients.restTemplate(Provider.UPSTOX)).thenReturn(restTemplate);
+
+        UpstoxToken token = new UpstoxToken();
+        token.setId("alice");
+        token.setAccessToken("old-access");
+        token.setRefreshToken("revoked-refresh");
+        token.setExpiresAt(Instant.now().minusSeconds(60));
+        UpstoxTokenStore tokenStore = mock(UpstoxTokenStore.class);
+        when(tokenStore.get("alice")).thenReturn(Optional.of(token));
+
+        UpstoxAuthService authService = new UpstoxAuthService(clients, tokenStore, new LastKnownGoodRegistry(new MockEnvironment()));
+        ReflectionTestUtils.setField(authService, "baseUrl", "https://upstox.test/v2");
+
+        upstox.expect(requestTo("https://upstox.test/v2/login/authorization/token"))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withStatus(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"status\":\"error\",\"errors\":[{\"message\":\"Invalid refresh token\"}]}"));
+
+        assertThrows(IllegalStateException.class, () -> authService.refreshAccessToken("alice"));
+
+        upstox.verify();
+        verify(tokenStore).dropRefreshToken("alice", "revoked-refresh");
+    }
+}
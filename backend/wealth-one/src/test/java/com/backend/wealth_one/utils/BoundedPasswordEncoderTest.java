@@ -0,0 +1,38 @@
+package com.backend.wealth_one.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void rehashesWhenTheCostChangesEitherWay() {
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(5, 1, 4, 5000, 1)) {
+            String hash = encoder.encode("secret");
+            assertTrue(encoder.matches("secret", hash));
+            assertFalse(encoder.upgradeEncoding(hash));
+
+            assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+            assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret")));
+            assertFalse(encoder.upgradeEncoding("not-a-bcrypt-hash"));
+        }
+    }
+
+    @Test
+    void turnsWorkAwayWhenSaturated() {
+        // One thread, no queue: a hash that cannot finish within max-wait is refused
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(12, 1, 0, 20, 3)) {
+            PasswordHashingBusyException busy = assertThrows(PasswordHashingBusyException.class,
+                    () -> encoder.encode("secret"));
+            assertEquals(3, busy.getRetryAfterSeconds());
+
+            // The first hash still holds the only thread
+            assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("secret"));
+        }
+    }
+}